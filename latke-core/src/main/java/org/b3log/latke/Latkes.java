@@ -16,7 +16,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.b3log.latke.cache.redis.NearRedisCache;
 import org.b3log.latke.cache.redis.RedisCache;
+import org.b3log.latke.event.EventManager;
 import org.b3log.latke.ioc.BeanManager;
 import org.b3log.latke.ioc.Discoverer;
 import org.b3log.latke.repository.jdbc.util.Connections;
@@ -36,7 +38,7 @@ import java.util.concurrent.Executors;
  * Latke framework configuration utility facade.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.11.1.34, Jun 26, 2026
+ * @version 2.13.1.0, Oct 17, 2026
  * @see #init()
  * @see #shutdown()
  * @see #getServePath()
@@ -816,6 +818,30 @@ public final class Latkes {
         return ret;
     }
 
+    /**
+     * Gets an int property specified by the given key from file "local.properties".
+     *
+     * @param key          the given key
+     * @param defaultValue the specified default value
+     * @return the value, returns the specified default value if not found
+     */
+    public static int getLocalIntProperty(final String key, final int defaultValue) {
+        final String value = getLocalProperty(key);
+        return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Gets a long property specified by the given key from file "local.properties".
+     *
+     * @param key          the given key
+     * @param defaultValue the specified default value
+     * @return the value, returns the specified default value if not found
+     */
+    public static long getLocalLongProperty(final String key, final long defaultValue) {
+        final String value = getLocalProperty(key);
+        return StringUtils.isBlank(value) ? defaultValue : Long.parseLong(value.trim());
+    }
+
     /**
      * Gets a property specified by the given key from file "latke.properties".
      *
@@ -837,8 +863,12 @@ public final class Latkes {
     public static void shutdown() {
         try {
             EXECUTOR_SERVICE.shutdown();
-            if (RuntimeCache.REDIS == getRuntimeCache()) {
+            EventManager.shutdown();
+            final RuntimeCache runtimeCache = getRuntimeCache();
+            if (RuntimeCache.REDIS == runtimeCache) {
                 RedisCache.shutdown();
+            } else if (RuntimeCache.NEAR_REDIS == runtimeCache) {
+                NearRedisCache.shutdown();
             }
             Connections.shutdownConnectionPool();
         } catch (final Exception e) {
@@ -958,7 +988,7 @@ public final class Latkes {
      * Latke runtime cache specified in the configuration file local.properties.
      *
      * @author <a href="http://88250.b3log.org">Liang Ding</a>
-     * @version 1.0.0.0, Jul 5, 2017
+     * @version 1.1.0.0, Oct 17, 2026
      * @see Latkes#getRuntimeCache()
      */
     public enum RuntimeCache {
@@ -975,6 +1005,10 @@ public final class Latkes {
          * Redis.
          */
         REDIS,
+        /**
+         * Local LRU memory cache (Guava) in front of Redis, invalidated across nodes by Redis pub/sub.
+         */
+        NEAR_REDIS,
     }
 
     /**
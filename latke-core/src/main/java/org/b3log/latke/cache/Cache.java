@@ -14,6 +14,8 @@ package org.b3log.latke.cache;
 import org.json.JSONObject;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This is the top interface of cache like structures.
@@ -22,7 +24,7 @@ import java.util.Collection;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 3.3.0.0, Apr 13, 2021
+ * @version 3.5.0.0, Oct 17, 2026
  */
 public interface Cache {
 
@@ -76,6 +78,34 @@ public interface Cache {
      */
     JSONObject get(final String key);
 
+    /**
+     * Gets objects by the specified keys.
+     *
+     * @param keys the specified keys
+     * @return found objects, &lt;key, object&gt;, keys not found are absent
+     */
+    default Map<String, JSONObject> getAll(final Collection<String> keys) {
+        final Map<String, JSONObject> ret = new HashMap<>();
+        for (final String key : keys) {
+            final JSONObject value = get(key);
+            if (null != value) {
+                ret.put(key, value);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Puts the specified objects into this cache.
+     *
+     * @param values the specified objects, &lt;key, object&gt;
+     */
+    default void putAll(final Map<String, JSONObject> values) {
+        for (final Map.Entry<String, JSONObject> entry : values.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Removes a object by the specified key.
      *
@@ -99,4 +129,22 @@ public interface Cache {
      * Gets count of objects.
      */
     int size();
+
+    /**
+     * Gets statistics of this cache.
+     *
+     * @return statistics, for example,
+     * <pre>
+     * {
+     *     "hitCount": 10,
+     *     "missCount": 2,
+     *     "hitRate": 0.83,
+     *     "evictionCount": 0,
+     *     "size": 8
+     * }
+     * </pre>, returns an empty json object if not supported
+     */
+    default JSONObject getStats() {
+        return new JSONObject();
+    }
 }
@@ -25,7 +25,7 @@ import java.util.Map;
  * Cache factory.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.1.1.6, Apr 28, 2020
+ * @version 2.2.0.0, Oct 17, 2026
  */
 public final class CacheFactory {
 
@@ -72,6 +72,9 @@ public final class CacheFactory {
                     case REDIS:
                         cacheClass = (Class<Cache>) Class.forName("org.b3log.latke.cache.redis.RedisCache");
                         break;
+                    case NEAR_REDIS:
+                        cacheClass = (Class<Cache>) Class.forName("org.b3log.latke.cache.redis.NearRedisCache");
+                        break;
                     case NONE:
                         cacheClass = (Class<Cache>) Class.forName("org.b3log.latke.cache.NoneCache");
                         break;
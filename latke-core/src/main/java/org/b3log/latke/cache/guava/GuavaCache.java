@@ -13,7 +13,10 @@ package org.b3log.latke.cache.guava;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.b3log.latke.Latkes;
 import org.b3log.latke.cache.AbstractCache;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.Collection;
@@ -21,14 +24,32 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Guava cache.
+ * <p>
+ * The cache is bounded by the local property "cache.maxEntries" (count of entries, default {@value #DEFAULT_MAX_ENTRIES}),
+ * or by "cache.maxWeight" (estimated characters of the cached JSON) if it is specified, the least recently used entries
+ * are evicted first.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.2.0.0, Apr 13, 2021
+ * @version 2.3.2.0, Oct 17, 2026
  * @since 2.4.48
  */
 public final class GuavaCache extends AbstractCache {
 
-    private final Cache<String, JSONObject> cache;
+    /**
+     * Default maximum count of entries.
+     */
+    private static final long DEFAULT_MAX_ENTRIES = 100000;
+
+    /**
+     * Guava cache.
+     */
+    private final Cache<String, Entry> cache;
+
+    /**
+     * Whether the cache is bounded by weight.
+     */
+    private final boolean weighted;
 
     /**
      * Constructor with the specified expire seconds.
@@ -36,28 +57,66 @@ public final class GuavaCache extends AbstractCache {
      * @param expireSeconds the specified expire seconds
      */
     public GuavaCache(final int expireSeconds) {
+        this(expireSeconds, Latkes.getLocalLongProperty("cache.maxEntries", DEFAULT_MAX_ENTRIES), Latkes.getLocalLongProperty("cache.maxWeight", -1));
+    }
+
+    /**
+     * Constructor with the specified expire seconds and bounds.
+     *
+     * @param expireSeconds the specified expire seconds
+     * @param maxEntries    the specified maximum count of entries, ignored if the maximum weight is specified
+     * @param maxWeight     the specified maximum weight, {@code -1} means bounded by the count of entries
+     */
+    GuavaCache(final int expireSeconds, final long maxEntries, final long maxWeight) {
         super(expireSeconds);
-        cache = CacheBuilder.newBuilder().expireAfterWrite(expireSeconds, TimeUnit.SECONDS).build();
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().expireAfterWrite(expireSeconds, TimeUnit.SECONDS).recordStats();
+        weighted = 0 <= maxWeight;
+        if (weighted) {
+            builder.maximumWeight(maxWeight).weigher((String key, Entry entry) -> key.length() + entry.weight);
+        } else {
+            builder.maximumSize(maxEntries);
+        }
+        cache = builder.build();
     }
 
     @Override
     public boolean contains(final String key) {
-        return null != cache.getIfPresent(key);
+        return null != get(key);
     }
 
     @Override
     public void put(final String key, final JSONObject value) {
-        cache.put(key, value);
+        cache.put(key, new Entry(value, Long.MAX_VALUE, weighted ? weigh(value) : 0));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <b>Note</b>: The entry will be expired at the shorter one of the specified expire seconds and the expire seconds of
+     * this cache.
+     * </p>
+     */
     @Override
     public void put(final String key, final JSONObject value, final int expireSeconds) {
-        throw new UnsupportedOperationException();
+        cache.put(key, new Entry(value, System.currentTimeMillis() + expireSeconds * 1000L, weighted ? weigh(value) : 0));
     }
 
     @Override
     public JSONObject get(final String key) {
-        return cache.getIfPresent(key);
+        if (null == key) {
+            return null;
+        }
+
+        final Entry entry = cache.getIfPresent(key);
+        if (null == entry) {
+            return null;
+        }
+
+        if (Long.MAX_VALUE != entry.expireTime && System.currentTimeMillis() >= entry.expireTime) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.value;
     }
 
     @Override
@@ -79,4 +138,80 @@ public final class GuavaCache extends AbstractCache {
     public int size() {
         return (int) cache.size();
     }
+
+    @Override
+    public JSONObject getStats() {
+        final CacheStats stats = cache.stats();
+        return new JSONObject().
+                put("hitCount", stats.hitCount()).
+                put("missCount", stats.missCount()).
+                put("hitRate", stats.hitRate()).
+                put("evictionCount", stats.evictionCount()).
+                put("size", cache.size());
+    }
+
+    /**
+     * Estimates the weight (characters of its JSON string) of the specified value.
+     *
+     * @param value the specified value
+     * @return estimated weight
+     */
+    static int weigh(final Object value) {
+        if (value instanceof JSONObject) {
+            final JSONObject jsonObject = (JSONObject) value;
+            int ret = 2;
+            for (final String key : jsonObject.keySet()) {
+                ret += key.length() + 4 + weigh(jsonObject.opt(key));
+            }
+            return ret;
+        }
+
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            int ret = 2;
+            for (int i = 0; i < jsonArray.length(); i++) {
+                ret += weigh(jsonArray.opt(i)) + 1;
+            }
+            return ret;
+        }
+
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() + 2;
+        }
+        return 8;
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * Value.
+         */
+        private final JSONObject value;
+
+        /**
+         * Expire time in milliseconds, {@link Long#MAX_VALUE} for expiring with the expire seconds of the cache.
+         */
+        private final long expireTime;
+
+        /**
+         * Estimated weight.
+         */
+        private final int weight;
+
+        /**
+         * Constructs an entry with the specified value, expire time and weight.
+         *
+         * @param value      the specified value
+         * @param expireTime the specified expire time
+         * @param weight     the specified weight
+         */
+        private Entry(final JSONObject value, final long expireTime, final int weight) {
+            this.value = value;
+            this.expireTime = expireTime;
+            this.weight = weight;
+        }
+    }
 }
@@ -26,7 +26,7 @@ import java.util.Set;
  * Redis connection utilities.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.2, Jan 14, 2022
+ * @version 1.1.0.3, Oct 17, 2026
  * @since 2.3.13
  */
 public final class Connections {
@@ -44,7 +44,7 @@ public final class Connections {
     static {
         try {
             final Latkes.RuntimeCache runtimeCache = Latkes.getRuntimeCache();
-            if (Latkes.RuntimeCache.REDIS == runtimeCache) {
+            if (Latkes.RuntimeCache.REDIS == runtimeCache || Latkes.RuntimeCache.NEAR_REDIS == runtimeCache) {
                 final JedisPoolConfig jedisPoolConfig = new JedisPoolConfig();
                 final int minConnCnt = Integer.parseInt(Latkes.getLocalProperty("redis.minConnCnt"));
                 jedisPoolConfig.setMinIdle(minConnCnt);
@@ -0,0 +1,458 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.cache.redis;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.b3log.latke.cache.AbstractCache;
+import org.b3log.latke.cache.Cache;
+import org.b3log.latke.cache.guava.GuavaCache;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache, a local LRU memory cache ({@link GuavaCache}) in front of {@link RedisCache}.
+ * <p>
+ * Reads are served from the local cache first, writes go to Redis and evict the local entries, and then an invalidation
+ * message is published to the Redis channel "{redis.keyPrefix}:near:{cache name}", other nodes evict the local entries
+ * when they received the message.
+ * </p>
+ * <p>
+ * A local entry is filled only from Redis on reads, and only if no invalidation happened during the load, the invalidation
+ * epoch of the cache is checked after the fill. Writes don't fill the local cache: the invalidation of a newer write from
+ * another node may arrive before the fill, and the stale value would be served until it expires. While the invalidation subscription is broken, invalidations from other nodes may be
+ * missed, the local cache is cleared and bypassed until the subscription is restored.
+ * </p>
+ * <p>
+ * Values are copied when they are put to or got from the local cache, changing a got value doesn't change the cached
+ * one.
+ * </p>
+ * <p>
+ * <b>Note</b>: A local entry loaded from Redis expires with the expire seconds of this cache, regardless of the remaining
+ * time to live of the Redis entry.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 17, 2026
+ */
+public final class NearRedisCache extends AbstractCache {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(NearRedisCache.class);
+
+    /**
+     * Invalidation channel prefix.
+     */
+    private static final String CHANNEL_PREFIX = RedisCache.KEY_PREFIX + ":near:";
+
+    /**
+     * Id of this node, used to skip invalidation messages published by itself.
+     */
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    /**
+     * Near caches, &lt;cache name, near cache&gt;.
+     */
+    private static final Map<String, NearRedisCache> NEAR_CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Invalidation subscriber.
+     */
+    static final Subscriber SUBSCRIBER = new Subscriber();
+
+    /**
+     * Whether the invalidation subscriber has been started.
+     */
+    private static final AtomicBoolean SUBSCRIBER_STARTED = new AtomicBoolean();
+
+    /**
+     * Local cache.
+     */
+    private final GuavaCache local;
+
+    /**
+     * Remote cache.
+     */
+    private final Cache remote;
+
+    /**
+     * Invalidation epoch, increased before local entries are changed or evicted.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Constructor with the specified expire seconds.
+     *
+     * @param expireSeconds the specified expire seconds
+     */
+    public NearRedisCache(final int expireSeconds) {
+        this(expireSeconds, new RedisCache(expireSeconds));
+        if (SUBSCRIBER_STARTED.compareAndSet(false, true)) {
+            final Thread thread = new Thread(SUBSCRIBER, "NearRedisCacheSubscriber");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Constructor with the specified expire seconds and remote cache.
+     *
+     * @param expireSeconds the specified expire seconds
+     * @param remote        the specified remote cache
+     */
+    NearRedisCache(final int expireSeconds, final Cache remote) {
+        super(expireSeconds);
+        local = new GuavaCache(expireSeconds);
+        this.remote = remote;
+    }
+
+    @Override
+    public void setName(final String name) {
+        super.setName(name);
+        local.setName(name);
+        remote.setName(name);
+        NEAR_CACHES.put(name, this);
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        return local.contains(key) || remote.contains(key);
+    }
+
+    @Override
+    public void put(final String key, final JSONObject value) {
+        remote.put(key, value);
+        epoch.incrementAndGet();
+        local.remove(key);
+        publish(new JSONObject().put("keys", new JSONArray().put(key)));
+    }
+
+    @Override
+    public void put(final String key, final JSONObject value, final int expireSeconds) {
+        remote.put(key, value, expireSeconds);
+        epoch.incrementAndGet();
+        local.remove(key);
+        publish(new JSONObject().put("keys", new JSONArray().put(key)));
+    }
+
+    @Override
+    public void putAll(final Map<String, JSONObject> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        remote.putAll(values);
+        epoch.incrementAndGet();
+        local.remove(values.keySet());
+        publish(new JSONObject().put("keys", new JSONArray(values.keySet())));
+    }
+
+    @Override
+    public JSONObject get(final String key) {
+        if (null == key) {
+            return null;
+        }
+
+        if (!SUBSCRIBER.subscribed) {
+            return remote.get(key);
+        }
+
+        final JSONObject cached = local.get(key);
+        if (null != cached) {
+            return copy(cached);
+        }
+
+        final long loadEpoch = epoch.get();
+        final JSONObject ret = remote.get(key);
+        if (null != ret) {
+            fill(Collections.singletonMap(key, ret), loadEpoch);
+        }
+        return ret;
+    }
+
+    @Override
+    public Map<String, JSONObject> getAll(final Collection<String> keys) {
+        if (!SUBSCRIBER.subscribed) {
+            return remote.getAll(keys);
+        }
+
+        final Map<String, JSONObject> ret = local.getAll(keys);
+        ret.replaceAll((key, value) -> copy(value));
+        if (ret.size() == keys.size()) {
+            return ret;
+        }
+
+        final List<String> missedKeys = new ArrayList<>();
+        for (final String key : keys) {
+            if (!ret.containsKey(key)) {
+                missedKeys.add(key);
+            }
+        }
+        final long loadEpoch = epoch.get();
+        final Map<String, JSONObject> loaded = remote.getAll(missedKeys);
+        fill(loaded, loadEpoch);
+        ret.putAll(loaded);
+        return ret;
+    }
+
+    @Override
+    public void remove(final String key) {
+        remote.remove(key);
+        epoch.incrementAndGet();
+        local.remove(key);
+        publish(new JSONObject().put("keys", new JSONArray().put(key)));
+    }
+
+    @Override
+    public void remove(final Collection<String> keys) {
+        remote.remove(keys);
+        epoch.incrementAndGet();
+        local.remove(keys);
+        publish(new JSONObject().put("keys", new JSONArray(keys)));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publish(new JSONObject().put("clear", true));
+    }
+
+    @Override
+    public int size() {
+        return remote.size();
+    }
+
+    @Override
+    public JSONObject getStats() {
+        return local.getStats();
+    }
+
+    /**
+     * Shutdowns near cache, stops the invalidation subscriber and shutdowns redis cache.
+     */
+    public static void shutdown() {
+        SUBSCRIBER.stop();
+        RedisCache.shutdown();
+    }
+
+    /**
+     * Fills the local cache with the specified values loaded from Redis. The filled entries are evicted again if an
+     * invalidation happened since the specified load epoch, they may be stale.
+     *
+     * @param values    the specified values
+     * @param loadEpoch the specified load epoch, the invalidation epoch read before loading
+     */
+    private void fill(final Map<String, JSONObject> values, final long loadEpoch) {
+        if (values.isEmpty() || loadEpoch != epoch.get()) {
+            return;
+        }
+
+        for (final Map.Entry<String, JSONObject> entry : values.entrySet()) {
+            local.put(entry.getKey(), copy(entry.getValue()));
+        }
+        if (loadEpoch != epoch.get()) {
+            local.remove(values.keySet());
+        }
+    }
+
+    /**
+     * Clears the local cache.
+     */
+    private void clearLocal() {
+        epoch.incrementAndGet();
+        local.clear();
+    }
+
+    /**
+     * Publishes the specified invalidation message to other nodes.
+     *
+     * @param message the specified invalidation message, for example,
+     *                <pre>
+     *                {
+     *                    "keys": ["k1", "k2"], // or "clear": true
+     *                }
+     *                </pre>
+     */
+    private void publish(final JSONObject message) {
+        message.put("node", NODE_ID);
+        try (final Jedis jedis = Connections.getJedis()) {
+            jedis.publish(CHANNEL_PREFIX + getName(), message.toString());
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Publishes invalidation of cache [" + getName() + "] failed", e);
+        }
+    }
+
+    /**
+     * Evicts local entries with the specified invalidation message.
+     *
+     * @param message the specified invalidation message
+     */
+    private void invalidate(final JSONObject message) {
+        if (message.optBoolean("clear")) {
+            clearLocal();
+            return;
+        }
+
+        final JSONArray keys = message.optJSONArray("keys");
+        if (null == keys) {
+            return;
+        }
+        final List<String> keyList = new ArrayList<>(keys.length());
+        for (int i = 0; i < keys.length(); i++) {
+            keyList.add(keys.optString(i));
+        }
+        epoch.incrementAndGet();
+        local.remove(keyList);
+    }
+
+    /**
+     * Copies the specified value deeply.
+     *
+     * @param value the specified value
+     * @return copied value
+     */
+    static JSONObject copy(final JSONObject value) {
+        final JSONObject ret = new JSONObject();
+        for (final String key : value.keySet()) {
+            ret.put(key, copyValue(value.opt(key)));
+        }
+        return ret;
+    }
+
+    /**
+     * Copies the specified JSON value deeply.
+     *
+     * @param value the specified JSON value
+     * @return copied value, returns the specified value itself if it's immutable
+     */
+    private static Object copyValue(final Object value) {
+        if (value instanceof JSONObject) {
+            return copy((JSONObject) value);
+        }
+
+        if (value instanceof JSONArray) {
+            final JSONArray array = (JSONArray) value;
+            final JSONArray ret = new JSONArray();
+            for (int i = 0; i < array.length(); i++) {
+                ret.put(copyValue(array.opt(i)));
+            }
+            return ret;
+        }
+        return value;
+    }
+
+    /**
+     * Invalidation subscriber, subscribes all near cache channels with one connection and resubscribes after failures.
+     */
+    static final class Subscriber extends JedisPubSub implements Runnable {
+
+        /**
+         * Whether the subscriber is running.
+         */
+        private volatile boolean running = true;
+
+        /**
+         * Whether the invalidation channels are subscribed, local caches are bypassed if not.
+         */
+        volatile boolean subscribed;
+
+        @Override
+        public void run() {
+            while (running) {
+                try (final Jedis jedis = Connections.getJedis()) {
+                    jedis.psubscribe(this, CHANNEL_PREFIX + "*");
+                } catch (final Exception e) {
+                    unsubscribed();
+                    if (!running) {
+                        break;
+                    }
+
+                    LOGGER.log(Level.ERROR, "Subscribes near cache invalidation failed, retries after 3 seconds", e);
+                    try {
+                        TimeUnit.SECONDS.sleep(3);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onPSubscribe(final String pattern, final int subscribedChannels) {
+            // Invalidations may have been missed before the subscription
+            clearLocals();
+            subscribed = true;
+        }
+
+        @Override
+        public void onPUnsubscribe(final String pattern, final int subscribedChannels) {
+            unsubscribed();
+        }
+
+        @Override
+        public void onPMessage(final String pattern, final String channel, final String message) {
+            try {
+                final JSONObject msg = new JSONObject(message);
+                if (NODE_ID.equals(msg.optString("node"))) {
+                    return;
+                }
+
+                final NearRedisCache nearCache = NEAR_CACHES.get(channel.substring(CHANNEL_PREFIX.length()));
+                if (null != nearCache) {
+                    nearCache.invalidate(msg);
+                }
+            } catch (final Exception e) {
+                LOGGER.log(Level.ERROR, "Handles near cache invalidation [" + message + "] failed", e);
+            }
+        }
+
+        /**
+         * Marks the subscription broken, the remote entries may be changed without invalidations from now on.
+         */
+        private void unsubscribed() {
+            subscribed = false;
+            clearLocals();
+        }
+
+        /**
+         * Clears the local caches of all near caches.
+         */
+        private static void clearLocals() {
+            for (final NearRedisCache nearCache : NEAR_CACHES.values()) {
+                nearCache.clearLocal();
+            }
+        }
+
+        /**
+         * Stops the subscriber.
+         */
+        private void stop() {
+            running = false;
+            if (isSubscribed()) {
+                punsubscribe();
+            }
+        }
+    }
+}
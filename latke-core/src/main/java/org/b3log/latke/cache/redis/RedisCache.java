@@ -19,17 +19,18 @@ import org.b3log.latke.Latkes;
 import org.b3log.latke.cache.AbstractCache;
 import org.json.JSONObject;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.ScanResult;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Redis cache.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.3.0.0, Apr 13, 2021
+ * @version 1.4.0.2, Oct 17, 2026
  * @since 2.3.13
  */
 public final class RedisCache extends AbstractCache {
@@ -42,7 +43,7 @@ public final class RedisCache extends AbstractCache {
     /**
      * Key prefix.
      */
-    private static final String KEY_PREFIX;
+    static final String KEY_PREFIX;
 
     static {
         String keyPrefix = Latkes.getLocalProperty("redis.keyPrefix");
@@ -52,6 +53,11 @@ public final class RedisCache extends AbstractCache {
         KEY_PREFIX = keyPrefix;
     }
 
+    /**
+     * Count of keys to fetch in one SCAN iteration.
+     */
+    private static final int SCAN_COUNT = 1000;
+
     /**
      * Constructor with the specified expire seconds.
      *
@@ -80,7 +86,7 @@ public final class RedisCache extends AbstractCache {
     @Override
     public void put(final String key, final JSONObject value, final int expireSeconds) {
         try (final Jedis jedis = Connections.getJedis()) {
-            jedis.setex(getKeyPrefix() + key, expireSeconds, value.toString());
+            jedis.set(getKeyPrefix() + key, value.toString(), SetParams.setParams().ex(expireSeconds));
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Put data to cache with key [" + key + "] failed", e);
         }
@@ -102,6 +108,51 @@ public final class RedisCache extends AbstractCache {
         }
     }
 
+    @Override
+    public Map<String, JSONObject> getAll(final Collection<String> keys) {
+        final Map<String, JSONObject> ret = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ret;
+        }
+
+        final List<String> keyList = new ArrayList<>(keys);
+        final String keyPrefix = getKeyPrefix();
+        final String[] cacheKeys = new String[keyList.size()];
+        for (int i = 0; i < cacheKeys.length; i++) {
+            cacheKeys[i] = keyPrefix + keyList.get(i);
+        }
+
+        try (final Jedis jedis = Connections.getJedis()) {
+            final List<String> values = jedis.mget(cacheKeys);
+            for (int i = 0; i < values.size(); i++) {
+                final String s = values.get(i);
+                if (null != s) {
+                    ret.put(keyList.get(i), new JSONObject(s));
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Get data from cache with keys [" + keys + "] failed", e);
+        }
+        return ret;
+    }
+
+    @Override
+    public void putAll(final Map<String, JSONObject> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        final String keyPrefix = getKeyPrefix();
+        try (final Jedis jedis = Connections.getJedis(); final Pipeline pipeline = jedis.pipelined()) {
+            for (final Map.Entry<String, JSONObject> entry : values.entrySet()) {
+                pipeline.set(keyPrefix + entry.getKey(), entry.getValue().toString(), SetParams.setParams().ex(expireSeconds));
+            }
+            pipeline.sync();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Put data to cache with keys [" + values.keySet() + "] failed", e);
+        }
+    }
+
     @Override
     public void remove(final String key) {
         try (final Jedis jedis = Connections.getJedis()) {
@@ -128,25 +179,42 @@ public final class RedisCache extends AbstractCache {
 
     @Override
     public void clear() {
+        final ScanParams scanParams = new ScanParams().match(getKeyPrefix() + "*").count(SCAN_COUNT);
         try (final Jedis jedis = Connections.getJedis()) {
-            final Set<String> keys = jedis.keys(getKeyPrefix() + "*");
-            if (keys.isEmpty()) {
-                return;
-            }
-
-            jedis.del(keys.toArray(new String[]{}));
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                final ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+                final List<String> keys = scanResult.getResult();
+                if (!keys.isEmpty()) {
+                    jedis.del(keys.toArray(new String[]{}));
+                }
+                cursor = scanResult.getCursor();
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Clear cache failed", e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <b>Note</b>: The size is counted by incremental SCAN, it may be inaccurate if keys are added or removed meanwhile.
+     * </p>
+     */
     @Override
     public int size() {
+        final ScanParams scanParams = new ScanParams().match(getKeyPrefix() + "*").count(SCAN_COUNT);
         try (final Jedis jedis = Connections.getJedis()) {
-            final Set<String> keys = jedis.keys(getKeyPrefix() + "*");
+            final Set<String> keys = new HashSet<>();
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                final ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+                keys.addAll(scanResult.getResult());
+                cursor = scanResult.getCursor();
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
             return keys.size();
         } catch (final Exception e) {
-            LOGGER.log(Level.ERROR, "Clear cache failed", e);
+            LOGGER.log(Level.ERROR, "Count cache failed", e);
             return 0;
         }
     }
@@ -20,7 +20,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @param <T> the type of event data
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.6, Oct 31, 2018
+ * @version 1.2.0.0, Oct 17, 2026
  */
 public abstract class AbstractEventListener<T> {
 
@@ -42,21 +42,18 @@ public abstract class AbstractEventListener<T> {
      *
      * @param eventQueue the specified event
      * @param event      the specified event
+     * @return {@code true} if performed successfully, returns {@code false} otherwise
      * @see #action(org.b3log.latke.event.Event)
      */
-    final void performAction(final AbstractEventQueue eventQueue, final Event<?> event) {
+    final boolean performAction(final AbstractEventQueue eventQueue, final Event<?> event) {
         final Event<T> eventObject = (Event<T>) event;
 
         try {
             action(eventObject);
+            return true;
         } catch (final Exception e) {
             LOGGER.log(Level.WARN, "Event perform failed", e);
-        } finally { // remove event from event queue
-            if (eventQueue instanceof SynchronizedEventQueue) {
-                final SynchronizedEventQueue synchronizedEventQueue = (SynchronizedEventQueue) eventQueue;
-
-                synchronizedEventQueue.removeEvent(eventObject);
-            }
+            return false;
         }
     }
 
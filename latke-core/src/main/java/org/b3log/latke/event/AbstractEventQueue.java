@@ -11,37 +11,44 @@
  */
 package org.b3log.latke.event;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract event queue(Observable).
+ * <p>
+ * Listeners of each event type are kept in a copy-on-write array, registering and unregistering copy the array, and
+ * notifying reads the current array without any lock.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.1.0, Jan 7, 2020
+ * @version 2.0.0.0, Oct 17, 2026
  * @see AbstractEventListener
  */
 public abstract class AbstractEventQueue {
 
+    /**
+     * Empty listeners.
+     */
+    private static final AbstractEventListener<?>[] NO_LISTENERS = new AbstractEventListener<?>[0];
+
     /**
      * Flag of change.
      */
-    private boolean changed = false;
+    private volatile boolean changed = false;
 
     /**
-     * Listeners.
+     * Listeners, &lt;event type, listener snapshot&gt;.
      */
-    private final Map<String, List<AbstractEventListener<?>>> listeners = new HashMap<>();
+    private final Map<String, AbstractEventListener<?>[]> listeners = new ConcurrentHashMap<>();
 
     /**
-     * Adds the specified listener to the set of listeners for this object,
-     * provided that it is not the same as some listener already in the set.
+     * Adds the specified listener to the set of listeners for this object.
      *
      * @param listener the specified listener
      */
-    synchronized void addListener(final AbstractEventListener<?> listener) {
+    void addListener(final AbstractEventListener<?> listener) {
         if (null == listener) {
             throw new NullPointerException();
         }
@@ -51,102 +58,100 @@ public abstract class AbstractEventQueue {
             throw new NullPointerException();
         }
 
-        listeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(listener);
+        listeners.compute(eventType, (type, snapshot) -> {
+            if (null == snapshot) {
+                return new AbstractEventListener<?>[]{listener};
+            }
+
+            final AbstractEventListener<?>[] ret = Arrays.copyOf(snapshot, snapshot.length + 1);
+            ret[snapshot.length] = listener;
+            return ret;
+        });
     }
 
     /**
      * Deletes the specified listener from the set of listeners of this object.
-     * Passing {@code null} to this method will have no effect.
      *
      * @param listener the specified listener
      */
-    synchronized void deleteListener(final AbstractEventListener<?> listener) {
+    void deleteListener(final AbstractEventListener<?> listener) {
         final String eventType = listener.getEventType();
         if (null == eventType) {
             throw new NullPointerException();
         }
 
-        final List<AbstractEventListener<?>> listenerList = listeners.get(eventType);
-        if (null != listenerList) {
-            listenerList.remove(listener);
-        }
+        listeners.computeIfPresent(eventType, (type, snapshot) -> {
+            for (int i = 0; i < snapshot.length; i++) {
+                if (snapshot[i].equals(listener)) {
+                    if (1 == snapshot.length) {
+                        return null;
+                    }
+
+                    final AbstractEventListener<?>[] ret = new AbstractEventListener<?>[snapshot.length - 1];
+                    System.arraycopy(snapshot, 0, ret, 0, i);
+                    System.arraycopy(snapshot, i + 1, ret, i, snapshot.length - i - 1);
+                    return ret;
+                }
+            }
+            return snapshot;
+        });
     }
 
     /**
-     * Notifies all listeners of this event queue to perform action.
+     * Gets the current listener snapshot of the specified event type.
+     *
+     * @param eventType the specified event type
+     * @return listener snapshot, returns an empty array if not found, callers should not modify it
+     */
+    AbstractEventListener<?>[] getListeners(final String eventType) {
+        final AbstractEventListener<?>[] ret = listeners.get(eventType);
+        return null == ret ? NO_LISTENERS : ret;
+    }
+
+    /**
+     * Notifies all listeners of the specified event's type to perform action, the listeners are notified one by one in
+     * the reverse order of registration.
      * <p>
-     * If this event queue object has changed, as indicated by the
-     * {@code hasChanged} method, then notify all of its listeners and then
-     * call the {@code clearChanged} method to indicate that this object has
-     * no longer changed.
+     * A newly-added listener may miss a notification in progress, and a recently unregistered listener may be
+     * notified.
+     * </p>
      *
      * @param event the specified event
      * @see AbstractEventListener#performAction(org.b3log.latke.event.AbstractEventQueue, org.b3log.latke.event.Event)
      */
     public void notifyListeners(final Event<?> event) {
-        /*
-         * a temporary array buffer, used as a snapshot of the state of
-         * current listeners.
-         */
-        AbstractEventListener<?>[] arrLocal = null;
-
-        synchronized (this) {
-            /* We don't want the listener doing callbacks into arbitrary code
-             * while holding its own Monitor. The code where we extract each
-             * Observable from the Vector and store the state of the listener
-             * needs synchronization, but notifying listeners does not (should not).
-             * The worst result of any potential race-condition here is that:
-             * 1) a newly-added listener will miss a notification in progress
-             * 2) a recently unregistered listener will be wrongly notified
-             *    when it doesn't care
-             */
-            if (!changed) {
-                return;
-            }
-
-            final String eventType = event.getType();
-            final List<AbstractEventListener<?>> listenerList = listeners.get(eventType);
-
-            final AbstractEventListener<?>[] types = new AbstractEventListener<?>[1];
-
-            if (null != listenerList && !listenerList.isEmpty()) {
-                arrLocal = listenerList.toArray(types);
-                clearChanged();
-            }
-        }
-
-        if (null != arrLocal) {
-            for (int i = arrLocal.length - 1; i >= 0; i--) {
-                arrLocal[i].performAction(this, event);
-            }
+        final AbstractEventListener<?>[] snapshot = getListeners(event.getType());
+        for (int i = snapshot.length - 1; i >= 0; i--) {
+            snapshot[i].performAction(this, event);
         }
     }
 
     /**
      * Clears the listener list so that this object no longer has any listeners..
      */
-    public synchronized void deleteListeners() {
+    public void deleteListeners() {
         listeners.clear();
     }
 
     /**
      * Marks this {@literal Event queue} object as having been changed, the
      * {@code hasChanged} method will now return {@code true}.
+     *
+     * @deprecated {@link #notifyListeners(Event)} does not check the flag anymore, concurrent events would clear the
+     * flag of each other
      */
-    protected synchronized void setChanged() {
+    @Deprecated
+    protected void setChanged() {
         changed = true;
     }
 
     /**
-     * Indicates that this object has no longer changed, or that it has
-     * already notified all of its listeners of its most recent change,
-     * so that the {@code hasChanged} method will now return {@code false}.
-     * This method is called automatically by the
-     * {@code notifyListeners} methods.
+     * Indicates that this object has no longer changed.
      *
-     * @see #notifyListeners(org.b3log.latke.event.Event)
+     * @deprecated {@link #notifyListeners(Event)} does not check the flag anymore
      */
-    protected synchronized void clearChanged() {
+    @Deprecated
+    protected void clearChanged() {
         changed = false;
     }
 
@@ -156,19 +161,19 @@ public abstract class AbstractEventQueue {
      * @return {@code true} if and only if the {@code setChanged} method has
      * been called more recently than the {@code clearChanged} method on this
      * object; {@code false} otherwise
-     * @see #clearChanged()
-     * @see #setChanged()
+     * @deprecated {@link #notifyListeners(Event)} does not check the flag anymore
      */
-    public synchronized boolean hasChanged() {
+    @Deprecated
+    public boolean hasChanged() {
         return changed;
     }
 
     /**
-     * Returns the number of listeners of this {@literal Event queue} object.
+     * Returns the number of event types which have listeners of this {@literal Event queue} object.
      *
-     * @return the number of listeners of this object.
+     * @return the number of event types
      */
-    public synchronized int countListeners() {
+    public int countListeners() {
         return listeners.size();
     }
 }
@@ -11,28 +11,160 @@
  */
 package org.b3log.latke.event;
 
-import org.b3log.latke.Latkes;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.b3log.latke.ioc.Singleton;
+import org.json.JSONObject;
 
-import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Event manager.
+ * <p>
+ * Events are published without any lock. Asynchronous events are delivered by a bounded thread pool, if the pool is
+ * saturated the caller waits a while for a free slot (back-pressure), a Netty event loop thread never waits. An event
+ * still not accepted, or fired after {@link #shutdown()}, is dropped: it's logged, counted as "dropped" in
+ * {@link #getStats()} and its future fails. Delivery of asynchronous events could be configured per event type by
+ * {@link #setDeliveryMode(String, DeliveryMode)}, the pending events of an {@link DeliveryMode#ORDERED} type are bounded
+ * by the same queue size and follow the same policy.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.2.6, Oct 31, 2018
+ * @version 1.4.0.0, Oct 17, 2026
  */
 @Singleton
 public class EventManager {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(EventManager.class);
+
+    /**
+     * Thread count of the asynchronous event executor.
+     */
+    private static final int ASYNC_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Queue size of the asynchronous event executor.
+     */
+    private static final int ASYNC_QUEUE_SIZE = 4096;
+
+    /**
+     * Maximum time in milliseconds a caller waits for a free slot of the saturated asynchronous event executor.
+     */
+    private static final long ASYNC_OFFER_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Asynchronous event executor.
+     */
+    private static final ThreadPoolExecutor ASYNC_EXECUTOR = newExecutor(ASYNC_THREADS, ASYNC_QUEUE_SIZE, ASYNC_OFFER_TIMEOUT_MILLIS);
+
+    /**
+     * Asynchronous event executor of this event manager.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Maximum count of pending events of an ordered delivery lane.
+     */
+    private final int laneCapacity;
+
+    /**
+     * Maximum time in milliseconds a caller waits for a free slot of a saturated ordered delivery lane.
+     */
+    private final long laneOfferTimeoutMillis;
+
     /**
      * Synchronized event queue.
      */
     private final SynchronizedEventQueue synchronizedEventQueue = new SynchronizedEventQueue(this);
 
     /**
-     * Fire the specified event synchronously.
+     * Delivery modes, &lt;event type, delivery mode&gt;.
+     */
+    private final Map<String, DeliveryMode> deliveryModes = new ConcurrentHashMap<>();
+
+    /**
+     * Ordered delivery lanes, &lt;event type, lane&gt;.
+     */
+    private final Map<String, OrderedLane> orderedLanes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an event manager delivering asynchronous events on the shared executor.
+     */
+    public EventManager() {
+        this(ASYNC_EXECUTOR);
+    }
+
+    /**
+     * Constructs an event manager delivering asynchronous events on the specified executor.
+     *
+     * @param executor the specified executor, see {@link #newExecutor(int, int, long)}
+     */
+    EventManager(final ThreadPoolExecutor executor) {
+        this(executor, ASYNC_QUEUE_SIZE, ASYNC_OFFER_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs an event manager delivering asynchronous events on the specified executor with the specified ordered
+     * delivery lane arguments.
+     *
+     * @param executor               the specified executor, see {@link #newExecutor(int, int, long)}
+     * @param laneCapacity           the specified maximum count of pending events of an ordered delivery lane
+     * @param laneOfferTimeoutMillis the specified maximum time in milliseconds a caller waits if a lane is saturated
+     */
+    EventManager(final ThreadPoolExecutor executor, final int laneCapacity, final long laneOfferTimeoutMillis) {
+        this.executor = executor;
+        this.laneCapacity = laneCapacity;
+        this.laneOfferTimeoutMillis = laneOfferTimeoutMillis;
+    }
+
+    /**
+     * Creates an asynchronous event executor with the specified arguments.
+     *
+     * @param threads            the specified thread count
+     * @param queueSize          the specified queue size
+     * @param offerTimeoutMillis the specified maximum time in milliseconds a caller waits if the executor is saturated
+     * @return executor
+     */
+    static ThreadPoolExecutor newExecutor(final int threads, final int queueSize, final long offerTimeoutMillis) {
+        final AtomicInteger threadNum = new AtomicInteger();
+        final ThreadPoolExecutor ret = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            final Thread thread = new Thread(runnable, "EventManager-" + threadNum.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Event manager has been shutdown");
+            }
+            // Waits for a free slot off the event loop, the event loop must not be blocked
+            if (!(Thread.currentThread() instanceof FastThreadLocalThread)) {
+                try {
+                    if (executor.getQueue().offer(runnable, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        if (executor.isShutdown() && executor.remove(runnable)) {
+                            throw new RejectedExecutionException("Event manager has been shutdown");
+                        }
+                        return;
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw new RejectedExecutionException("Event executor is saturated");
+        });
+        ret.allowCoreThreadTimeOut(true);
+        return ret;
+    }
+
+    /**
+     * Fire the specified event synchronously, the listeners are notified one by one in the caller thread.
      *
      * @param event the specified event
      */
@@ -48,17 +180,91 @@ public class EventManager {
      * @return future result
      */
     public <T> Future<T> fireEventAsynchronously(final Event<?> event) {
+        final String eventType = event.getType();
+        final DeliveryMode deliveryMode = deliveryModes.getOrDefault(eventType, DeliveryMode.SEQUENTIAL);
+        if (DeliveryMode.PARALLEL == deliveryMode) {
+            final SynchronizedEventQueue.Stat stat = synchronizedEventQueue.fired(event);
+            final AbstractEventListener<?>[] snapshot = synchronizedEventQueue.getListeners(eventType);
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[snapshot.length];
+            for (int i = 0; i < snapshot.length; i++) {
+                final AbstractEventListener<?> listener = snapshot[i];
+                try {
+                    futures[i] = CompletableFuture.runAsync(() -> synchronizedEventQueue.deliver(listener, event, stat), executor);
+                } catch (final RejectedExecutionException e) {
+                    dropped(eventType, e);
+                    futures[i] = CompletableFuture.failedFuture(e);
+                }
+            }
+            return CompletableFuture.allOf(futures).thenApply(v -> null);
+        }
+
         final FutureTask<T> futureTask = new FutureTask<>(() -> {
             synchronizedEventQueue.fireEvent(event);
 
             return null; // XXX: Our future????
         });
 
-        Latkes.EXECUTOR_SERVICE.execute(futureTask);
+        if (DeliveryMode.ORDERED == deliveryMode) {
+            try {
+                orderedLanes.computeIfAbsent(eventType, OrderedLane::new).submit(futureTask);
+            } catch (final RejectedExecutionException e) {
+                dropped(eventType, e);
+                return CompletableFuture.failedFuture(e);
+            }
+            return futureTask;
+        }
+
+        try {
+            executor.execute(futureTask);
+        } catch (final RejectedExecutionException e) {
+            dropped(eventType, e);
+            return CompletableFuture.failedFuture(e);
+        }
 
         return futureTask;
     }
 
+    /**
+     * Records an event of the specified event type is dropped caused by the specified rejection.
+     *
+     * @param eventType the specified event type
+     * @param e         the specified rejection
+     */
+    private void dropped(final String eventType, final RejectedExecutionException e) {
+        synchronizedEventQueue.dropped(eventType);
+        LOGGER.log(Level.WARN, "Dropped event [type={}]: {}", eventType, e.getMessage());
+    }
+
+    /**
+     * Sets the delivery mode of asynchronous events of the specified event type.
+     *
+     * @param eventType    the specified event type
+     * @param deliveryMode the specified delivery mode
+     */
+    public void setDeliveryMode(final String eventType, final DeliveryMode deliveryMode) {
+        deliveryModes.put(eventType, deliveryMode);
+    }
+
+    /**
+     * Gets throughput statistics of all event types.
+     *
+     * @return statistics, for example,
+     * <pre>
+     * {
+     *     "Add Article": {
+     *         "fired": 12,
+     *         "delivered": 24,
+     *         "failed": 0,
+     *         "dropped": 0,
+     *         "elapsedMillis": 350
+     *     }, ....
+     * }
+     * </pre>
+     */
+    public JSONObject getStats() {
+        return synchronizedEventQueue.getStats();
+    }
+
     /**
      * Registers the specified event listener.
      *
@@ -76,4 +282,132 @@ public class EventManager {
     public void unregisterListener(final AbstractEventListener<?> eventListener) {
         synchronizedEventQueue.deleteListener(eventListener);
     }
+
+    /**
+     * Shutdowns the asynchronous event executor, waits a few seconds for the queued events.
+     */
+    public static void shutdown() {
+        ASYNC_EXECUTOR.shutdown();
+        try {
+            ASYNC_EXECUTOR.awaitTermination(7, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivery mode of asynchronous events.
+     *
+     * @author <a href="http://88250.b3log.org">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    public enum DeliveryMode {
+
+        /**
+         * Default, each event is delivered by a pool thread, the listeners of the event are notified one by one.
+         */
+        SEQUENTIAL,
+
+        /**
+         * Events of the same type are delivered one at a time in firing order, the listeners of an event are notified
+         * one by one.
+         */
+        ORDERED,
+
+        /**
+         * Each listener of an event is notified by a pool thread concurrently.
+         */
+        PARALLEL
+    }
+
+    /**
+     * Ordered delivery lane of an event type, runs the submitted tasks one at a time in submission order on the
+     * asynchronous event executor. The pending tasks are bounded, if the lane is saturated the caller waits a while for
+     * a free slot, a Netty event loop thread never waits.
+     */
+    private final class OrderedLane implements Runnable {
+
+        /**
+         * Event type.
+         */
+        private final String eventType;
+
+        /**
+         * Pending tasks.
+         */
+        private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>(laneCapacity);
+
+        /**
+         * Whether this lane is scheduled on the executor.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Constructs a lane of the specified event type.
+         *
+         * @param eventType the specified event type
+         */
+        private OrderedLane(final String eventType) {
+            this.eventType = eventType;
+        }
+
+        /**
+         * Submits the specified task. If the lane can't be scheduled, the pending tasks are dropped and cancelled.
+         *
+         * @param task the specified task
+         * @throws RejectedExecutionException if the lane is still saturated after waiting
+         */
+        private void submit(final FutureTask<?> task) {
+            if (!offer(task)) {
+                throw new RejectedExecutionException("Event lane is saturated");
+            }
+            // Retries if tasks were submitted while dropping
+            while (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                    return;
+                } catch (final RejectedExecutionException e) {
+                    Runnable pending;
+                    while (null != (pending = tasks.poll())) {
+                        dropped(eventType, e);
+                        ((Future<?>) pending).cancel(false);
+                    }
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Offers the specified task, waits for a free slot off the event loop if the lane is saturated.
+         *
+         * @param task the specified task
+         * @return {@code true} if the task is accepted, returns {@code false} otherwise
+         */
+        private boolean offer(final Runnable task) {
+            if (tasks.offer(task)) {
+                return true;
+            }
+            if (Thread.currentThread() instanceof FastThreadLocalThread) {
+                return false;
+            }
+            try {
+                return tasks.offer(task, laneOfferTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Runnable task;
+                while (null != (task = tasks.poll())) {
+                    task.run();
+                }
+                scheduled.set(false);
+                // Tasks submitted between the last poll and resetting the flag
+            } while (!tasks.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
 }
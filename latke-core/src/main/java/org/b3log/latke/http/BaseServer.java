@@ -33,13 +33,14 @@ import org.apache.logging.log4j.Logger;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Http Server based on Netty 4.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
  * @author <a href="https://ld246.com/member/CismonX">CismonX</a>
- * @version 1.0.0.4, May 21, 2020
+ * @version 1.3.0.0, Oct 17, 2026
  * @since 3.0.0
  */
 public abstract class BaseServer {
@@ -51,6 +52,8 @@ public abstract class BaseServer {
     private static final Class<? extends ServerSocketChannel> SOCKET_CHANNEL_CLASS;
     private static final Class<? extends ServerDomainSocketChannel> DOMAIN_SOCKET_CHANNEL_CLASS;
 
+    private DispatchExecutor dispatchExecutor;
+
     static {
         if (Epoll.isAvailable()) {
             BOSS_GROUP = new EpollEventLoopGroup(1);
@@ -94,11 +97,13 @@ public abstract class BaseServer {
     private void startServer(final SocketAddress socketAddress, final Class<? extends ServerChannel> channelClass) {
         try {
             InternalLoggerFactory.setDefaultFactory(Log4J2LoggerFactory.INSTANCE);
+            dispatchExecutor = DispatchExecutor.create();
+            final Supplier<ResponseCompressor> compressorFactory = ResponseCompressor.create();
             new ServerBootstrap().
                     group(BOSS_GROUP, WORKER_GROUP).
                     channel(channelClass).
                     handler(new LoggingHandler(LogLevel.INFO)).
-                    childHandler(new HttpServerInitializer()).
+                    childHandler(new HttpServerInitializer(dispatchExecutor, compressorFactory)).
                     bind(socketAddress).sync().channel().closeFuture().sync();
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Start server failed, exit process", e);
@@ -111,6 +116,9 @@ public abstract class BaseServer {
             LOGGER.log(Level.INFO, "HTTP server is shutting down");
             BOSS_GROUP.shutdownGracefully(1, 7, TimeUnit.SECONDS).await();
             WORKER_GROUP.shutdownGracefully(1, 7, TimeUnit.SECONDS).await();
+            if (null != dispatchExecutor) {
+                dispatchExecutor.shutdown();
+            }
             LOGGER.log(Level.INFO, "HTTP server has shut down");
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Shutdown server failed", e);
@@ -119,13 +127,25 @@ public abstract class BaseServer {
 
     private static final class HttpServerInitializer extends ChannelInitializer<Channel> {
 
+        private final DispatchExecutor dispatchExecutor;
+        private final Supplier<ResponseCompressor> compressorFactory;
+
+        private HttpServerInitializer(final DispatchExecutor dispatchExecutor, final Supplier<ResponseCompressor> compressorFactory) {
+            this.dispatchExecutor = dispatchExecutor;
+            this.compressorFactory = compressorFactory;
+        }
+
         @Override
         public void initChannel(final Channel ch) {
             final ChannelPipeline pipeline = ch.pipeline();
             pipeline.addLast(new HttpServerCodec());
+            if (null != compressorFactory) {
+                pipeline.addLast(compressorFactory.get());
+            }
+            pipeline.addLast(new RequestBodyHandler());
             pipeline.addLast(new HttpObjectAggregator(1024 * 1024 * 64));
             pipeline.addLast(new WebSocketHandler());
-            pipeline.addLast(new ServerHandler());
+            pipeline.addLast(new ServerHandler(dispatchExecutor));
         }
     }
 }
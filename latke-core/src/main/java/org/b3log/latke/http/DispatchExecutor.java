@@ -0,0 +1,151 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.b3log.latke.Latkes;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request dispatch executor, runs request handling off the Netty event loops.
+ * <p>
+ * Configures it in local.properties:
+ * <pre>
+ * # EVENT_LOOP (default, handles requests on the event loops), POOL (bounded platform thread pool) or VIRTUAL (a virtual
+ * # thread per request, requires JDK 21+, falls back to POOL on older JDKs)
+ * http.dispatch=POOL
+ * # Thread count of POOL, default 200
+ * http.dispatchThreads=200
+ * # Maximum count of requests being handled or queued, requests beyond it are responded with 503, default 1024
+ * http.dispatchMaxPending=1024
+ * </pre>
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.2.0, Oct 17, 2026
+ */
+final class DispatchExecutor {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(DispatchExecutor.class);
+
+    /**
+     * Default thread count of POOL.
+     */
+    private static final int DEFAULT_THREADS = 200;
+
+    /**
+     * Default maximum count of pending requests.
+     */
+    private static final int DEFAULT_MAX_PENDING = 1024;
+
+    /**
+     * Executor.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Pending request permits.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Constructs a dispatch executor with the specified executor and maximum count of pending requests.
+     *
+     * @param executor   the specified executor
+     * @param maxPending the specified maximum count of pending requests
+     */
+    DispatchExecutor(final ExecutorService executor, final int maxPending) {
+        this.executor = executor;
+        permits = new Semaphore(maxPending);
+    }
+
+    /**
+     * Creates a dispatch executor with the configurations in local.properties.
+     *
+     * @return dispatch executor, returns {@code null} if requests should be handled on the event loops
+     */
+    static DispatchExecutor create() {
+        final String mode = Latkes.getLocalProperty("http.dispatch");
+        if (StringUtils.isBlank(mode) || "EVENT_LOOP".equalsIgnoreCase(mode)) {
+            return null;
+        }
+
+        final int maxPending = Latkes.getLocalIntProperty("http.dispatchMaxPending", DEFAULT_MAX_PENDING);
+        if ("VIRTUAL".equalsIgnoreCase(mode)) {
+            try {
+                final ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                LOGGER.log(Level.INFO, "Dispatches requests with virtual threads [maxPending={}]", maxPending);
+                return new DispatchExecutor(executor, maxPending);
+            } catch (final Exception e) {
+                LOGGER.log(Level.WARN, "Virtual threads are not supported by the current JDK, falls back to POOL");
+            }
+        } else if (!"POOL".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown dispatch mode [" + mode + "]");
+        }
+
+        final int threads = Latkes.getLocalIntProperty("http.dispatchThreads", DEFAULT_THREADS);
+        final AtomicInteger threadNum = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread ret = new Thread(runnable, "LatkeDispatcher-" + threadNum.incrementAndGet());
+            ret.setDaemon(true);
+            return ret;
+        });
+        LOGGER.log(Level.INFO, "Dispatches requests with thread pool [threads={}, maxPending={}]", threads, maxPending);
+        return new DispatchExecutor(executor, maxPending);
+    }
+
+    /**
+     * Executes the specified task if the pending requests are not saturated.
+     *
+     * @param task the specified task
+     * @return {@code true} if the task is accepted, returns {@code false} if saturated
+     */
+    boolean tryExecute(final Runnable task) {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (final RejectedExecutionException e) {
+            permits.release();
+            return false;
+        }
+    }
+
+    /**
+     * Shutdowns the executor, waits a few seconds for handling requests.
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(7, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
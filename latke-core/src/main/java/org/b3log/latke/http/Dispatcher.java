@@ -37,7 +37,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Dispatch-controller for HTTP request dispatching.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.1, Feb 10, 2020
+ * @version 2.1.1.0, Oct 17, 2026
  * @since 2.4.34
  */
 public final class Dispatcher {
@@ -125,6 +125,11 @@ public final class Dispatcher {
      */
     static Router errorHandleRouter;
 
+    /**
+     * Error handler meta of {@link #errorHandleRouter}.
+     */
+    static ContextHandlerMeta errorHandlerMeta;
+
     /**
      * Error status routing.
      *
@@ -137,6 +142,7 @@ public final class Dispatcher {
             group.middlewares.addAll(Arrays.asList(middlewares));
         }
         errorHandleRouter = group.get(uriTemplate, handler).routers.get(0);
+        errorHandlerMeta = errorHandleRouter.toContextHandlerMeta();
     }
 
     /**
@@ -373,6 +379,8 @@ public final class Dispatcher {
         private final List<HttpMethod> httpRequestMethods = new ArrayList<>();
         private Handler handler;
         private Method method;
+        private boolean streamingBody;
+        private long maxBodySize = -1;
 
         public void options(final String uriTemplate, final Handler handler) {
             options(new String[]{uriTemplate}, handler);
@@ -486,6 +494,31 @@ public final class Dispatcher {
             return this;
         }
 
+        /**
+         * Streams the request body instead of aggregating it in memory. Multipart form data is decoded incrementally
+         * (file uploads larger than 16KB are stored on disk), other bodies are spooled to disk if larger than 16KB and
+         * read by {@link Request#getInputStream()}.
+         *
+         * @return this router
+         */
+        public Router streamBody() {
+            streamingBody = true;
+
+            return this;
+        }
+
+        /**
+         * Limits the request body size, requests with a larger body are responded with 413.
+         *
+         * @param maxBodySize the specified maximum request body size in bytes
+         * @return this router
+         */
+        public Router maxBodySize(final long maxBodySize) {
+            this.maxBodySize = maxBodySize;
+
+            return this;
+        }
+
         public Router handler(final Handler handler) {
             this.handler = handler;
             final Class<?> clazz = handler.getClass();
@@ -512,6 +545,8 @@ public final class Dispatcher {
             ret.setInvokeHolder(method);
             ret.setHandler(handler);
             ret.setMiddlewares(group.middlewares);
+            ret.setStreamingBody(streamingBody);
+            ret.setMaxBodySize(maxBodySize);
 
             return ret;
         }
@@ -11,6 +11,8 @@
  */
 package org.b3log.latke.http;
 
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -27,13 +29,16 @@ import org.b3log.latke.util.Requests;
 import org.b3log.latke.util.URLs;
 import org.json.JSONObject;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /**
  * HTTP request.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.0, Apr 2, 2022
+ * @version 1.2.0.0, Oct 17, 2026
  * @since 3.0.0
  */
 public class Request {
@@ -45,6 +50,7 @@ public class Request {
     ChannelHandlerContext ctx;
     FullHttpRequest req;
     HttpPostRequestDecoder httpDecoder;
+    io.netty.handler.codec.http.multipart.FileUpload body;
     RequestContext context;
 
     Map<String, String> params = new HashMap<>();
@@ -96,6 +102,27 @@ public class Request {
         return bytes;
     }
 
+    /**
+     * Gets the input stream of the request body.
+     * <p>
+     * For routes declared by {@link Dispatcher.Router#streamBody()}, the body has been spooled to memory or disk, and
+     * {@link #getBytes()} returns {@code null}. The stream is valid until the request handling finished.
+     * </p>
+     *
+     * @return input stream of the request body
+     * @throws IOException io exception
+     */
+    public InputStream getInputStream() throws IOException {
+        if (null == body) {
+            return new ByteBufInputStream(req.content().duplicate());
+        }
+
+        if (body.isInMemory()) {
+            return new ByteBufInputStream(body.getByteBuf().duplicate());
+        }
+        return new FileInputStream(body.getFile());
+    }
+
     public void setRequestURI(final String uri) {
         req.setUri(uri);
     }
@@ -252,7 +279,8 @@ public class Request {
 
     void parseForm() {
         try {
-            final String content = (req.content().toString(CharsetUtil.UTF_8));
+            bytes = ByteBufUtil.getBytes(req.content());
+            final String content = new String(bytes, CharsetUtil.UTF_8);
             if (StringUtils.startsWithIgnoreCase(content, "%7B")) {
                 json = new JSONObject(URLs.decode(content));
             } else if (StringUtils.startsWithIgnoreCase(content, "{")) {
@@ -260,7 +288,6 @@ public class Request {
             } else {
                 parseAttrs(content, false);
             }
-            bytes = org.apache.commons.codec.binary.StringUtils.getBytesUtf8(content);
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Parses request [uri=" + req.uri() + ", remoteAddr=" + Requests.getRemoteAddr(this) + ", body=" + bytes + "] failed: " + e.getMessage());
         }
@@ -271,7 +298,17 @@ public class Request {
             httpDecoder = new HttpPostRequestDecoder(HTTP_DATA_FACTORY, req);
             httpDecoder.setDiscardThreshold(0);
             httpDecoder.offer(req);
+            readFormData();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Parses request [uri=" + req.uri() + ", remoteAddr=" + getRemoteAddr() + ", body=" + bytes + "] failed: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Reads params and file uploads from the multipart decoder, all chunks have been offered to it.
+     */
+    void readFormData() {
+        try {
             while (httpDecoder.hasNext()) {
                 final InterfaceHttpData data = httpDecoder.next();
                 if (InterfaceHttpData.HttpDataType.FileUpload == data.getHttpDataType()) {
@@ -0,0 +1,280 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.FileUpload;
+import io.netty.handler.codec.http.multipart.HttpDataFactory;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
+import io.netty.handler.codec.http.multipart.MixedFileUpload;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.http.handler.ContextHandlerMeta;
+import org.b3log.latke.http.handler.RouteHandler;
+import org.b3log.latke.http.handler.RouteResolution;
+
+/**
+ * Request body handler, enforces per-route body size limits and streams request bodies of the routes declared by
+ * {@link Dispatcher.Router#streamBody()}.
+ * <p>
+ * It's installed before {@link HttpObjectAggregator}. Bodies of streaming routes never reach the aggregator: multipart
+ * form data is offered to a {@link HttpPostRequestDecoder} chunk by chunk, other bodies are appended to a
+ * {@link FileUpload}. Both keep at most 16KB per part in memory and spill the rest to disk. Once the last chunk arrived,
+ * a {@link StreamedRequest} with an empty content is passed to {@link ServerHandler}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+final class RequestBodyHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RequestBodyHandler.class);
+
+    /**
+     * HTTP data factory, stores data larger than 16KB on disk.
+     */
+    private static final HttpDataFactory HTTP_DATA_FACTORY = new DefaultHttpDataFactory(DefaultHttpDataFactory.MINSIZE);
+
+    /**
+     * Current streaming request, {@code null} if the current request is aggregated.
+     */
+    private HttpRequest request;
+
+    /**
+     * Multipart decoder of the current streaming request.
+     */
+    private HttpPostRequestDecoder decoder;
+
+    /**
+     * Body of the current streaming request if it's not multipart.
+     */
+    private FileUpload body;
+
+    /**
+     * Maximum body size of the current request, {@code -1} means no limit here.
+     */
+    private long maxBodySize = -1;
+
+    /**
+     * Received body size of the current request.
+     */
+    private long received;
+
+    /**
+     * Whether discards the content of the current request, the request has been rejected.
+     */
+    private boolean discarding;
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+        if (msg instanceof HttpRequest && !(msg instanceof FullHttpRequest)) {
+            startRequest(ctx, (HttpRequest) msg);
+            return;
+        }
+
+        if (!(msg instanceof HttpContent)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        final HttpContent content = (HttpContent) msg;
+        if (discarding) {
+            content.release();
+            return;
+        }
+
+        received += content.content().readableBytes();
+        if (0 <= maxBodySize && received > maxBodySize) {
+            content.release();
+            reject(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        if (null == request) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        final boolean last = content instanceof LastHttpContent;
+        try {
+            if (null != decoder) {
+                decoder.offer(content);
+            } else {
+                body.addContent(content.content().retain(), last);
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARN, "Decodes request body [uri=" + request.uri() + "] failed: " + e.getMessage());
+            reject(ctx, HttpResponseStatus.BAD_REQUEST);
+            return;
+        } finally {
+            content.release();
+        }
+
+        if (last) {
+            final StreamedRequest streamedRequest = new StreamedRequest(request, decoder, body);
+            request = null;
+            decoder = null;
+            body = null;
+            ctx.fireChannelRead(streamedRequest);
+        }
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        destroy();
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * Starts the specified request, checks its body size limit and prepares streaming if its route streams body.
+     *
+     * @param ctx the specified channel handler context
+     * @param req the specified request
+     */
+    private void startRequest(final ChannelHandlerContext ctx, final HttpRequest req) {
+        destroy();
+        discarding = false;
+        received = 0;
+        final ContextHandlerMeta contextHandlerMeta = match(req);
+        maxBodySize = null == contextHandlerMeta ? -1 : contextHandlerMeta.getMaxBodySize();
+        if (0 <= maxBodySize && HttpUtil.getContentLength(req, -1L) > maxBodySize) {
+            ReferenceCountUtil.release(req);
+            reject(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        if (null == contextHandlerMeta || !contextHandlerMeta.isStreamingBody() || req.decoderResult().isFailure()) {
+            ctx.fireChannelRead(req);
+            return;
+        }
+
+        if (HttpUtil.is100ContinueExpected(req)) {
+            ctx.writeAndFlush(new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER));
+            req.headers().remove(HttpHeaderNames.EXPECT);
+        }
+
+        request = req;
+        try {
+            if (HttpPostRequestDecoder.isMultipart(req)) {
+                decoder = new HttpPostRequestDecoder(HTTP_DATA_FACTORY, req);
+                decoder.setDiscardThreshold(0);
+            } else {
+                String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
+                if (StringUtils.isBlank(contentType)) {
+                    contentType = HttpHeaderValues.APPLICATION_OCTET_STREAM.toString();
+                }
+                // Not created by the factory, which would track it per request until cleaned
+                body = new MixedFileUpload("body", "body", contentType, HttpHeaderValues.BINARY.toString(), CharsetUtil.UTF_8, 0, DefaultHttpDataFactory.MINSIZE);
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARN, "Decodes request body [uri=" + req.uri() + "] failed: " + e.getMessage());
+            reject(ctx, HttpResponseStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Matches the route of the specified request.
+     *
+     * @param req the specified request
+     * @return context handler meta, returns {@code null} if not found
+     */
+    private static ContextHandlerMeta match(final HttpRequest req) {
+        String requestURI = StringUtils.substringBefore(req.uri(), "?");
+        requestURI = StringUtils.substringAfter(requestURI, Latkes.getContextPath());
+        final RouteResolution resolution = RouteHandler.doMatch(requestURI, req.method().name());
+        return null == resolution ? null : resolution.getContextHandlerMeta();
+    }
+
+    /**
+     * Rejects the current request with the specified status, discards its remaining content and closes the connection.
+     *
+     * @param ctx    the specified channel handler context
+     * @param status the specified status
+     */
+    private void reject(final ChannelHandlerContext ctx, final HttpResponseStatus status) {
+        destroy();
+        discarding = true;
+        final FullHttpResponse res = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.EMPTY_BUFFER);
+        res.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+        res.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(res).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * Destroys the current streaming request, deletes its temporary files.
+     */
+    private void destroy() {
+        if (null != decoder) {
+            decoder.destroy();
+            decoder = null;
+        }
+        if (null != body) {
+            body.delete();
+            body = null;
+        }
+        request = null;
+    }
+
+    /**
+     * Request whose body has been streamed, the content is empty.
+     */
+    static final class StreamedRequest extends DefaultFullHttpRequest {
+
+        /**
+         * Multipart decoder, all chunks have been offered.
+         */
+        final HttpPostRequestDecoder decoder;
+
+        /**
+         * Body if it's not multipart.
+         */
+        final FileUpload body;
+
+        /**
+         * Constructs a streamed request with the specified request, decoder and body.
+         *
+         * @param req     the specified request
+         * @param decoder the specified decoder, {@code null} if it's not multipart
+         * @param body    the specified body, {@code null} if it's multipart
+         */
+        private StreamedRequest(final HttpRequest req, final HttpPostRequestDecoder decoder, final FileUpload body) {
+            super(req.protocolVersion(), req.method(), req.uri(), Unpooled.EMPTY_BUFFER, req.headers(), EmptyHttpHeaders.INSTANCE);
+            this.decoder = decoder;
+            this.body = body;
+        }
+
+        /**
+         * Destroys the decoder and deletes the body.
+         */
+        void destroy() {
+            if (null != decoder) {
+                decoder.destroy();
+            }
+            if (null != body) {
+                body.delete();
+            }
+        }
+    }
+}
@@ -12,20 +12,27 @@
 package org.b3log.latke.http;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
 import org.apache.commons.codec.binary.StringUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.b3log.latke.http.handler.ContextHandlerMeta;
 import org.b3log.latke.http.renderer.AbstractResponseRenderer;
-import org.b3log.latke.ioc.BeanManager;
 
-import java.lang.reflect.Method;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -35,7 +42,7 @@ import java.util.Set;
  * HTTP response.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.3, May 1, 2020
+ * @version 1.3.1.0, Oct 17, 2026
  * @since 3.0.0
  */
 public class Response {
@@ -50,6 +57,7 @@ public class Response {
     private boolean keepAlive;
     private byte[] content;
     private Set<Cookie> cookies;
+    private ResponseOutputStream outputStream;
 
     public Response(final ChannelHandlerContext ctx, final HttpResponse res) {
         this.ctx = ctx;
@@ -61,6 +69,10 @@ public class Response {
         this.keepAlive = keepAlive;
     }
 
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
     public boolean isCommitted() {
         return commited;
     }
@@ -107,10 +119,27 @@ public class Response {
         this.cookies = cookies;
     }
 
+    /**
+     * Gets the content as a UTF-8 string.
+     *
+     * @return content string, returns {@code null} if there is no content
+     * @see #getBytes()
+     */
     public String getString() {
         return StringUtils.newStringUtf8(content);
     }
 
+    /**
+     * Gets the content.
+     * <p>
+     * A response without a channel (for example {@link MockResponse}) keeps all of its content, including the content
+     * written with {@link #sendBuffer(ByteBuf)} or {@link #getOutputStream()}. A response with a channel keeps only
+     * the content sent with {@link #sendBytes(byte[])} or {@link #sendString(String)}, the others are written to the
+     * channel directly.
+     * </p>
+     *
+     * @return content, returns {@code null} if there is no content
+     */
     public byte[] getBytes() {
         return content;
     }
@@ -126,16 +155,13 @@ public class Response {
 
     public void sendError(final int status, final Map<String, Object> dataModel) {
         setStatus(status);
-        if (null != Dispatcher.errorHandleRouter) {
+        final ContextHandlerMeta contextHandlerMeta = Dispatcher.errorHandlerMeta;
+        if (null != contextHandlerMeta) {
             try {
                 context.attr(RequestContext.ERROR_CODE, status);
-                final ContextHandlerMeta contextHandlerMeta = Dispatcher.errorHandleRouter.toContextHandlerMeta();
-                final Method invokeHolder = contextHandlerMeta.getInvokeHolder();
-                final BeanManager beanManager = BeanManager.getInstance();
-                final Object classHolder = beanManager.getReference(invokeHolder.getDeclaringClass());
                 context.pathVar("statusCode", String.valueOf(status));
                 context.attr("dataModel", dataModel);
-                invokeHolder.invoke(classHolder, context);
+                contextHandlerMeta.getInvoker().handle(context);
                 final AbstractResponseRenderer renderer = context.getRenderer();
                 renderer.render(context);
                 return;
@@ -166,8 +192,104 @@ public class Response {
         writeResponse();
     }
 
+    /**
+     * Sends the specified buffer as the response content, the buffer will be released after written.
+     *
+     * @param buffer the specified buffer
+     */
+    public void sendBuffer(final ByteBuf buffer) {
+        writeResponse(buffer);
+    }
+
+    /**
+     * Sends the specified region of the specified file as the response content, the file is transferred with
+     * zero-copy (sendfile) if the transport supports it.
+     *
+     * @param file   the specified file
+     * @param offset the specified start offset of the region
+     * @param length the specified length of the region
+     */
+    public void sendFile(final File file, final long offset, final long length) {
+        final HttpResponse fileRes = commitHead();
+        HttpUtil.setContentLength(fileRes, length);
+        if (null != ctx) {
+            writeInEventLoop(() -> {
+                ctx.write(fileRes);
+                ctx.write(new DefaultFileRegion(file, offset, length));
+                final ChannelFuture future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+                if (!keepAlive) {
+                    future.addListener(ChannelFutureListener.CLOSE);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the output stream to write the response content, the content is sent in chunks if it's larger than a chunk.
+     * The response is sent when the stream is closed.
+     *
+     * @return output stream
+     * @see ResponseOutputStream
+     */
+    public OutputStream getOutputStream() {
+        if (null == outputStream) {
+            outputStream = new ResponseOutputStream(this);
+        }
+        return outputStream;
+    }
+
+    /**
+     * Gets the UTF-8 writer to write the response content, the response is sent when the writer is closed.
+     *
+     * @return writer
+     * @see #getOutputStream()
+     */
+    public Writer getWriter() {
+        return new OutputStreamWriter(getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Aborts the response after a failure writing its content. Sends a 500 without content if nothing has been
+     * committed, closes the connection if the chunked transfer has started, since the client can't tell a truncated
+     * body from a complete one otherwise.
+     */
+    public void abort() {
+        final boolean chunked = null != outputStream && outputStream.abort();
+        if (!commited) {
+            content = null;
+            res.headers().remove(HttpHeaderNames.CONTENT_TYPE);
+            sendError0(HttpResponseStatus.INTERNAL_SERVER_ERROR.code());
+            return;
+        }
+
+        if (chunked && null != ctx) {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Commits the response head (status and headers) without content, for the content written separately.
+     *
+     * @return response head
+     */
+    HttpResponse commitHead() {
+        final HttpResponse ret = new DefaultHttpResponse(res.protocolVersion(), res.status(), res.headers());
+        if (keepAlive) {
+            ret.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        }
+        for (final Cookie cookie : cookies) {
+            ret.headers().add(HttpHeaderNames.SET_COOKIE, ServerCookieEncoder.STRICT.encode(cookie.cookie));
+        }
+
+        commited = true;
+        return ret;
+    }
+
     private void writeResponse() {
-        final ByteBuf contentBuf = null != content ? Unpooled.copiedBuffer(content) : Unpooled.EMPTY_BUFFER;
+        writeResponse(null != content ? Unpooled.wrappedBuffer(content) : Unpooled.EMPTY_BUFFER);
+    }
+
+    private void writeResponse(final ByteBuf contentBuf) {
         res = ((FullHttpResponse) res).replace(contentBuf);
         if (keepAlive) {
             res.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, ((FullHttpResponse) res).content().readableBytes());
@@ -181,11 +303,46 @@ public class Response {
         commited = true;
 
         if (null != ctx) {
-            ctx.write(res);
-            if (!keepAlive) {
-                ctx.write(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+            writeInEventLoop(this::flushResponse);
+        } else if (null == content) {
+            keepContent(contentBuf);
+        } else {
+            // Wraps the content
+            contentBuf.release();
+        }
+    }
+
+    /**
+     * Keeps the specified content written without a channel (for example mock responses in tests) for
+     * {@link #getBytes()}, appends it to the kept content. The specified buffer is released.
+     *
+     * @param buffer the specified content buffer
+     */
+    void keepContent(final ByteBuf buffer) {
+        try {
+            if (buffer.isReadable()) {
+                final byte[] bytes = ByteBufUtil.getBytes(buffer);
+                content = null == content ? bytes : ArrayUtils.addAll(content, bytes);
             }
-            ctx.flush();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private void writeInEventLoop(final Runnable write) {
+        if (ctx.executor().inEventLoop()) {
+            write.run();
+        } else {
+            // Dispatched off the event loop, writes back through the event loop of the channel in one task
+            ctx.executor().execute(write);
+        }
+    }
+
+    private void flushResponse() {
+        ctx.write(res);
+        if (!keepAlive) {
+            ctx.write(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
         }
+        ctx.flush();
     }
 }
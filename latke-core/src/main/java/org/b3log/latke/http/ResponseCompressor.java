@@ -0,0 +1,161 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.CompressionOptions;
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.http.*;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.b3log.latke.Latkes;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Response compressor, compresses responses of compressible content types with gzip, deflate or brotli (if
+ * <a href="https://github.com/hyperxpro/Brotli4j">Brotli4j</a> is on the classpath) negotiated by Accept-Encoding.
+ * <p>
+ * Responses are not compressed if:
+ * <ul>
+ * <li>the content type is not in the configured types</li>
+ * <li>the content is smaller than the configured threshold</li>
+ * <li>Content-Encoding has been set, for example a precompressed static file</li>
+ * <li>it's a file region (sendfile) response with a fixed Content-Length</li>
+ * <li>it's a partial content (206) response, the Content-Range counts the bytes of the identity body</li>
+ * </ul>
+ * A strong ETag of a compressed response is weakened, the compressed body is not byte-identical to the identity one.
+ * </p>
+ * <p>
+ * Compression is off by default as a reverse proxy in front usually compresses already. Configures it in
+ * local.properties:
+ * <pre>
+ * # Enables response compression, default false
+ * http.compression=true
+ * # Minimum content length to compress in bytes, default 1024
+ * http.compressionMinSize=1024
+ * # Compression level of gzip and deflate, 1 (fastest) - 9 (best), default 6
+ * http.compressionLevel=6
+ * # Compressible content types, separated by ","
+ * http.compressionTypes=text/html,text/css,text/plain,application/json,application/javascript
+ * </pre>
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+final class ResponseCompressor extends HttpContentCompressor {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ResponseCompressor.class);
+
+    /**
+     * Default minimum content length to compress.
+     */
+    private static final int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Default compression level.
+     */
+    private static final int DEFAULT_LEVEL = 6;
+
+    /**
+     * Default compressible content types.
+     */
+    private static final String DEFAULT_TYPES = "text/html,text/css,text/plain,text/xml,text/javascript,application/json,"
+            + "application/javascript,application/xml,application/rss+xml,application/atom+xml,image/svg+xml";
+
+    /**
+     * Compressible content types.
+     */
+    private final Set<String> contentTypes;
+
+    /**
+     * Constructs a response compressor with the specified minimum content length, content types and compression options.
+     *
+     * @param minSize      the specified minimum content length
+     * @param contentTypes the specified compressible content types
+     * @param options      the specified compression options
+     */
+    private ResponseCompressor(final int minSize, final Set<String> contentTypes, final CompressionOptions... options) {
+        super(minSize, options);
+        this.contentTypes = contentTypes;
+    }
+
+    /**
+     * Creates a response compressor factory with the configurations in local.properties. The compressor is stateful, a
+     * channel needs its own compressor.
+     *
+     * @return response compressor factory, returns {@code null} if compression is not enabled
+     */
+    static Supplier<ResponseCompressor> create() {
+        if (!"true".equalsIgnoreCase(StringUtils.trim(Latkes.getLocalProperty("http.compression")))) {
+            return null;
+        }
+
+        final int minSize = Latkes.getLocalIntProperty("http.compressionMinSize", DEFAULT_MIN_SIZE);
+        final int level = Latkes.getLocalIntProperty("http.compressionLevel", DEFAULT_LEVEL);
+        String types = Latkes.getLocalProperty("http.compressionTypes");
+        if (StringUtils.isBlank(types)) {
+            types = DEFAULT_TYPES;
+        }
+        final Set<String> contentTypes = new HashSet<>();
+        for (final String type : types.split(",")) {
+            if (StringUtils.isNotBlank(type)) {
+                contentTypes.add(type.trim().toLowerCase());
+            }
+        }
+
+        final List<CompressionOptions> options = new ArrayList<>();
+        if (Brotli.isAvailable()) {
+            options.add(StandardCompressionOptions.brotli());
+        }
+        options.add(StandardCompressionOptions.gzip(level, 15, 8));
+        options.add(StandardCompressionOptions.deflate(level, 15, 8));
+        final CompressionOptions[] optionArray = options.toArray(new CompressionOptions[0]);
+        LOGGER.log(Level.INFO, "Compresses responses [minSize={}, level={}, brotli={}]", minSize, level, Brotli.isAvailable());
+        return () -> new ResponseCompressor(minSize, contentTypes, optionArray);
+    }
+
+    @Override
+    protected Result beginEncode(final HttpResponse response, final String acceptEncoding) throws Exception {
+        final String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (null == contentType || !contentTypes.contains(StringUtils.substringBefore(contentType, ";").trim().toLowerCase())) {
+            return null;
+        }
+
+        if (!response.headers().containsValue(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING, true)) {
+            response.headers().add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        }
+        if (!(response instanceof FullHttpResponse) && HttpUtil.isContentLengthSet(response)) {
+            // File region responses are transferred with sendfile as is
+            return null;
+        }
+        if (HttpResponseStatus.PARTIAL_CONTENT.code() == response.status().code() || response.headers().contains(HttpHeaderNames.CONTENT_RANGE)) {
+            return null;
+        }
+
+        final Result ret = super.beginEncode(response, acceptEncoding);
+        if (null != ret) {
+            final String etag = response.headers().get(HttpHeaderNames.ETAG);
+            if (null != etag && etag.startsWith("\"")) {
+                response.headers().set(HttpHeaderNames.ETAG, "W/" + etag);
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Response output stream, writes the response content in chunks of pooled buffers.
+ * <p>
+ * Content is buffered in a pooled buffer of {@value #CHUNK_SIZE} bytes. If the whole content fits in one buffer, it's
+ * sent as a normal response with Content-Length when the stream is closed. Otherwise the headers are sent with
+ * "Transfer-Encoding: chunked" once the first buffer is full, and each full buffer is sent as a chunk.
+ * </p>
+ * <p>
+ * If the response is written off the event loop (see "http.dispatch" in local.properties), the writing thread waits
+ * while the channel is not writable, so a slow client can't make the server buffer the whole content in memory.
+ * </p>
+ * <p>
+ * {@link #flush()} sends the buffered content only after the chunked transfer has started, flushing a small response
+ * doesn't turn it into a chunked one.
+ * </p>
+ * <p>
+ * If writing the content fails, {@link #abort()} discards the buffered content, the response is then completed by
+ * {@link Response#abort()}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.1.0, Oct 17, 2026
+ */
+public final class ResponseOutputStream extends OutputStream {
+
+    /**
+     * Chunk size.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Response.
+     */
+    private final Response response;
+
+    /**
+     * Current chunk buffer.
+     */
+    private ByteBuf buffer;
+
+    /**
+     * Whether the headers have been sent, the chunked transfer has started.
+     */
+    private boolean chunked;
+
+    /**
+     * Whether this stream has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a response output stream with the specified response.
+     *
+     * @param response the specified response
+     */
+    ResponseOutputStream(final Response response) {
+        this.response = response;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        buffer().writeByte(b);
+        if (!buffer.isWritable()) {
+            sendChunk();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (0 < length) {
+            final ByteBuf buf = buffer();
+            final int n = Math.min(length, buf.writableBytes());
+            buf.writeBytes(bytes, offset, n);
+            offset += n;
+            length -= n;
+            if (!buf.isWritable()) {
+                sendChunk();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (chunked && null != buffer && buffer.isReadable()) {
+            sendChunk();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        final ByteBuf last = null == buffer ? Unpooled.EMPTY_BUFFER : buffer;
+        buffer = null;
+        if (!chunked) {
+            response.sendBuffer(last);
+            return;
+        }
+
+        final ChannelHandlerContext ctx = response.ctx;
+        if (null == ctx) {
+            response.keepContent(last);
+            return;
+        }
+
+        final ChannelFuture future = ctx.writeAndFlush(new DefaultLastHttpContent(last));
+        if (!response.isKeepAlive()) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Aborts this stream after a failure writing the content, discards the buffered content.
+     *
+     * @return {@code true} if the chunked transfer has started, {@code false} otherwise
+     */
+    boolean abort() {
+        closed = true;
+        if (null != buffer) {
+            buffer.release();
+            buffer = null;
+        }
+        return chunked;
+    }
+
+    /**
+     * Gets the current chunk buffer, allocates one if absent.
+     *
+     * @return chunk buffer
+     */
+    private ByteBuf buffer() {
+        if (null == buffer) {
+            final ChannelHandlerContext ctx = response.ctx;
+            buffer = null == ctx ? Unpooled.buffer(CHUNK_SIZE, CHUNK_SIZE) : ctx.alloc().buffer(CHUNK_SIZE, CHUNK_SIZE);
+        }
+        return buffer;
+    }
+
+    /**
+     * Sends the current buffer as a chunk, sends the headers first if the chunked transfer hasn't started.
+     *
+     * @throws IOException if the connection has been closed
+     */
+    private void sendChunk() throws IOException {
+        final ByteBuf chunk = buffer;
+        buffer = null;
+        final ChannelHandlerContext ctx = response.ctx;
+        if (null != ctx && !ctx.channel().isActive()) {
+            chunk.release();
+            throw new IOException("Connection has been closed");
+        }
+
+        if (!chunked) {
+            chunked = true;
+            final HttpResponse head = response.commitHead();
+            HttpUtil.setTransferEncodingChunked(head, true);
+            if (null != ctx) {
+                ctx.write(head);
+            }
+        }
+        if (null == ctx) {
+            // No channel to write, for example mock responses in tests
+            response.keepContent(chunk);
+            return;
+        }
+
+        final ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+        if (!ctx.channel().isWritable() && !ctx.executor().inEventLoop()) {
+            // Back pressure, waits until the chunk has been written to the socket
+            future.awaitUninterruptibly();
+            if (!future.isSuccess()) {
+                throw new IOException("Writes response failed", future.cause());
+            }
+        }
+    }
+
+    /**
+     * Checks whether this stream is open.
+     *
+     * @throws IOException if this stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -11,6 +11,8 @@
  */
 package org.b3log.latke.http;
 
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.*;
@@ -22,13 +24,20 @@ import org.apache.logging.log4j.Logger;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.util.StaticResources;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.Set;
 
 /**
  * Http server handler.
+ * <p>
+ * If requests are dispatched off the event loop, requests of a channel are handled one by one: reading is paused while
+ * a request is being handled, pipelined requests already decoded are queued, and the next one is dispatched after the
+ * response of the current one has been written, so that responses are sent in the order of the requests.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.2.0, Mar 13, 2020
+ * @version 1.3.0.0, Oct 17, 2026
  * @since 3.0.0
  */
 final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
@@ -38,6 +47,30 @@ final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
      */
     private static final Logger LOGGER = LogManager.getLogger(ServerHandler.class);
 
+    /**
+     * Dispatch executor, {@code null} if requests are handled on the event loop.
+     */
+    private final DispatchExecutor dispatchExecutor;
+
+    /**
+     * Pipelined requests waiting for the current request of this channel, only accessed on the event loop.
+     */
+    private final Queue<FullHttpRequest> pendingRequests = new ArrayDeque<>();
+
+    /**
+     * Whether a request of this channel is being handled, only accessed on the event loop.
+     */
+    private boolean handling;
+
+    /**
+     * Constructs a server handler with the specified dispatch executor.
+     *
+     * @param dispatchExecutor the specified dispatch executor, {@code null} if requests are handled on the event loop
+     */
+    ServerHandler(final DispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
     @Override
     public void channelReadComplete(final ChannelHandlerContext ctx) {
         ctx.flush();
@@ -45,6 +78,101 @@ final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
 
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest fullHttpRequest) {
+        if (null == dispatchExecutor) {
+            handle(ctx, fullHttpRequest);
+            return;
+        }
+
+        // The request is released after channelRead0 returned, retains it for the dispatch thread
+        fullHttpRequest.retain();
+        ctx.channel().config().setAutoRead(false);
+        if (handling) {
+            pendingRequests.add(fullHttpRequest);
+            return;
+        }
+
+        dispatch(ctx, fullHttpRequest);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        releasePendingRequests();
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * Dispatches the specified request to the dispatch executor, the next pipelined request will be dispatched after
+     * the response of this one has been written.
+     *
+     * @param ctx             the specified channel handler context
+     * @param fullHttpRequest the specified request, retained
+     */
+    private void dispatch(final ChannelHandlerContext ctx, final FullHttpRequest fullHttpRequest) {
+        handling = true;
+        final boolean accepted = dispatchExecutor.tryExecute(() -> {
+            try {
+                handle(ctx, fullHttpRequest);
+            } catch (final Exception e) {
+                exceptionCaught(ctx, e);
+            } finally {
+                fullHttpRequest.release();
+                // Runs after the writes of the response which have been submitted to the event loop
+                ctx.executor().execute(() -> handled(ctx));
+            }
+        });
+        if (!accepted) {
+            handling = false;
+            release(fullHttpRequest);
+            releasePendingRequests();
+            final FullHttpResponse res = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.SERVICE_UNAVAILABLE, Unpooled.EMPTY_BUFFER);
+            res.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+            ctx.writeAndFlush(res).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Invoked on the event loop after a request has been handled, dispatches the next pipelined request or resumes
+     * reading.
+     *
+     * @param ctx the specified channel handler context
+     */
+    private void handled(final ChannelHandlerContext ctx) {
+        handling = false;
+        final FullHttpRequest next = pendingRequests.poll();
+        if (null != next) {
+            dispatch(ctx, next);
+            return;
+        }
+
+        if (ctx.channel().isActive()) {
+            ctx.channel().config().setAutoRead(true);
+            ctx.read();
+        }
+    }
+
+    /**
+     * Releases the specified retained request.
+     *
+     * @param fullHttpRequest the specified request
+     */
+    private static void release(final FullHttpRequest fullHttpRequest) {
+        fullHttpRequest.release();
+        if (fullHttpRequest instanceof RequestBodyHandler.StreamedRequest) {
+            ((RequestBodyHandler.StreamedRequest) fullHttpRequest).destroy();
+        }
+    }
+
+    /**
+     * Releases the pipelined requests waiting in this channel.
+     */
+    private void releasePendingRequests() {
+        FullHttpRequest pending;
+        while (null != (pending = pendingRequests.poll())) {
+            release(pending);
+        }
+    }
+
+    private void handle(final ChannelHandlerContext ctx, final FullHttpRequest fullHttpRequest) {
         setSchemeHostPort(fullHttpRequest);
         final Request request = new Request(ctx, fullHttpRequest);
         final HttpResponse res = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
@@ -55,17 +183,7 @@ final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
             request.parseQueryStr();
 
             // 解析请求体
-            String contentType = request.getHeader(HttpHeaderNames.CONTENT_TYPE.toString());
-            if (StringUtils.isNotBlank(contentType)) {
-                contentType = StringUtils.substringBefore(contentType, ";");
-                if (StringUtils.equalsIgnoreCase(contentType, "multipart/form-data")) {
-                    request.parseFormData();
-                } else {
-                    request.parseForm();
-                }
-            } else {
-                request.parseForm();
-            }
+            parseBody(request, fullHttpRequest);
 
             // 处理 Cookie
             handleCookie(request, response);
@@ -81,6 +199,31 @@ final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         release(context);
     }
 
+    private void parseBody(final Request request, final FullHttpRequest fullHttpRequest) {
+        if (fullHttpRequest instanceof RequestBodyHandler.StreamedRequest) {
+            // 流式请求体已经在读取时解码
+            final RequestBodyHandler.StreamedRequest streamedRequest = (RequestBodyHandler.StreamedRequest) fullHttpRequest;
+            request.body = streamedRequest.body;
+            request.httpDecoder = streamedRequest.decoder;
+            if (null != request.httpDecoder) {
+                request.readFormData();
+            }
+            return;
+        }
+
+        String contentType = request.getHeader(HttpHeaderNames.CONTENT_TYPE.toString());
+        if (StringUtils.isNotBlank(contentType)) {
+            contentType = StringUtils.substringBefore(contentType, ";");
+            if (StringUtils.equalsIgnoreCase(contentType, "multipart/form-data")) {
+                request.parseFormData();
+            } else {
+                request.parseForm();
+            }
+        } else {
+            request.parseForm();
+        }
+    }
+
     private void setSchemeHostPort(final FullHttpRequest fullHttpRequest) {
         final HttpHeaders headers = fullHttpRequest.headers();
         if (null != headers) {
@@ -107,6 +250,9 @@ final class ServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         if (null != request.httpDecoder) {
             request.httpDecoder.destroy();
         }
+        if (null != request.body) {
+            request.body.delete();
+        }
 
         Latkes.clearSchemeHostPort();
     }
@@ -11,21 +11,42 @@
  */
 package org.b3log.latke.http.handler;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.b3log.latke.http.HttpMethod;
+import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.function.Handler;
+import org.b3log.latke.ioc.BeanManager;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
 
 /**
  * Context handler metadata.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.0, Feb 9, 2020
+ * @version 2.3.0.0, Oct 17, 2026
  * @since 2.4.34
  */
 public final class ContextHandlerMeta {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ContextHandlerMeta.class);
+
+    /**
+     * Type of {@link Handler#handle(RequestContext)}.
+     */
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(void.class, RequestContext.class);
+
     /**
      * URI templates.
      */
@@ -41,6 +62,16 @@ public final class ContextHandlerMeta {
      */
     private Method invokeHolder;
 
+    /**
+     * The singleton reference declaring the processor method, resolved on the first invocation.
+     */
+    private volatile Object invokeTarget;
+
+    /**
+     * Invoker of the processor method, generated on the first invocation.
+     */
+    private volatile Handler invoker;
+
     /**
      * Context handler.
      */
@@ -51,6 +82,16 @@ public final class ContextHandlerMeta {
      */
     private List<Handler> middlewares;
 
+    /**
+     * Whether streams the request body instead of aggregating it in memory.
+     */
+    private boolean streamingBody;
+
+    /**
+     * Maximum request body size in bytes, {@code -1} means the server default.
+     */
+    private long maxBodySize = -1;
+
     /**
      * Set the URI templates with the specified URI templates.
      *
@@ -140,4 +181,102 @@ public final class ContextHandlerMeta {
     public void setMiddlewares(List<Handler> middlewares) {
         this.middlewares = middlewares;
     }
+
+    /**
+     * Whether streams the request body instead of aggregating it in memory.
+     *
+     * @return {@code true} if streams, returns {@code false} otherwise
+     */
+    public boolean isStreamingBody() {
+        return streamingBody;
+    }
+
+    /**
+     * Sets whether streams the request body instead of aggregating it in memory.
+     *
+     * @param streamingBody the specified flag
+     */
+    public void setStreamingBody(final boolean streamingBody) {
+        this.streamingBody = streamingBody;
+    }
+
+    /**
+     * Gets the maximum request body size.
+     *
+     * @return maximum request body size in bytes, {@code -1} means the server default
+     */
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Sets the maximum request body size.
+     *
+     * @param maxBodySize the specified maximum request body size in bytes, {@code -1} means the server default
+     */
+    public void setMaxBodySize(final long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Gets the singleton reference declaring the processor method, resolves it from the bean manager once.
+     *
+     * @return singleton reference
+     */
+    public Object getInvokeTarget() {
+        Object ret = invokeTarget;
+        if (null == ret) {
+            ret = BeanManager.getInstance().getReference(invokeHolder.getDeclaringClass());
+            invokeTarget = ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the invoker of the processor method. The invoker calls the processor method on {@link #getInvokeTarget()}
+     * directly, it's generated by {@link LambdaMetafactory} once and falls back to reflection if the generation failed.
+     *
+     * @return invoker
+     */
+    public Handler getInvoker() {
+        Handler ret = invoker;
+        if (null == ret) {
+            ret = genInvoker();
+            invoker = ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Generates the invoker of the processor method.
+     *
+     * @return invoker
+     */
+    private Handler genInvoker() {
+        final Method method = invokeHolder;
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        final Object target = isStatic ? null : getInvokeTarget();
+        try {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            final MethodHandle methodHandle = lookup.unreflect(method);
+            final MethodType factoryType = isStatic ? MethodType.methodType(Handler.class) : MethodType.methodType(Handler.class, declaringClass);
+            final MethodHandle factory = LambdaMetafactory.metafactory(lookup, "handle", factoryType, HANDLE_TYPE, methodHandle, HANDLE_TYPE).getTarget();
+            return isStatic ? (Handler) factory.invoke() : (Handler) factory.invoke(target);
+        } catch (final Throwable e) {
+            LOGGER.log(Level.DEBUG, "Generates invoker for [" + method + "] failed, falls back to reflection", e);
+        }
+
+        method.setAccessible(true);
+        return context -> {
+            try {
+                method.invoke(target, context);
+            } catch (final InvocationTargetException e) {
+                final Throwable cause = e.getTargetException();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
 }
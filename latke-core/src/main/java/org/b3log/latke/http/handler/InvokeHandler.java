@@ -16,15 +16,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.function.Handler;
-import org.b3log.latke.ioc.BeanManager;
-
-import java.lang.reflect.Method;
 
 /**
  * Invokes processing method ({@link Handler#handle(RequestContext)}.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.2, May 1, 2020
+ * @version 2.1.0.0, Oct 17, 2026
  * @since 2.4.34
  */
 public class InvokeHandler implements Handler {
@@ -38,11 +35,8 @@ public class InvokeHandler implements Handler {
     public void handle(final RequestContext context) {
         final RouteResolution result = (RouteResolution) context.attr(RequestContext.MATCH_RESULT);
         final ContextHandlerMeta contextHandlerMeta = result.getContextHandlerMeta();
-        final Method invokeHolder = contextHandlerMeta.getInvokeHolder();
-        final BeanManager beanManager = BeanManager.getInstance();
-        final Object classHolder = beanManager.getReference(invokeHolder.getDeclaringClass());
         try {
-            invokeHolder.invoke(classHolder, context);
+            contextHandlerMeta.getInvoker().handle(context);
         } catch (final Throwable e) {
             LOGGER.log(Level.ERROR, "Handler processing failed: ", e);
             context.sendError(500);
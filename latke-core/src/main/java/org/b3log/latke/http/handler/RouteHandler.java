@@ -21,7 +21,6 @@ import org.b3log.latke.http.HttpMethod;
 import org.b3log.latke.http.Request;
 import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.function.Handler;
-import org.b3log.latke.util.UriTemplates;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -32,7 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Route handler
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.5, May 7, 2020
+ * @version 2.0.0.0, Oct 17, 2026
  * @since 2.4.34
  */
 public class RouteHandler implements Handler {
@@ -42,127 +41,15 @@ public class RouteHandler implements Handler {
      */
     private static final Logger LOGGER = LogManager.getLogger(RouteHandler.class);
 
-    // 以下 Map 按照分隔符 / 数量和 HTTP 请求方法分开，主要是为了让每种 Map 都比较小，这样查找更快。 https://ld246.com/article/1569318933910
-
-    /**
-     * One segment concrete URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_CONCRETE_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * One segment GET path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_GET_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * One segment POST path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_POST_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * One segment PUT path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_PUT_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * One segment DELETE path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_DELETE_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * One segment other HTTP methods path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> ONE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments concrete URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_CONCRETE_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments GET path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_GET_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments POST path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_POST_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments PUT path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_PUT_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments DELETE path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_DELETE_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Two segments other HTTP methods path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> TWO_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Three segments concrete URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_CONCRETE_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Three segments GET path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_GET_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Three segments POST path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_POST_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
     /**
-     * Three segments PUT path var URI context handler metas holder.
+     * Concrete URI context handler metas holder, &lt;HTTP method, &lt;URI, context handler meta&gt;&gt;.
      */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_PUT_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, ContextHandlerMeta>> CONCRETE_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
 
     /**
-     * Three segments DELETE path var URI context handler metas holder.
+     * URI template tries, &lt;HTTP method, trie&gt;.
      */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_DELETE_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Three segments other HTTP methods path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> THREE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four and more segments concrete URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_CONCRETE_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four more segments GET path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_GET_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four more segments POST path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_POST_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four more segments PUT path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_PUT_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four more segments DELETE path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_DELETE_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
-
-    /**
-     * Four more segments other HTTP methods path var URI context handler metas holder.
-     */
-    private static final Map<String, ContextHandlerMeta> FOUR_MORE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS = new ConcurrentHashMap<>();
+    private static final Map<String, RouteTrie> ROUTE_TRIES = new ConcurrentHashMap<>();
 
     /**
      * Public constructor.
@@ -208,85 +95,21 @@ public class RouteHandler implements Handler {
      * @return MatchResult, returns {@code null} if not found
      */
     public static RouteResolution doMatch(final String requestURI, final String httpMethod) {
-        final int segs = StringUtils.countMatches(requestURI, "/");
-        ContextHandlerMeta contextHandlerMeta;
-        String concreteKey = httpMethod + "." + requestURI;
-        switch (segs) {
-            case 1:
-                contextHandlerMeta = ONE_SEG_CONCRETE_CTX_HANDLER_METAS.get(concreteKey);
-                if (null != contextHandlerMeta) {
-                    return new RouteResolution(contextHandlerMeta, requestURI, httpMethod);
-                }
-
-                switch (httpMethod) {
-                    case "GET":
-                        return route(requestURI, httpMethod, ONE_SEG_GET_VAR_CTX_HANDLER_METAS);
-                    case "POST":
-                        return route(requestURI, httpMethod, ONE_SEG_POST_VAR_CTX_HANDLER_METAS);
-                    case "PUT":
-                        return route(requestURI, httpMethod, ONE_SEG_PUT_VAR_CTX_HANDLER_METAS);
-                    case "DELETE":
-                        return route(requestURI, httpMethod, ONE_SEG_DELETE_VAR_CTX_HANDLER_METAS);
-                    default:
-                        return route(requestURI, httpMethod, ONE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS);
-                }
-            case 2:
-                contextHandlerMeta = TWO_SEG_CONCRETE_CTX_HANDLER_METAS.get(concreteKey);
-                if (null != contextHandlerMeta) {
-                    return new RouteResolution(contextHandlerMeta, requestURI, httpMethod);
-                }
-
-                switch (httpMethod) {
-                    case "GET":
-                        return route(requestURI, httpMethod, TWO_SEG_GET_VAR_CTX_HANDLER_METAS);
-                    case "POST":
-                        return route(requestURI, httpMethod, TWO_SEG_POST_VAR_CTX_HANDLER_METAS);
-                    case "PUT":
-                        return route(requestURI, httpMethod, TWO_SEG_PUT_VAR_CTX_HANDLER_METAS);
-                    case "DELETE":
-                        return route(requestURI, httpMethod, TWO_SEG_DELETE_VAR_CTX_HANDLER_METAS);
-                    default:
-                        return route(requestURI, httpMethod, TWO_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS);
-                }
-            case 3:
-                contextHandlerMeta = THREE_SEG_CONCRETE_CTX_HANDLER_METAS.get(concreteKey);
-                if (null != contextHandlerMeta) {
-                    return new RouteResolution(contextHandlerMeta, requestURI, httpMethod);
-                }
-
-                switch (httpMethod) {
-                    case "GET":
-                        return route(requestURI, httpMethod, THREE_SEG_GET_VAR_CTX_HANDLER_METAS);
-                    case "POST":
-                        return route(requestURI, httpMethod, THREE_SEG_POST_VAR_CTX_HANDLER_METAS);
-                    case "PUT":
-                        return route(requestURI, httpMethod, THREE_SEG_PUT_VAR_CTX_HANDLER_METAS);
-                    case "DELETE":
-                        return route(requestURI, httpMethod, THREE_SEG_DELETE_VAR_CTX_HANDLER_METAS);
-                    default:
-                        return route(requestURI, httpMethod, THREE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS);
-                }
-            default:
-                contextHandlerMeta = FOUR_MORE_SEG_CONCRETE_CTX_HANDLER_METAS.get(concreteKey);
-                if (null != contextHandlerMeta) {
-                    return new RouteResolution(contextHandlerMeta, requestURI, httpMethod);
-                }
+        final Map<String, ContextHandlerMeta> concreteCtxHandlerMetas = CONCRETE_CTX_HANDLER_METAS.get(httpMethod);
+        if (null != concreteCtxHandlerMetas) {
+            final ContextHandlerMeta contextHandlerMeta = concreteCtxHandlerMetas.get(requestURI);
+            if (null != contextHandlerMeta) {
+                return new RouteResolution(contextHandlerMeta, requestURI, httpMethod);
+            }
+        }
 
-                switch (httpMethod) {
-                    case "GET":
-                        return route(requestURI, httpMethod, FOUR_MORE_SEG_GET_VAR_CTX_HANDLER_METAS);
-                    case "POST":
-                        return route(requestURI, httpMethod, FOUR_MORE_SEG_POST_VAR_CTX_HANDLER_METAS);
-                    case "PUT":
-                        return route(requestURI, httpMethod, FOUR_MORE_SEG_PUT_VAR_CTX_HANDLER_METAS);
-                    case "DELETE":
-                        return route(requestURI, httpMethod, FOUR_MORE_SEG_DELETE_VAR_CTX_HANDLER_METAS);
-                    default:
-                        return route(requestURI, httpMethod, FOUR_MORE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS);
-                }
+        final RouteTrie routeTrie = ROUTE_TRIES.get(httpMethod);
+        if (null == routeTrie) {
+            return null;
         }
-    }
 
+        return routeTrie.match(requestURI, httpMethod);
+    }
 
     /**
      * Adds the specified context handler meta
@@ -324,126 +147,17 @@ public class RouteHandler implements Handler {
             final String[] uriTemplates = contextHandlerMeta.getUriTemplates();
             for (int j = 0; j < uriTemplates.length; j++) {
                 final String uriTemplate = uriTemplates[j];
-                final String key = httpMethod + "." + uriTemplate;
-                final int segs = StringUtils.countMatches(uriTemplate, "/");
                 if (!StringUtils.contains(uriTemplate, "{")) {
-                    switch (segs) {
-                        case 1:
-                            ONE_SEG_CONCRETE_CTX_HANDLER_METAS.put(key, contextHandlerMeta);
-                            break;
-                        case 2:
-                            TWO_SEG_CONCRETE_CTX_HANDLER_METAS.put(key, contextHandlerMeta);
-                            break;
-                        case 3:
-                            THREE_SEG_CONCRETE_CTX_HANDLER_METAS.put(key, contextHandlerMeta);
-                            break;
-                        default:
-                            FOUR_MORE_SEG_CONCRETE_CTX_HANDLER_METAS.put(key, contextHandlerMeta);
-                    }
-                } else { // URI templates contain path vars
-                    switch (segs) {
-                        case 1:
-                            switch (httpMethod) {
-                                case "GET":
-                                    ONE_SEG_GET_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "POST":
-                                    ONE_SEG_POST_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "PUT":
-                                    ONE_SEG_PUT_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "DELETE":
-                                    ONE_SEG_DELETE_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                default:
-                                    ONE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                            }
-                            break;
-                        case 2:
-                            switch (httpMethod) {
-                                case "GET":
-                                    TWO_SEG_GET_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "POST":
-                                    TWO_SEG_POST_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "PUT":
-                                    TWO_SEG_PUT_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "DELETE":
-                                    TWO_SEG_DELETE_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                default:
-                                    TWO_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                            }
-                            break;
-                        case 3:
-                            switch (httpMethod) {
-                                case "GET":
-                                    THREE_SEG_GET_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "POST":
-                                    THREE_SEG_POST_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "PUT":
-                                    THREE_SEG_PUT_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "DELETE":
-                                    THREE_SEG_DELETE_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                default:
-                                    THREE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                            }
-                            break;
-                        default:
-                            switch (httpMethod) {
-                                case "GET":
-                                    FOUR_MORE_SEG_GET_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "POST":
-                                    FOUR_MORE_SEG_POST_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "PUT":
-                                    FOUR_MORE_SEG_PUT_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                case "DELETE":
-                                    FOUR_MORE_SEG_DELETE_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                                    break;
-                                default:
-                                    FOUR_MORE_SEG_OTHER_METHOD_VAR_CTX_HANDLER_METAS.put(uriTemplate, contextHandlerMeta);
-                            }
-                    }
+                    CONCRETE_CTX_HANDLER_METAS.computeIfAbsent(httpMethod, k -> new ConcurrentHashMap<>()).put(uriTemplate, contextHandlerMeta);
                 }
+                // Concrete URI templates are added into the trie as well, so that path var routes could branch from them
+                ROUTE_TRIES.computeIfAbsent(httpMethod, k -> new RouteTrie()).add(uriTemplate, contextHandlerMeta);
             }
         }
 
         LOGGER.log(Level.DEBUG, "Added a processor method [" + methodName + "]");
     }
 
-    /**
-     * Routes the specified request containing path vars with the specified path var context handler metas holder.
-     *
-     * @param requestURI                       the specified request URI
-     * @param method                           the specified request method
-     * @param pathVarContextHandlerMetasHolder the specified path var context handler metas holder
-     * @return match result, returns {@code null} if not found
-     */
-    private static RouteResolution route(final String requestURI, final String method, final Map<String, ContextHandlerMeta> pathVarContextHandlerMetasHolder) {
-        for (final Map.Entry<String, ContextHandlerMeta> entry : pathVarContextHandlerMetasHolder.entrySet()) {
-            final String uriTemplate = entry.getKey();
-            final ContextHandlerMeta contextHandlerMeta = entry.getValue();
-            final Map<String, String> pathVars = UriTemplates.resolve(requestURI, uriTemplate);
-            if (null == pathVars) {
-                continue;
-            }
-
-            return new RouteResolution(contextHandlerMeta, pathVars, uriTemplate, method);
-        }
-
-        return null;
-    }
-
     /**
      * Gets the HTTP method.
      *
@@ -0,0 +1,323 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http.handler;
+
+import org.b3log.latke.util.URLs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Segment trie of URI templates of an HTTP method.
+ * <p>
+ * Each node is a path segment, a segment is either static ("articles") or a pattern with one path var
+ * ("{id}", "{id}.html", "article-{id}"). Matching walks the request URI segment by segment in one pass, and backtracks
+ * only if a branch fails. Precedence at each segment is deterministic:
+ * <ol>
+ * <li>static segment</li>
+ * <li>patterns with longer literal prefix + suffix</li>
+ * <li>patterns added earlier</li>
+ * </ol>
+ * A path var matches a non-empty segment part. Path vars are captured into an array during matching, the path var map
+ * is built only for the matched route.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+final class RouteTrie {
+
+    /**
+     * Captured path var names and values of the current thread, reused by matches to save two arrays per request. The
+     * names are cleared once read so a match starts with no captures.
+     */
+    private static final ThreadLocal<String[][]> CAPTURES = ThreadLocal.withInitial(() -> new String[][]{new String[0], new String[0]});
+
+    /**
+     * Root node.
+     */
+    private final Node root = new Node(null, null, null);
+
+    /**
+     * Maximum depth (segment count) of the added URI templates.
+     */
+    private volatile int maxDepth;
+
+    /**
+     * Adds the specified URI template and context handler meta.
+     *
+     * @param uriTemplate        the specified URI template, for example "/articles/{id}"
+     * @param contextHandlerMeta the specified context handler meta
+     */
+    synchronized void add(final String uriTemplate, final ContextHandlerMeta contextHandlerMeta) {
+        Node node = root;
+        int depth = 0;
+        int start = 1;
+        while (true) {
+            int end = uriTemplate.indexOf('/', start);
+            if (-1 == end) {
+                end = uriTemplate.length();
+            }
+
+            final String segment = uriTemplate.substring(Math.min(start, end), end);
+            node = node.child(segment);
+            depth++;
+            if (end >= uriTemplate.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+
+        node.route = new Route(uriTemplate, contextHandlerMeta, node.hasVars || null != node.name);
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Matches the specified request URI.
+     *
+     * @param requestURI the specified request URI, starts with "/"
+     * @param httpMethod the specified HTTP method
+     * @return route resolution, returns {@code null} if not found
+     */
+    RouteResolution match(final String requestURI, final String httpMethod) {
+        final int depth = maxDepth;
+        String[][] captures = CAPTURES.get();
+        if (captures[0].length < depth) {
+            captures = new String[][]{new String[depth], new String[depth]};
+            CAPTURES.set(captures);
+        }
+        final String[] names = captures[0];
+        final String[] values = captures[1];
+        Route route = match(root, requestURI, 1, 0, names, values);
+        if (null == route) {
+            // URI templates containing path vars accept trailing slashes, for example "/articles/1/" matches "/articles/{id}"
+            int end = requestURI.length();
+            while (1 < end && '/' == requestURI.charAt(end - 1)) {
+                end--;
+            }
+            if (end < requestURI.length()) {
+                route = match(root, requestURI.substring(0, end), 1, 0, names, values);
+                if (null != route && !route.hasVars) {
+                    route = null;
+                }
+            }
+        }
+        if (null == route) {
+            return null;
+        }
+
+        if (!route.hasVars) {
+            return new RouteResolution(route.contextHandlerMeta, route.uriTemplate, httpMethod);
+        }
+
+        final Map<String, String> pathVars = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (null != names[i]) {
+                pathVars.put(names[i], values[i]);
+                names[i] = null;
+                values[i] = null;
+            }
+        }
+        return new RouteResolution(route.contextHandlerMeta, pathVars, route.uriTemplate, httpMethod);
+    }
+
+    /**
+     * Matches the segments starting from the specified index of the specified URI under the specified node.
+     *
+     * @param node   the specified node
+     * @param uri    the specified URI
+     * @param start  the specified index, the start of the current segment
+     * @param depth  the depth of the current segment
+     * @param names  captured path var names, indexed by depth
+     * @param values captured path var values, indexed by depth
+     * @return matched route, returns {@code null} if not found
+     */
+    private static Route match(final Node node, final String uri, final int start, final int depth,
+                               final String[] names, final String[] values) {
+        if (depth >= names.length) {
+            return null;
+        }
+
+        int end = uri.indexOf('/', start);
+        final boolean last = -1 == end;
+        if (last) {
+            end = uri.length();
+        }
+        String segment = uri.substring(Math.min(start, end), end);
+        if (-1 < segment.indexOf('%') || -1 < segment.indexOf('+')) {
+            segment = URLs.decode(segment);
+        }
+
+        final Node staticChild = node.statics.get(segment);
+        if (null != staticChild) {
+            final Route ret = last ? staticChild.route : match(staticChild, uri, end + 1, depth + 1, names, values);
+            if (null != ret) {
+                names[depth] = null;
+                return ret;
+            }
+        }
+
+        for (final Node pattern : node.patterns) {
+            final int prefixLen = pattern.prefix.length();
+            final int suffixLen = pattern.suffix.length();
+            if (segment.length() <= prefixLen + suffixLen || !segment.startsWith(pattern.prefix) || !segment.endsWith(pattern.suffix)) {
+                continue;
+            }
+
+            final Route ret = last ? pattern.route : match(pattern, uri, end + 1, depth + 1, names, values);
+            if (null != ret) {
+                names[depth] = pattern.name;
+                values[depth] = 0 == prefixLen && 0 == suffixLen ? segment : segment.substring(prefixLen, segment.length() - suffixLen);
+                return ret;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Trie node.
+     */
+    private static final class Node {
+
+        /**
+         * Empty patterns.
+         */
+        private static final Node[] NO_PATTERNS = new Node[0];
+
+        /**
+         * Path var name, {@code null} if it's a static node.
+         */
+        private final String name;
+
+        /**
+         * Literal prefix of the path var.
+         */
+        private final String prefix;
+
+        /**
+         * Literal suffix of the path var.
+         */
+        private final String suffix;
+
+        /**
+         * Whether the segments from root to this node (excluded) contain path vars.
+         */
+        private boolean hasVars;
+
+        /**
+         * Static children, &lt;segment, child&gt;.
+         */
+        private final Map<String, Node> statics = new ConcurrentHashMap<>();
+
+        /**
+         * Pattern children, sorted by precedence.
+         */
+        private volatile Node[] patterns = NO_PATTERNS;
+
+        /**
+         * Pattern children, &lt;segment, child&gt;.
+         */
+        private final Map<String, Node> patternsBySegment = new HashMap<>();
+
+        /**
+         * Route ends at this node.
+         */
+        private volatile Route route;
+
+        /**
+         * Constructs a node with the specified path var name, prefix and suffix.
+         *
+         * @param name   the specified path var name, {@code null} if it's a static node
+         * @param prefix the specified prefix
+         * @param suffix the specified suffix
+         */
+        private Node(final String name, final String prefix, final String suffix) {
+            this.name = name;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * Gets or creates the child of the specified template segment.
+         *
+         * @param segment the specified template segment
+         * @return child
+         */
+        private Node child(final String segment) {
+            final boolean childHasVars = hasVars || null != name;
+            final int varStart = segment.indexOf('{');
+            final int varEnd = segment.indexOf('}', varStart + 1);
+            if (-1 == varStart || -1 == varEnd) {
+                return statics.computeIfAbsent(segment, s -> {
+                    final Node ret = new Node(null, null, null);
+                    ret.hasVars = childHasVars;
+                    return ret;
+                });
+            }
+
+            Node ret = patternsBySegment.get(segment);
+            if (null != ret) {
+                return ret;
+            }
+
+            ret = new Node(segment.substring(varStart + 1, varEnd), segment.substring(0, varStart), segment.substring(varEnd + 1));
+            ret.hasVars = childHasVars;
+            patternsBySegment.put(segment, ret);
+
+            final Node[] newPatterns = Arrays.copyOf(patterns, patterns.length + 1);
+            newPatterns[patterns.length] = ret;
+            // Stable sort, patterns added earlier take precedence if literals are of the same length
+            Arrays.sort(newPatterns, (p1, p2) -> (p2.prefix.length() + p2.suffix.length()) - (p1.prefix.length() + p1.suffix.length()));
+            patterns = newPatterns;
+            return ret;
+        }
+    }
+
+    /**
+     * Route.
+     */
+    private static final class Route {
+
+        /**
+         * URI template.
+         */
+        private final String uriTemplate;
+
+        /**
+         * Context handler meta.
+         */
+        private final ContextHandlerMeta contextHandlerMeta;
+
+        /**
+         * Whether the URI template contains path vars.
+         */
+        private final boolean hasVars;
+
+        /**
+         * Constructs a route with the specified URI template, context handler meta and path var flag.
+         *
+         * @param uriTemplate        the specified URI template
+         * @param contextHandlerMeta the specified context handler meta
+         * @param hasVars            whether the URI template contains path vars
+         */
+        private Route(final String uriTemplate, final ContextHandlerMeta contextHandlerMeta, final boolean hasVars) {
+            this.uriTemplate = uriTemplate;
+            this.contextHandlerMeta = contextHandlerMeta;
+            this.hasVars = hasVars;
+        }
+    }
+}
@@ -11,7 +11,11 @@
  */
 package org.b3log.latke.http.renderer;
 
+import freemarker.core.Environment;
 import freemarker.template.Template;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -23,14 +27,23 @@ import org.b3log.latke.http.Response;
 import org.b3log.latke.util.Requests;
 
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract <a href="http://freemarker.org">FreeMarker</a> HTTP response renderer.
+ * <p>
+ * If a subclass doesn't override {@link #genHTML(Request, Map, Template)} or {@link #doRender(String, Request, Response)},
+ * the template is processed into a pooled buffer through a UTF-8 encoder directly, and the buffer is sent as the
+ * response content. The page is encoded once instead of being copied as a string, a string builder, a byte array and a
+ * buffer. If the subclass overrides {@link #afterRender(RequestContext)}, the page is copied into a byte array and kept
+ * as the response content, so it's still available from {@link Response#getBytes()} in {@code afterRender}.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.2, May 1, 2020
+ * @version 2.2.0.0, Oct 17, 2026
  * @since 2.4.34
  */
 public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRenderer {
@@ -40,6 +53,44 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
      */
     private static final Logger LOGGER = LogManager.getLogger(AbstractFreeMarkerRenderer.class);
 
+    /**
+     * Initial buffer size of a page.
+     */
+    private static final int INITIAL_PAGE_SIZE = 16 * 1024;
+
+    /**
+     * Whether renderer classes render into buffers directly, a renderer class overriding the string based rendering
+     * methods renders with them.
+     */
+    private static final ClassValue<Boolean> RENDER_DIRECT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return !overrides(type, "genHTML", Request.class, Map.class, Template.class)
+                    && !overrides(type, "doRender", String.class, Request.class, Response.class);
+        }
+    };
+
+    /**
+     * Whether renderer classes rendering into buffers directly keep the rendered content in the response, a renderer
+     * class overriding {@link #afterRender(RequestContext)} keeps it.
+     */
+    private static final ClassValue<Boolean> KEEP_CONTENT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return overrides(type, "afterRender", RequestContext.class);
+        }
+    };
+
+    /**
+     * Last page sizes, &lt;template name, size&gt;, used as the initial buffer sizes of the next renders.
+     */
+    private static final Map<String, Integer> PAGE_SIZES = new ConcurrentHashMap<>();
+
+    /**
+     * Formatted footer date of the current second.
+     */
+    private static volatile FooterDate footerDate = new FooterDate(0, "");
+
     /**
      * Template name.
      */
@@ -59,12 +110,14 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
     protected abstract void beforeRender(final RequestContext context) throws Exception;
 
     /**
-     * Invoked after render.
+     * Invoked after render, does nothing by default. The rendered content is available from {@link Response#getBytes()}
+     * if a subclass overrides it.
      *
      * @param context the specified context
      * @throws Exception exception
      */
-    protected abstract void afterRender(final RequestContext context) throws Exception;
+    protected void afterRender(final RequestContext context) throws Exception {
+    }
 
     /**
      * Gets a template.
@@ -73,6 +126,47 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
      */
     protected abstract Template getTemplate();
 
+    /**
+     * Checks whether the specified renderer class or one of its super classes below this class declares the method
+     * specified by the given name and parameter types.
+     *
+     * @param type           the specified renderer class
+     * @param name           the given name
+     * @param parameterTypes the given parameter types
+     * @return {@code true} if it overrides, returns {@code false} otherwise
+     */
+    private static boolean overrides(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+        for (Class<?> clazz = type; AbstractFreeMarkerRenderer.class != clazz; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // Checks the super class
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the specified renderer class renders into buffers directly.
+     *
+     * @param rendererClass the specified renderer class
+     * @return {@code true} if it does, returns {@code false} otherwise
+     */
+    static boolean isRenderDirect(final Class<? extends AbstractFreeMarkerRenderer> rendererClass) {
+        return RENDER_DIRECT.get(rendererClass);
+    }
+
+    /**
+     * Checks whether the specified renderer class keeps the rendered content in the response.
+     *
+     * @param rendererClass the specified renderer class
+     * @return {@code true} if it does, returns {@code false} otherwise
+     */
+    static boolean isKeepContent(final Class<? extends AbstractFreeMarkerRenderer> rendererClass) {
+        return KEEP_CONTENT.get(rendererClass);
+    }
+
     @Override
     public void render(final RequestContext context) {
         final Response response = context.getResponse();
@@ -95,8 +189,21 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
 
             beforeRender(context);
 
-            final String html = genHTML(context.getRequest(), dataModel, template);
-            doRender(html, context.getRequest(), response);
+            if (RENDER_DIRECT.get(getClass())) {
+                final ByteBuf page = genPage(request, dataModel, template);
+                if (response.isCommitted()) { // response has been sent redirect
+                    page.release();
+                } else if (KEEP_CONTENT.get(getClass())) {
+                    final byte[] content = ByteBufUtil.getBytes(page);
+                    page.release();
+                    response.sendBytes(content);
+                } else {
+                    response.sendBuffer(page);
+                }
+            } else {
+                final String html = genHTML(context.getRequest(), dataModel, template);
+                doRender(html, context.getRequest(), response);
+            }
 
             afterRender(context);
         } catch (final Exception e) {
@@ -123,20 +230,77 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
     protected String genHTML(final Request request, final Map<String, Object> dataModel, final Template template)
             throws Exception {
         final StringWriter stringWriter = new StringWriter();
-        template.setOutputEncoding("UTF-8");
-        template.process(dataModel, stringWriter);
+        process(template, dataModel, stringWriter);
 
         final StringBuilder pageContentBuilder = new StringBuilder(stringWriter.toString());
-        final long endTimeMillis = System.currentTimeMillis();
-        final String dateString = DateFormatUtils.format(endTimeMillis, "yyyy/MM/dd HH:mm:ss");
-        final long startTimeMillis = (Long) request.getAttribute(Keys.HttpRequest.START_TIME_MILLIS);
-        final String msg = String.format("\n<!-- Generated by Latke (https://github.com/88250/latke) in %1$dms, %2$s -->",
-                endTimeMillis - startTimeMillis, dateString);
-        pageContentBuilder.append(msg);
+        pageContentBuilder.append(genFooter(request));
 
         return pageContentBuilder.toString();
     }
 
+    /**
+     * Processes the specified template with the specified data model into the specified writer. The output encoding is
+     * set on the processing environment instead of the template, which is cached and shared by concurrent renders.
+     *
+     * @param template  the specified template
+     * @param dataModel the specified data model
+     * @param writer    the specified writer
+     * @throws Exception exception
+     */
+    private static void process(final Template template, final Map<String, Object> dataModel, final Writer writer) throws Exception {
+        final Environment environment = template.createProcessingEnvironment(dataModel, writer);
+        environment.setOutputEncoding("UTF-8");
+        environment.process();
+    }
+
+    /**
+     * Processes the specified FreeMarker template with the specified request, data model into a pooled buffer.
+     *
+     * @param request   the specified request
+     * @param dataModel the specified data model
+     * @param template  the specified FreeMarker template
+     * @return generated HTML in UTF-8, the caller should release it
+     * @throws Exception exception
+     */
+    static ByteBuf genPage(final Request request, final Map<String, Object> dataModel, final Template template) throws Exception {
+        final String name = template.getName();
+        final Integer lastSize = null == name ? null : PAGE_SIZES.get(name);
+        final ByteBuf ret = PooledByteBufAllocator.DEFAULT.buffer(null == lastSize ? INITIAL_PAGE_SIZE : lastSize);
+        try {
+            final Writer writer = new Utf8ByteBufWriter(ret);
+            process(template, dataModel, writer);
+            writer.close();
+            ByteBufUtil.writeUtf8(ret, genFooter(request));
+        } catch (final Exception e) {
+            ret.release();
+            throw e;
+        }
+
+        if (null != name) {
+            PAGE_SIZES.put(name, ret.readableBytes());
+        }
+        return ret;
+    }
+
+    /**
+     * Generates the "Generated by Latke" footer comment.
+     *
+     * @param request the specified request
+     * @return footer
+     */
+    private static String genFooter(final Request request) {
+        final long endTimeMillis = System.currentTimeMillis();
+        final Long startTimeMillis = (Long) request.getAttribute(Keys.HttpRequest.START_TIME_MILLIS);
+        final long second = endTimeMillis / 1000;
+        FooterDate date = footerDate;
+        if (date.second != second) {
+            date = new FooterDate(second, DateFormatUtils.format(endTimeMillis, "yyyy/MM/dd HH:mm:ss"));
+            footerDate = date;
+        }
+        return "\n<!-- Generated by Latke (https://github.com/88250/latke) in "
+                + (null == startTimeMillis ? 0 : endTimeMillis - startTimeMillis) + "ms, " + date.date + " -->";
+    }
+
     /**
      * Processes the specified FreeMarker template with the specified request, data model and response.
      * <p>
@@ -186,4 +350,31 @@ public abstract class AbstractFreeMarkerRenderer extends AbstractResponseRendere
     public Map<String, Object> getRenderDataModel() {
         return dataModel;
     }
+
+    /**
+     * Formatted date of a second.
+     */
+    private static final class FooterDate {
+
+        /**
+         * Epoch second.
+         */
+        private final long second;
+
+        /**
+         * Formatted date.
+         */
+        private final String date;
+
+        /**
+         * Constructs a footer date with the specified epoch second and formatted date.
+         *
+         * @param second the specified epoch second
+         * @param date   the specified formatted date
+         */
+        private FooterDate(final long second, final String date) {
+            this.second = second;
+            this.date = date;
+        }
+    }
 }
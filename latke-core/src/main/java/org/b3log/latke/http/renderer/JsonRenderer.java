@@ -11,18 +11,32 @@
  */
 package org.b3log.latke.http.renderer;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.Response;
 import org.json.JSONObject;
 
+import java.io.Writer;
+
 /**
  * <a href="http://json.org">JSON</a> HTTP response renderer.
+ * <p>
+ * The JSON object is serialized into the response writer directly, large JSON is sent in chunks without building the
+ * whole string first.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.1.1, Nov 11, 2019
+ * @version 2.1.1.0, Oct 17, 2026
  */
 public final class JsonRenderer extends AbstractResponseRenderer {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(JsonRenderer.class);
+
     /**
      * Pretty output.
      */
@@ -119,13 +133,25 @@ public final class JsonRenderer extends AbstractResponseRenderer {
     public void render(final RequestContext context) {
         final Response response = context.getResponse();
         final int indent = 4;
-        final String output = pretty ? jsonObject.toString(indent) : jsonObject.toString();
-        if (!jsonp) {
-            response.setContentType("application/json; charset=utf-8");
-            response.sendString(output);
-        } else {
-            response.setContentType("application/javascript; charset=utf-8");
-            response.sendString(callback + "(" + output + ")");
+        response.setContentType(jsonp ? "application/javascript; charset=utf-8" : "application/json; charset=utf-8");
+        final Writer writer = response.getWriter();
+        try {
+            if (jsonp) {
+                writer.write(callback);
+                writer.write('(');
+            }
+            if (pretty) {
+                jsonObject.write(writer, indent, 0);
+            } else {
+                jsonObject.write(writer);
+            }
+            if (jsonp) {
+                writer.write(')');
+            }
+            writer.close();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Renders JSON failed", e);
+            response.abort();
         }
     }
 }
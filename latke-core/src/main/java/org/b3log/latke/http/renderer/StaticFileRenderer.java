@@ -11,7 +11,11 @@
  */
 package org.b3log.latke.http.renderer;
 
-import org.apache.commons.io.FileUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
@@ -19,18 +23,33 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tika.Tika;
 import org.b3log.latke.Latkes;
+import org.b3log.latke.http.Request;
 import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.Response;
 import org.b3log.latke.util.URLs;
 
 import java.io.File;
 import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Static file renderer.
+ * <p>
+ * Files in the file system are sent with zero-copy (sendfile), resources in jar are cached in pooled direct buffers
+ * (at most {@value #MAX_CACHED_BYTES} bytes in total, {@value #MAX_CACHED_FILE_BYTES} bytes per file). Conditional
+ * requests ({@code If-None-Match}, {@code If-Modified-Since}) and single range requests ({@code Range: bytes=0-99}) are
+ * supported. Precompressed variants ("app.js.br", "app.js.gz") are served if they exist and the client accepts them.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.3.0, Apr 17, 2020
+ * @version 2.2.2.0, Oct 17, 2026
  * @since 1.0.0
  */
 public class StaticFileRenderer extends AbstractResponseRenderer {
@@ -42,6 +61,57 @@ public class StaticFileRenderer extends AbstractResponseRenderer {
 
     private static final Tika TIKA = new Tika();
 
+    /**
+     * Maximum bytes of cached jar resources in total.
+     */
+    private static final long MAX_CACHED_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Maximum bytes of a cached jar resource.
+     */
+    private static final int MAX_CACHED_FILE_BYTES = 2 * 1024 * 1024;
+
+    /**
+     * Maximum count of cached content types.
+     */
+    private static final int MAX_CONTENT_TYPE_CNT = 1024;
+
+    /**
+     * Content types, &lt;file extension or name, content type&gt;.
+     */
+    private static final Map<String, String> CONTENT_TYPES = new ConcurrentHashMap<>();
+
+    /**
+     * Cached jar resources, &lt;URI, resource&gt;, in access order.
+     */
+    private static final LinkedHashMap<String, CachedResource> RESOURCES = new LinkedHashMap<>(16, 0.75F, true);
+
+    /**
+     * Bytes of cached jar resources in total.
+     */
+    private static long cachedBytes;
+
+    /**
+     * Precompressed variants in preference order, {content coding, file suffix}. For example "/js/app.js.br" is served
+     * as "/js/app.js" with "Content-Encoding: br" if the client accepts it.
+     */
+    private static final String[][] PRECOMPRESSED = {{"br", ".br"}, {"gzip", ".gz"}};
+
+    /**
+     * Maximum count of missing jar resources remembered.
+     */
+    private static final int MAX_MISSING_CNT = 4096;
+
+    /**
+     * Missing jar resources, avoids looking up missing precompressed variants in the jar again and again.
+     */
+    private static final Set<String> MISSING = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Static files root directory in the file system, ends with "/".
+     */
+    private static volatile String fileRoot;
+
     @Override
     public void render(final RequestContext context) {
         final Response response = context.getResponse();
@@ -52,36 +122,337 @@ public class StaticFileRenderer extends AbstractResponseRenderer {
                 uri = StringUtils.substringAfter(uri, Latkes.getStaticPath());
             }
 
-            byte[] bytes;
+            final String acceptEncoding = context.getRequest().getHeader(HttpHeaderNames.ACCEPT_ENCODING.toString());
             if (!Latkes.isInJar()) {
-                String path = Latkes.class.getResource("/latke.properties").getPath();
-                path = StringUtils.substringBeforeLast(path, "latke.properties");
-                path = URLs.decode(path);
-                if (StringUtils.contains(path, "/target/classes/") || StringUtils.contains(path, "/target/test-classes/")) {
-                    // 开发时使用源码目录
-                    path = StringUtils.replace(path, "/target/classes/", "/src/main/resources/");
-                    path = StringUtils.replace(path, "/target/test-classes/", "/src/main/resources/");
+                final String path = getFileRoot() + uri;
+                File file = null;
+                for (final String[] encoding : PRECOMPRESSED) {
+                    if (accepts(acceptEncoding, encoding[0])) {
+                        final File compressed = new File(path + encoding[1]);
+                        if (compressed.isFile()) {
+                            file = compressed;
+                            setContentEncoding(response, encoding[0]);
+                            break;
+                        }
+                    }
                 }
-                path += uri;
-                final File file = new File(path);
-                if (!file.exists()) {
-                    response.sendError0(404);
-                    return;
+                if (null == file) {
+                    file = new File(path);
+                    if (!file.isFile()) {
+                        response.sendError0(404);
+                        return;
+                    }
                 }
 
-                bytes = FileUtils.readFileToByteArray(file);
-            } else {
-                try (final InputStream inputStream = StaticFileRenderer.class.getResourceAsStream(uri)) {
-                    bytes = IOUtils.toByteArray(inputStream);
+                final long length = file.length();
+                final long lastModified = file.lastModified();
+                final long[] range = prepare(context, uri, length, lastModified);
+                if (null != range) {
+                    response.sendFile(file, range[0], range[1] - range[0] + 1);
                 }
+                return;
             }
 
-            final String contentType = TIKA.detect(uri);
-            response.setContentType(contentType);
-            response.sendBytes(bytes);
+            CachedResource resource = null;
+            for (final String[] encoding : PRECOMPRESSED) {
+                if (accepts(acceptEncoding, encoding[0])) {
+                    resource = getResource(uri + encoding[1]);
+                    if (null != resource) {
+                        setContentEncoding(response, encoding[0]);
+                        break;
+                    }
+                }
+            }
+            if (null == resource) {
+                resource = getResource(uri);
+            }
+            if (null == resource) {
+                response.sendError0(404);
+                return;
+            }
+
+            boolean sending = false;
+            try {
+                final long[] range = prepare(context, uri, resource.buffer.readableBytes(), resource.lastModified);
+                if (null != range) {
+                    // The slice shares the reference held for this request, released after the response written
+                    final ByteBuf slice = resource.buffer.slice((int) range[0], (int) (range[1] - range[0] + 1));
+                    sending = true;
+                    response.sendBuffer(slice);
+                }
+            } finally {
+                if (!sending) {
+                    resource.buffer.release();
+                }
+            }
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Renders static file failed", e);
             response.sendError0(500);
         }
     }
+
+    /**
+     * Sets the response headers and checks conditional and range headers of the request.
+     *
+     * @param context      the specified request context
+     * @param uri          the specified URI of the static file
+     * @param length       the specified length of the static file
+     * @param lastModified the specified last modified time of the static file
+     * @return the range [first byte, last byte] to send, returns {@code null} if the response has been sent (304, 416)
+     */
+    static long[] prepare(final RequestContext context, final String uri, final long length, final long lastModified) {
+        final Request request = context.getRequest();
+        final Response response = context.getResponse();
+        final String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        response.setContentType(getContentType(uri));
+        response.setHeader(HttpHeaderNames.ETAG.toString(), etag);
+        response.setHeader(HttpHeaderNames.LAST_MODIFIED.toString(), DateFormatter.format(new Date(lastModified)));
+        response.setHeader(HttpHeaderNames.ACCEPT_RANGES.toString(), "bytes");
+
+        final String ifNoneMatch = request.getHeader(HttpHeaderNames.IF_NONE_MATCH.toString());
+        if (null != ifNoneMatch) {
+            if ("*".equals(ifNoneMatch.trim()) || StringUtils.contains(ifNoneMatch, etag)) {
+                response.sendError0(HttpResponseStatus.NOT_MODIFIED.code());
+                return null;
+            }
+        } else {
+            final String ifModifiedSinceHeader = request.getHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString());
+            final Date ifModifiedSince = null == ifModifiedSinceHeader ? null : DateFormatter.parseHttpDate(ifModifiedSinceHeader);
+            // HTTP dates are in seconds
+            if (null != ifModifiedSince && lastModified / 1000 <= ifModifiedSince.getTime() / 1000) {
+                response.sendError0(HttpResponseStatus.NOT_MODIFIED.code());
+                return null;
+            }
+        }
+
+        final long[] ret = {0, length - 1};
+        final String rangeHeader = request.getHeader(HttpHeaderNames.RANGE.toString());
+        if (StringUtils.startsWith(rangeHeader, "bytes=") && !StringUtils.contains(rangeHeader, ",")) {
+            final String ifRange = request.getHeader(HttpHeaderNames.IF_RANGE.toString());
+            if (null != ifRange && !ifRange.equals(etag)) {
+                // The file has been changed, sends the whole file
+                return ret;
+            }
+
+            final String spec = rangeHeader.substring("bytes=".length()).trim();
+            final String first = StringUtils.substringBefore(spec, "-").trim();
+            final String last = StringUtils.substringAfter(spec, "-").trim();
+            try {
+                if (first.isEmpty()) { // Suffix range, the last N bytes
+                    ret[0] = Math.max(0, length - Long.parseLong(last));
+                } else {
+                    ret[0] = Long.parseLong(first);
+                    if (!last.isEmpty()) {
+                        ret[1] = Math.min(Long.parseLong(last), length - 1);
+                    }
+                }
+            } catch (final NumberFormatException e) {
+                // Ignores invalid range
+                ret[0] = 0;
+                ret[1] = length - 1;
+                return ret;
+            }
+
+            if (ret[0] > ret[1] || ret[0] >= length) {
+                response.setHeader(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes */" + length);
+                response.sendError0(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code());
+                return null;
+            }
+
+            response.setStatus(HttpResponseStatus.PARTIAL_CONTENT.code());
+            response.setHeader(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes " + ret[0] + "-" + ret[1] + "/" + length);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Whether the specified Accept-Encoding header accepts the specified content coding.
+     *
+     * @param acceptEncoding the specified Accept-Encoding header, for example "gzip, deflate, br;q=0.9"
+     * @param coding         the specified content coding, for example "br"
+     * @return {@code true} if accepts, returns {@code false} otherwise
+     */
+    static boolean accepts(final String acceptEncoding, final String coding) {
+        if (null == acceptEncoding) {
+            return false;
+        }
+
+        for (final String accepted : acceptEncoding.split(",")) {
+            final String name = StringUtils.substringBefore(accepted, ";").trim();
+            if (name.equalsIgnoreCase(coding)) {
+                final String q = StringUtils.substringAfter(accepted, "q=").trim();
+                return q.isEmpty() || !q.matches("0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the specified content coding of a precompressed static file to the specified response.
+     *
+     * @param response the specified response
+     * @param coding   the specified content coding
+     */
+    private static void setContentEncoding(final Response response, final String coding) {
+        response.setHeader(HttpHeaderNames.CONTENT_ENCODING.toString(), coding);
+        final String vary = response.getHeader(HttpHeaderNames.VARY.toString());
+        if (null == vary) {
+            response.setHeader(HttpHeaderNames.VARY.toString(), HttpHeaderNames.ACCEPT_ENCODING.toString());
+        } else if (!StringUtils.containsIgnoreCase(vary, HttpHeaderNames.ACCEPT_ENCODING)) {
+            response.setHeader(HttpHeaderNames.VARY.toString(), vary + ", " + HttpHeaderNames.ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Gets the content type of the specified URI.
+     *
+     * @param uri the specified URI
+     * @return content type
+     */
+    private static String getContentType(final String uri) {
+        final String name = StringUtils.substringAfterLast(uri, "/");
+        final String key = StringUtils.contains(name, ".") ? StringUtils.substringAfterLast(name, ".").toLowerCase() : name;
+        String ret = CONTENT_TYPES.get(key);
+        if (null == ret) {
+            ret = TIKA.detect(uri);
+            if (MAX_CONTENT_TYPE_CNT > CONTENT_TYPES.size()) {
+                CONTENT_TYPES.put(key, ret);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the static files root directory in the file system.
+     *
+     * @return static files root directory, ends with "/"
+     */
+    private static String getFileRoot() {
+        String ret = fileRoot;
+        if (null != ret) {
+            return ret;
+        }
+
+        ret = Latkes.class.getResource("/latke.properties").getPath();
+        ret = StringUtils.substringBeforeLast(ret, "latke.properties");
+        ret = URLs.decode(ret);
+        if (StringUtils.contains(ret, "/target/classes/") || StringUtils.contains(ret, "/target/test-classes/")) {
+            // 开发时使用源码目录
+            ret = StringUtils.replace(ret, "/target/classes/", "/src/main/resources/");
+            ret = StringUtils.replace(ret, "/target/test-classes/", "/src/main/resources/");
+        }
+        fileRoot = ret;
+        return ret;
+    }
+
+    /**
+     * Gets the jar resource specified by the given URI, loads and caches it if not cached yet.
+     *
+     * @param uri the given URI
+     * @return resource holding a buffer reference for the caller, returns {@code null} if not found
+     * @throws Exception exception
+     */
+    static CachedResource getResource(final String uri) throws Exception {
+        synchronized (RESOURCES) {
+            final CachedResource ret = RESOURCES.get(uri);
+            if (null != ret) {
+                ret.buffer.retain();
+                return ret;
+            }
+        }
+
+        if (MISSING.contains(uri)) {
+            return null;
+        }
+
+        final URL url = StaticFileRenderer.class.getResource(uri);
+        if (null == url) {
+            if (MAX_MISSING_CNT > MISSING.size()) {
+                MISSING.add(uri);
+            }
+            return null;
+        }
+
+        final URLConnection connection = url.openConnection();
+        final long lastModified = connection.getLastModified();
+        final byte[] bytes;
+        try (final InputStream inputStream = connection.getInputStream()) {
+            bytes = IOUtils.toByteArray(inputStream);
+        }
+        final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(bytes.length);
+        buffer.writeBytes(bytes);
+        final CachedResource ret = new CachedResource(buffer.asReadOnly(), 0 < lastModified ? lastModified : System.currentTimeMillis());
+        if (MAX_CACHED_FILE_BYTES < bytes.length) {
+            // Not cached, the only reference is held for the caller
+            return ret;
+        }
+
+        synchronized (RESOURCES) {
+            final CachedResource cached = RESOURCES.get(uri);
+            if (null != cached) { // Loaded by another thread
+                buffer.release();
+                cached.buffer.retain();
+                return cached;
+            }
+
+            RESOURCES.put(uri, ret);
+            cachedBytes += bytes.length;
+            // Holds a reference for the caller, released after the response written
+            buffer.retain();
+            evict(MAX_CACHED_BYTES, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Evicts the least recently used jar resources until the cached bytes are not more than the specified maximum
+     * bytes.
+     *
+     * @param maxBytes the specified maximum bytes
+     * @param keep     the specified resource not to evict, the one just cached, may be {@code null}
+     */
+    static void evict(final long maxBytes, final CachedResource keep) {
+        synchronized (RESOURCES) {
+            final Iterator<CachedResource> iterator = RESOURCES.values().iterator();
+            while (maxBytes < cachedBytes && iterator.hasNext()) {
+                final CachedResource eldest = iterator.next();
+                if (eldest == keep) {
+                    break;
+                }
+
+                iterator.remove();
+                cachedBytes -= eldest.buffer.readableBytes();
+                // Responses being written hold their own references
+                eldest.buffer.release();
+            }
+        }
+    }
+
+    /**
+     * Cached jar resource.
+     */
+    static final class CachedResource {
+
+        /**
+         * Content.
+         */
+        final ByteBuf buffer;
+
+        /**
+         * Last modified time.
+         */
+        private final long lastModified;
+
+        /**
+         * Constructs a cached resource with the specified buffer and last modified time.
+         *
+         * @param buffer       the specified buffer
+         * @param lastModified the specified last modified time
+         */
+        private CachedResource(final ByteBuf buffer, final long lastModified) {
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+        }
+    }
 }
@@ -11,18 +11,32 @@
  */
 package org.b3log.latke.http.renderer;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.b3log.latke.http.RequestContext;
 import org.b3log.latke.http.Response;
 
+import java.io.Writer;
+
 /**
  * Text-like HTTP response renderer.
+ * <p>
+ * The content is encoded into the response writer, large content (feeds, sitemaps) is sent in chunks without copying
+ * the whole encoded bytes.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.1, Nov 11, 2019
+ * @version 2.1.1.0, Oct 17, 2026
  * @since 3.0.0
  */
 public class TextResponseRenderer extends AbstractResponseRenderer {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(TextResponseRenderer.class);
+
     /**
      * Content type.
      */
@@ -55,6 +69,18 @@ public class TextResponseRenderer extends AbstractResponseRenderer {
     public void render(final RequestContext context) {
         final Response response = context.getResponse();
         response.setContentType(contentType);
-        response.sendString(content);
+        if (null == content) {
+            response.send();
+            return;
+        }
+
+        final Writer writer = response.getWriter();
+        try {
+            writer.write(content);
+            writer.close();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Renders text failed", e);
+            response.abort();
+        }
     }
 }
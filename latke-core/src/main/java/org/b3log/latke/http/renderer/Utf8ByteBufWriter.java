@@ -0,0 +1,162 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http.renderer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A writer encodes characters in UTF-8 into a {@link ByteBuf} directly.
+ * <p>
+ * A high surrogate at the end of a write is held until the next write, so that a surrogate pair split across writes is
+ * encoded as one code point. This writer is not thread-safe.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+final class Utf8ByteBufWriter extends Writer {
+
+    /**
+     * Buffer to write into.
+     */
+    private final ByteBuf buf;
+
+    /**
+     * Pending high surrogate, {@code 0} if none.
+     */
+    private char pendingHighSurrogate;
+
+    /**
+     * Constructs a writer with the specified buffer.
+     *
+     * @param buf the specified buffer
+     */
+    Utf8ByteBufWriter(final ByteBuf buf) {
+        this.buf = buf;
+    }
+
+    @Override
+    public void write(final int c) {
+        final char ch = (char) c;
+        if (0 != pendingHighSurrogate) {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(ch)) {
+                writeCodePoint(Character.toCodePoint(high, ch));
+                return;
+            }
+            buf.writeByte('?'); // Lone surrogate
+        }
+
+        if (Character.isHighSurrogate(ch)) {
+            pendingHighSurrogate = ch;
+        } else if (Character.isLowSurrogate(ch)) {
+            buf.writeByte('?'); // Lone surrogate
+        } else {
+            writeCodePoint(ch);
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) {
+        writeChars(CharBuffer.wrap(cbuf, off, len));
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) {
+        writeChars(str.subSequence(off, off + len));
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) {
+        writeChars(null == csq ? "null" : csq);
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) {
+        writeChars((null == csq ? "null" : csq).subSequence(start, end));
+        return this;
+    }
+
+    /**
+     * Writes the specified characters.
+     *
+     * @param seq the specified characters
+     */
+    private void writeChars(final CharSequence seq) {
+        int start = 0;
+        int end = seq.length();
+        if (0 == end) {
+            return;
+        }
+
+        if (0 != pendingHighSurrogate) {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(seq.charAt(0))) {
+                writeCodePoint(Character.toCodePoint(high, seq.charAt(0)));
+                start = 1;
+            } else {
+                buf.writeByte('?'); // Lone surrogate
+            }
+        }
+
+        if (start < end && Character.isHighSurrogate(seq.charAt(end - 1))) {
+            pendingHighSurrogate = seq.charAt(end - 1);
+            end--;
+        }
+
+        if (start < end) {
+            ByteBufUtil.writeUtf8(buf, seq, start, end);
+        }
+    }
+
+    /**
+     * Writes the specified code point, which is not a surrogate.
+     *
+     * @param codePoint the specified code point
+     */
+    private void writeCodePoint(final int codePoint) {
+        if (codePoint < 0x80) {
+            buf.writeByte(codePoint);
+        } else if (codePoint < 0x800) {
+            buf.writeByte(0xC0 | (codePoint >> 6));
+            buf.writeByte(0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buf.writeByte(0xE0 | (codePoint >> 12));
+            buf.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            buf.writeByte(0x80 | (codePoint & 0x3F));
+        } else {
+            buf.writeByte(0xF0 | (codePoint >> 18));
+            buf.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            buf.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            buf.writeByte(0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (0 != pendingHighSurrogate) {
+            buf.writeByte('?'); // Lone surrogate
+            pendingHighSurrogate = 0;
+        }
+    }
+}
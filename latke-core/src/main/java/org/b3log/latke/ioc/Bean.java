@@ -33,7 +33,7 @@ import java.util.Set;
  *
  * @param <T> the declaring type
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.9, Sep 29, 2018
+ * @version 1.1.0.0, Oct 17, 2026
  * @since 2.4.18
  */
 public class Bean<T> {
@@ -225,6 +225,15 @@ public class Bean<T> {
         }
     }
 
+    /**
+     * Gets the field injection points, including the inherited ones.
+     *
+     * @return field injection points
+     */
+    Set<FieldInjectionPoint> getFieldInjectionPoints() {
+        return fieldInjectionPoints;
+    }
+
     public Set<Class<? extends Annotation>> getStereotypes() {
         return stereotypes;
     }
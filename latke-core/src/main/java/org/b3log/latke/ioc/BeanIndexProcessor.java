@@ -0,0 +1,159 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.ioc;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor generates the bean index at build time, {@link Discoverer} reads the index instead of scanning
+ * class files at startup.
+ * <p>
+ * The index ({@value #INDEX_LOCATION}) lists the binary names of the concrete classes annotated by {@link Singleton},
+ * {@code @Service} or {@code @Repository}, one per line. Enables it in the maven-compiler-plugin configuration of the
+ * application:
+ * <pre>
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;org.b3log.latke.ioc.BeanIndexProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ * </p>
+ * <p>
+ * On incremental compilation, the entries of the existing index whose classes are still concrete classes annotated by
+ * these annotations are kept.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+@SupportedAnnotationTypes({
+        "org.b3log.latke.ioc.Singleton",
+        "org.b3log.latke.service.annotation.Service",
+        "org.b3log.latke.repository.annotation.Repository"})
+public final class BeanIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Location of the bean index in the class path.
+     */
+    public static final String INDEX_LOCATION = "META-INF/latke/beans.idx";
+
+    /**
+     * Bean class names.
+     */
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isConcreteClass(element)) {
+                    classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+
+        // Other processors may handle these annotations as well
+        return false;
+    }
+
+    /**
+     * Merges the existing index and writes the index.
+     */
+    private void writeIndex() {
+        final Filer filer = processingEnv.getFiler();
+        try {
+            final FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#") && isBean(line)) {
+                        classNames.add(line);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            // No existing index
+        }
+
+        if (classNames.isEmpty()) {
+            return;
+        }
+
+        try {
+            final FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (final Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Latke bean index, generated by " + BeanIndexProcessor.class.getName() + "\n");
+                for (final String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Writes bean index failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Determines whether the class specified by the given binary name is still a bean.
+     *
+     * @param className the given binary name
+     * @return {@code true} if the class exists and it's a concrete class annotated by a supported annotation, returns
+     * {@code false} otherwise
+     */
+    private boolean isBean(final String className) {
+        final TypeElement element = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        if (null == element || !isConcreteClass(element)) {
+            return false;
+        }
+
+        final Set<String> annotationTypes = getSupportedAnnotationTypes();
+        for (final AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (annotationTypes.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether the specified element is a concrete class.
+     *
+     * @param element the specified element
+     * @return {@code true} if it's a concrete class, returns {@code false} otherwise
+     */
+    private static boolean isConcreteClass(final Element element) {
+        return ElementKind.CLASS == element.getKind() && !element.getModifiers().contains(Modifier.ABSTRACT);
+    }
+}
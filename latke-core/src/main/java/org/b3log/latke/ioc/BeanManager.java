@@ -21,12 +21,26 @@ import org.b3log.latke.service.LangPropsService;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Latke bean manager implementation.
+ * <p>
+ * Beans are indexed by class, type and stereotype when they are added, lookups don't scan all beans.
+ * </p>
+ * <p>
+ * Beans are instantiated at startup following their field injection dependencies, independent beans are instantiated
+ * in parallel. Beans annotated with {@link Lazy} are instantiated on first use.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.1, Nov 3, 2019
+ * @version 2.3.0.1, Oct 17, 2026
  * @since 2.4.18
  */
 @Singleton
@@ -60,46 +74,65 @@ public class BeanManager {
      */
     private final Set<Bean<?>> beans;
 
+    /**
+     * Beans by class, &lt;bean class, bean&gt;.
+     */
+    private final Map<Class<?>, Bean<?>> beansByClass = new ConcurrentHashMap<>();
+
+    /**
+     * Beans by type, &lt;bean type, the first added bean of the type&gt;.
+     */
+    private final Map<Type, Bean<?>> beansByType = new ConcurrentHashMap<>();
+
+    /**
+     * Beans by stereotype, &lt;stereotype, beans&gt;.
+     */
+    private final Map<Class<? extends Annotation>, Set<Bean<?>>> beansByStereotype = new ConcurrentHashMap<>();
+
     /**
      * Context.
      */
     private final SingletonContext context;
 
     /**
-     * Constructs a Latke bean manager.
+     * Constructs a Latke bean manager. Use {@link #getInstance()} to get the application bean manager, tests construct
+     * isolated ones.
      */
-    private BeanManager() {
+    BeanManager() {
         LOGGER.log(Level.DEBUG, "Creating bean manager");
 
-        beans = new HashSet<>();
+        beans = ConcurrentHashMap.newKeySet();
         context = new SingletonContext();
         builtInBeans = new HashSet<>();
         configurator = new Configurator(this);
-        configurator.createBean(BeanManager.class);
+        context.add(configurator.createBean(BeanManager.class), this);
 
         for (final Class<?> builtInBeanClass : builtInBeanClasses) {
             final Bean<?> builtInBean = configurator.createBean(builtInBeanClass);
             builtInBeans.add(builtInBean);
-            context.get(builtInBean);
         }
 
-        beans.addAll(builtInBeans);
-
         LOGGER.log(Level.DEBUG, "Created Latke bean manager");
     }
 
     /**
      * Starts the application with the specified bean class and bean modules.
+     * <p>
+     * Instantiates all beans (built-in beans included) except the {@link Lazy lazy} ones. Concurrent starts are
+     * serialized, otherwise a start may instantiate a bean before the beans it depends on are created by another.
+     * </p>
      *
      * @param classes the specified bean class, nullable
      */
-    public static void start(final Collection<Class<?>> classes) {
+    public static synchronized void start(final Collection<Class<?>> classes) {
         LOGGER.log(Level.DEBUG, "Initializing Latke IoC container");
 
-        final Configurator configurator = getInstance().getConfigurator();
+        final BeanManager beanManager = getInstance();
+        final Configurator configurator = beanManager.getConfigurator();
         if (null != classes && !classes.isEmpty()) {
             configurator.createBeans(classes);
         }
+        beanManager.instantiateBeans();
 
         LOGGER.log(Level.DEBUG, "Initialized Latke IoC container");
     }
@@ -111,28 +144,159 @@ public class BeanManager {
         LOGGER.log(Level.DEBUG, "Closed Latke IoC container");
     }
 
-    public static BeanManager getInstance() {
-        return BeanManagerHolder.instance;
+    /**
+     * Instantiates the beans which are not lazy and not instantiated yet.
+     * <p>
+     * The beans are instantiated level by level in the dependency graph built from their field injection points, beans
+     * of the same level don't depend on each other and are instantiated in parallel on a dedicated pool (see
+     * {@link #newPool(int)}). A bean failed to instantiate is left to be instantiated on first use.
+     * </p>
+     */
+    private void instantiateBeans() {
+        final Map<Bean<?>, Set<Bean<?>>> dependencies = new HashMap<>();
+        for (final Bean<?> bean : beans) {
+            if (!bean.getBeanClass().isAnnotationPresent(Lazy.class) && !context.isCreated(bean)) {
+                dependencies.put(bean, new HashSet<>());
+            }
+        }
+        for (final Map.Entry<Bean<?>, Set<Bean<?>>> entry : dependencies.entrySet()) {
+            for (final FieldInjectionPoint injectionPoint : entry.getKey().getFieldInjectionPoints()) {
+                final Bean<?> dependency = beansByType.get(injectionPoint.getAnnotated().getBaseType());
+                if (null != dependency && entry.getKey() != dependency && dependencies.containsKey(dependency)) {
+                    entry.getValue().add(dependency);
+                }
+            }
+        }
+
+        final long startTimeMillis = System.currentTimeMillis();
+        final int count = dependencies.size();
+        if (0 == count) {
+            return;
+        }
+
+        int levels = 0;
+        final ExecutorService pool = newPool(count);
+        try {
+            while (!dependencies.isEmpty()) {
+                final List<Bean<?>> level = new ArrayList<>();
+                for (final Map.Entry<Bean<?>, Set<Bean<?>>> entry : dependencies.entrySet()) {
+                    if (entry.getValue().isEmpty()) {
+                        level.add(entry.getKey());
+                    }
+                }
+                if (level.isEmpty()) {
+                    LOGGER.log(Level.WARN, "Beans {} have circular dependencies, they will be instantiated on first use", dependencies.keySet());
+                    break;
+                }
+
+                invokeAll(pool, level, this::instantiateBean);
+                levels++;
+
+                dependencies.keySet().removeAll(level);
+                for (final Set<Bean<?>> beanDependencies : dependencies.values()) {
+                    level.forEach(beanDependencies::remove);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LOGGER.log(Level.DEBUG, "Instantiated [{}] beans in [{}] levels in [{}ms]", count - dependencies.size(), levels, System.currentTimeMillis() - startTimeMillis);
     }
 
-    public void addBean(final Bean<?> bean) {
-        beans.add(bean);
+    /**
+     * Instantiates the specified bean.
+     *
+     * @param bean the specified bean
+     */
+    private Void instantiateBean(final Bean<?> bean) {
+        try {
+            context.get(bean);
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARN, "Instantiates bean [" + bean + "] failed, it will be instantiated on first use: " + e.getMessage());
+        }
+
+        return null;
     }
 
-    public Set<Bean<?>> getBeans(final Class<? extends Annotation> stereoType) {
-        final Set<Bean<?>> ret = new HashSet<>();
+    /**
+     * Creates a pool for constructing or instantiating beans in parallel. The threads are daemons and inherit the
+     * context class loader of the caller, which may not be the one of the common fork-join pool threads (e.g. in a
+     * servlet container or a plugin class loader).
+     *
+     * @param tasks the number of tasks to run, the pool has no more threads than tasks or available processors
+     * @return pool, should be shut down by the caller
+     */
+    static ExecutorService newPool(final int tasks) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final int threads = Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors()));
+        final AtomicInteger threadNum = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread ret = new Thread(runnable, "LatkeBeanManager-" + threadNum.incrementAndGet());
+            ret.setDaemon(true);
+            ret.setContextClassLoader(classLoader);
+            return ret;
+        });
+    }
 
-        for (final Bean<?> bean : beans) {
-            final Set<Class<? extends Annotation>> stereotypes = bean.getStereotypes();
+    /**
+     * Applies the specified function to the specified items on the specified pool, waits for all of them.
+     *
+     * @param pool     the specified pool
+     * @param items    the specified items
+     * @param function the specified function
+     * @param <T>      the type of items
+     * @param <R>      the type of results
+     * @return results in the order of the items
+     */
+    static <T, R> List<R> invokeAll(final ExecutorService pool, final List<T> items, final Function<? super T, ? extends R> function) {
+        final List<Future<R>> futures = new ArrayList<>(items.size());
+        for (final T item : items) {
+            futures.add(pool.submit(() -> function.apply(item)));
+        }
 
-            if (stereotypes.contains(stereoType)) {
-                ret.add(bean);
+        final List<R> ret = new ArrayList<>(items.size());
+        try {
+            for (final Future<R> future : futures) {
+                ret.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bean tasks", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
         }
 
         return ret;
     }
 
+    public static BeanManager getInstance() {
+        return BeanManagerHolder.instance;
+    }
+
+    public void addBean(final Bean<?> bean) {
+        beans.add(bean);
+        beansByClass.putIfAbsent(bean.getBeanClass(), bean);
+        for (final Type type : bean.getTypes()) {
+            beansByType.putIfAbsent(type, bean);
+        }
+        for (final Class<? extends Annotation> stereotype : bean.getStereotypes()) {
+            beansByStereotype.computeIfAbsent(stereotype, k -> ConcurrentHashMap.newKeySet()).add(bean);
+        }
+    }
+
+    public Set<Bean<?>> getBeans(final Class<? extends Annotation> stereoType) {
+        final Set<Bean<?>> ret = beansByStereotype.get(stereoType);
+
+        return null == ret ? new HashSet<>() : new HashSet<>(ret);
+    }
 
     public Configurator getConfigurator() {
         return configurator;
@@ -150,26 +314,34 @@ public class BeanManager {
     }
 
     public <T> Bean<T> getBean(final Class<T> beanClass) {
-        for (final Bean<?> bean : beans) {
-            if (bean.getBeanClass().equals(beanClass)) {
-                return (Bean<T>) bean;
-            }
+        final Bean<T> ret = findBean(beanClass);
+        if (null == ret) {
+            throw new RuntimeException("Not found bean [beanClass=" + beanClass.getName() + ']');
         }
 
-        throw new RuntimeException("Not found bean [beanClass=" + beanClass.getName() + ']');
+        return ret;
+    }
+
+    /**
+     * Finds a bean by the specified bean class.
+     *
+     * @param beanClass the specified bean class
+     * @param <T>       the type of the bean
+     * @return bean, returns {@code null} if not found
+     */
+    <T> Bean<T> findBean(final Class<T> beanClass) {
+        return (Bean<T>) beansByClass.get(beanClass);
     }
 
     private <T> Bean<T> getBean(final Type beanType) {
-        for (final Bean<?> bean : beans) {
-            if (bean.getTypes().contains(beanType)) {
-                return (Bean<T>) bean;
-            }
+        final Bean<?> ret = beansByType.get(beanType);
+        if (null == ret) {
+            throw new RuntimeException("Not found bean [beanType=" + beanType + "]");
         }
 
-        throw new RuntimeException("Not found bean [beanType=" + beanType + "]");
+        return (Bean<T>) ret;
     }
 
-
     public <T> T getReference(final Class<T> beanClass) {
         final Bean<T> bean = getBean(beanClass);
 
@@ -19,12 +19,13 @@ import org.b3log.latke.util.Reflections;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Bean configurator.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.6, Sep 30, 2018
+ * @version 1.1.1.0, Oct 17, 2026
  * @since 2.4.18
  */
 public class Configurator {
@@ -34,6 +35,11 @@ public class Configurator {
      */
     private static final Logger LOGGER = LogManager.getLogger(Configurator.class);
 
+    /**
+     * Minimum class count to construct beans in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 16;
+
     /**
      * Bean manager.
      */
@@ -65,12 +71,66 @@ public class Configurator {
     }
 
     public <T> Bean<T> createBean(final Class<T> beanClass) {
+        final Bean<T> bean = beanManager.findBean(beanClass);
+        if (null != bean) {
+            return bean;
+        }
+        LOGGER.log(Level.TRACE, "Not found bean [beanClass={}], so to create it", beanClass);
+
+        final Bean<T> ret = newBean(beanClass);
+        addBean(ret);
+
+        return ret;
+    }
+
+    /**
+     * Creates beans for the specified classes. Beans (proxy classes and injection points) are constructed in parallel
+     * on a dedicated pool if there are more than {@value #PARALLEL_THRESHOLD} classes, and then added to the bean manager
+     * in order.
+     *
+     * @param classes the specified classes
+     */
+    public void createBeans(final Collection<Class<?>> classes) {
+        if (null == classes || classes.isEmpty()) {
+            return;
+        }
+
+        filterClasses(classes);
+
+        final List<Class<?>> newClasses = new ArrayList<>();
+        for (final Class<?> clazz : new LinkedHashSet<>(classes)) {
+            if (null == beanManager.findBean(clazz)) {
+                newClasses.add(clazz);
+            }
+        }
+
+        if (PARALLEL_THRESHOLD >= newClasses.size()) {
+            for (final Class<?> clazz : newClasses) {
+                createBean(clazz);
+            }
+            return;
+        }
+
+        final List<Bean<?>> beans;
+        final ExecutorService pool = BeanManager.newPool(newClasses.size());
         try {
-            return beanManager.getBean(beanClass);
-        } catch (final Exception e) {
-            LOGGER.log(Level.TRACE, "Not found bean [beanClass={}], so to create it", beanClass);
+            beans = BeanManager.invokeAll(pool, newClasses, this::newBean);
+        } finally {
+            pool.shutdownNow();
+        }
+        for (final Bean<?> bean : beans) {
+            addBean(bean);
         }
+    }
 
+    /**
+     * Constructs a bean for the specified bean class without adding it to the bean manager.
+     *
+     * @param beanClass the specified bean class
+     * @param <T>       the type of the bean
+     * @return bean
+     */
+    private <T> Bean<T> newBean(final Class<T> beanClass) {
         if (Reflections.isAbstract(beanClass) || Reflections.isInterface(beanClass)) {
             throw new IllegalStateException("Can't create bean for class [" + beanClass.getName() + "] caused by it is an interface or an abstract class, or it dose not implement any interface");
         }
@@ -80,27 +140,20 @@ public class Configurator {
         final Set<Type> beanTypes = Reflections.getBeanTypes(beanClass);
         final Set<Class<? extends Annotation>> stereotypes = Reflections.getStereotypes(beanClass);
 
-        LOGGER.log(Level.DEBUG, "Adding a bean [name={}, class={}] to the bean manager", name, beanClass.getName());
-
-        final Bean<T> ret = new Bean<T>(beanManager, name, beanClass, beanTypes, stereotypes);
-        beanManager.addBean(ret);
-
-        for (final Type beanType : beanTypes) {
-            addTypeClassBinding(beanType, beanClass);
-        }
-
-        return ret;
+        return new Bean<T>(beanManager, name, beanClass, beanTypes, stereotypes);
     }
 
-    public void createBeans(final Collection<Class<?>> classes) {
-        if (null == classes || classes.isEmpty()) {
-            return;
-        }
-
-        filterClasses(classes);
+    /**
+     * Adds the specified bean to the bean manager.
+     *
+     * @param bean the specified bean
+     */
+    private void addBean(final Bean<?> bean) {
+        LOGGER.log(Level.DEBUG, "Adding a bean [name={}, class={}] to the bean manager", bean.getName(), bean.getBeanClass().getName());
 
-        for (final Class<?> clazz : classes) {
-            createBean(clazz);
+        beanManager.addBean(bean);
+        for (final Type beanType : bean.getTypes()) {
+            addTypeClassBinding(beanType, bean.getBeanClass());
         }
     }
 
@@ -13,7 +13,6 @@ package org.b3log.latke.ioc;
 
 import javassist.bytecode.AnnotationsAttribute;
 import javassist.bytecode.ClassFile;
-import javassist.bytecode.ConstPool;
 import javassist.bytecode.annotation.Annotation;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
@@ -23,18 +22,29 @@ import org.b3log.latke.repository.annotation.Repository;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.ArrayUtils;
 
+import java.io.BufferedReader;
 import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URL;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 /**
  * Bean discoverer.
+ * <p>
+ * If bean indexes generated by {@link BeanIndexProcessor} are in the class path, beans of the class path roots (class
+ * directories or jars) containing an index are loaded from the index, class files of these roots are not scanned, and
+ * a package path whose roots all contain an index is not resolved at all. Class path roots without an index are always
+ * scanned, for example a plugin jar built without the annotation processor.
+ * </p>
+ * <p>
+ * The index lists bean classes only. Stereotypes and injection points are still resolved by reflection when the beans
+ * are created, indexing them is deferred.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.7, Feb 9, 2020
+ * @version 1.2.0.0, Oct 17, 2026
  * @since 2.4.18
  */
 public final class Discoverer {
@@ -74,16 +84,40 @@ public final class Discoverer {
         // Adds some built-in components
         final String[] paths = ArrayUtils.concatenate(splitPaths, BUILT_IN_COMPONENT_PKGS);
 
+        final Map<String, Set<String>> indexes = readIndexes();
         final Set<URL> urls = new LinkedHashSet<>();
         for (String path : paths) {
-            path = path.replaceAll("\\.", "/") + "/**/*.class";
-            urls.addAll(ClassPathResolver.getResources(path));
+            path = path.trim();
+            if (StringUtils.isBlank(path)) {
+                continue;
+            }
+
+            final String pkgPrefix = path + ".";
+            for (final Set<String> indexedClassNames : indexes.values()) {
+                for (final String className : indexedClassNames) {
+                    if (className.startsWith(pkgPrefix)) {
+                        addClass(ret, className);
+                    }
+                }
+            }
+
+            path = path.replaceAll("\\.", "/");
+            if (isIndexed(indexes.keySet(), path + "/")) {
+                continue;
+            }
+            urls.addAll(ClassPathResolver.getResources(path + "/**/*.class"));
         }
 
         try {
             for (final URL url : urls) {
-                final DataInputStream classInputStream = new DataInputStream(url.openStream());
-                final ClassFile classFile = new ClassFile(classInputStream);
+                if (isIndexed(indexes.keySet(), url)) {
+                    continue;
+                }
+
+                final ClassFile classFile;
+                try (final DataInputStream classInputStream = new DataInputStream(url.openStream())) {
+                    classFile = new ClassFile(classInputStream);
+                }
                 final String className = classFile.getName();
 
                 final AnnotationsAttribute annotationsAttribute = (AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.visibleTag);
@@ -92,41 +126,110 @@ public final class Discoverer {
                     continue;
                 }
 
-                final ConstPool constPool = classFile.getConstPool();
                 final Annotation[] annotations = annotationsAttribute.getAnnotations();
-                boolean maybeBeanClass = false;
                 for (final Annotation annotation : annotations) {
                     final String typeName = annotation.getTypeName();
-                    if (typeName.equals(Singleton.class.getName())) {
-                        maybeBeanClass = true;
+                    if (typeName.equals(Singleton.class.getName())
+                            || typeName.equals(Service.class.getName()) || typeName.equals(Repository.class.getName())) {
+                        addClass(ret, className);
                         break;
                     }
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Load classes failed", e);
+        }
 
-                    if (typeName.equals(Service.class.getName()) || typeName.equals(Repository.class.getName())) {
-                        final Annotation singletonAnnotation = new Annotation(Singleton.class.getName(), constPool);
-                        annotationsAttribute.addAnnotation(singletonAnnotation);
-                        classFile.addAttribute(annotationsAttribute);
-                        classFile.setVersionToJava5();
-                        maybeBeanClass = true;
-                        break;
-                    }
+        return ret;
+    }
+
+    /**
+     * Determines whether all class path roots containing the specified package directory contain a bean index.
+     *
+     * @param indexedRoots the specified class path roots containing a bean index
+     * @param pkgDir       the specified package directory, for example "org/b3log/"
+     * @return {@code true} if they are all indexed, returns {@code false} otherwise
+     */
+    static boolean isIndexed(final Set<String> indexedRoots, final String pkgDir) {
+        if (indexedRoots.isEmpty()) {
+            return false;
+        }
+
+        try {
+            final Enumeration<URL> dirs = Thread.currentThread().getContextClassLoader().getResources(pkgDir);
+            while (dirs.hasMoreElements()) {
+                if (!isIndexed(indexedRoots, dirs.nextElement())) {
+                    return false;
                 }
+            }
+            return true;
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Gets class path roots of [" + pkgDir + "] failed", e);
+            return false;
+        }
+    }
 
-                if (maybeBeanClass) {
-                    Class<?> clz = null;
-                    try {
-                        clz = Thread.currentThread().getContextClassLoader().loadClass(className);
-                    } catch (final ClassNotFoundException e) {
-                        LOGGER.log(Level.ERROR, "Loads class [" + className + "] failed", e);
-                    }
+    /**
+     * Determines whether the specified class file or directory URL is in a class path root containing a bean index.
+     *
+     * @param indexedRoots the specified class path roots containing a bean index
+     * @param url          the specified class file or directory URL
+     * @return {@code true} if it's indexed, returns {@code false} otherwise
+     */
+    private static boolean isIndexed(final Set<String> indexedRoots, final URL url) {
+        final String location = url.toExternalForm();
+        for (final String root : indexedRoots) {
+            if (location.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                    ret.add(clz);
+    /**
+     * Reads all bean indexes in the class path.
+     *
+     * @return bean class names, &lt;class path root URL, bean class names&gt;
+     */
+    static Map<String, Set<String>> readIndexes() {
+        final Map<String, Set<String>> ret = new LinkedHashMap<>();
+        try {
+            final Enumeration<URL> indexes = Thread.currentThread().getContextClassLoader().getResources(BeanIndexProcessor.INDEX_LOCATION);
+            while (indexes.hasMoreElements()) {
+                final URL index = indexes.nextElement();
+                final String location = index.toExternalForm();
+                final String root = location.substring(0, location.length() - BeanIndexProcessor.INDEX_LOCATION.length());
+                final Set<String> classNames = ret.computeIfAbsent(root, key -> new TreeSet<>());
+                try (final InputStream inputStream = index.openStream();
+                     final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                    String line;
+                    while (null != (line = reader.readLine())) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            classNames.add(line);
+                        }
+                    }
                 }
+                LOGGER.log(Level.DEBUG, "Read bean index [{}]", index);
             }
         } catch (final Exception e) {
-            LOGGER.log(Level.ERROR, "Load classes failed", e);
+            LOGGER.log(Level.ERROR, "Reads bean indexes failed", e);
         }
 
         return ret;
     }
+
+    /**
+     * Loads the class specified by the given class name and adds it to the specified classes.
+     *
+     * @param classes   the specified classes
+     * @param className the given class name
+     */
+    private static void addClass(final Collection<Class<?>> classes, final String className) {
+        try {
+            classes.add(Thread.currentThread().getContextClassLoader().loadClass(className));
+        } catch (final ClassNotFoundException e) {
+            LOGGER.log(Level.ERROR, "Loads class [" + className + "] failed", e);
+        }
+    }
 }
@@ -21,17 +21,30 @@ import org.b3log.latke.repository.annotation.Transactional;
 import org.b3log.latke.repository.jdbc.JdbcRepository;
 import org.b3log.latke.repository.jdbc.JdbcTransaction;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Javassist method handler.
+ * <p>
+ * Each proxied method is resolved once into an {@link Invocation}: whether it's {@link Transactional} and a method
+ * handle of its proceed method, later calls don't scan annotations or invoke reflectively.
+ * </p>
+ * <p>
+ * A {@link Transactional#readOnly() read-only} method invoked outside a transaction doesn't begin one, it opens a
+ * read-only scope ({@link JdbcRepository#READ_ONLY}) instead.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.2.0, May 10, 2020
+ * @version 1.2.0.0, Oct 17, 2026
  * @since 2.4.18
  */
 final class JavassistMethodHandler implements MethodHandler {
@@ -51,6 +64,16 @@ final class JavassistMethodHandler implements MethodHandler {
      */
     private static final ThreadLocal<AtomicInteger> CALLS = new ThreadLocal<>();
 
+    /**
+     * Type of proceed method handles, (proxy, params) -&gt; result.
+     */
+    private static final MethodType PROCEED_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Resolved invocations, &lt;method, invocation&gt;.
+     */
+    private final Map<Method, Invocation> invocations = new ConcurrentHashMap<>();
+
     /**
      * Method filter.
      */
@@ -76,7 +99,7 @@ final class JavassistMethodHandler implements MethodHandler {
 
     @Override
     public Object invoke(final Object proxy, final Method method, final Method proceed, final Object[] params) throws Throwable {
-        LOGGER.trace("Processing invocation [" + method.toString() + "]");
+        LOGGER.trace("Processing invocation [{}]", method);
 
         AtomicInteger calls = CALLS.get();
         if (null == calls) {
@@ -85,11 +108,19 @@ final class JavassistMethodHandler implements MethodHandler {
         }
         calls.incrementAndGet();
 
+        Invocation invocation = invocations.get(method);
+        if (null == invocation) {
+            invocation = new Invocation(method, proceed);
+            invocations.put(method, invocation);
+        }
+
         // Invocation with transaction handle
-        final boolean withTransactionalAnno = method.isAnnotationPresent(Transactional.class);
-        JdbcTransaction transaction = JdbcRepository.TX.get();
-        final boolean alreadyInTransaction = null != transaction;
-        final boolean needHandleTrans = withTransactionalAnno && !alreadyInTransaction;
+        JdbcTransaction transaction = invocation.transactional ? JdbcRepository.TX.get() : null;
+        final boolean needHandleTrans = invocation.transactional && !invocation.readOnly && null == transaction;
+        final boolean needReadOnly = invocation.readOnly && null == transaction && null == JdbcRepository.READ_ONLY.get();
+        if (needReadOnly) {
+            JdbcRepository.READ_ONLY.set(Boolean.TRUE);
+        }
 
         // Transaction Propagation: REQUIRED (Support a current transaction, create a new one if none exists)
         if (needHandleTrans) {
@@ -105,18 +136,21 @@ final class JavassistMethodHandler implements MethodHandler {
 
         Object ret;
         try {
-            ret = proceed.invoke(proxy, params);
+            ret = invocation.invoke(proxy, params);
             if (needHandleTrans) {
                 transaction.commit();
             }
-        } catch (final InvocationTargetException e) {
+        } catch (final Throwable e) {
             transaction = JdbcRepository.TX.get();
             if (null != transaction && transaction.isActive()) {
                 transaction.rollback();
             }
 
-            throw e.getTargetException();
+            throw e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
         } finally {
+            if (needReadOnly) {
+                JdbcRepository.READ_ONLY.remove();
+            }
             if (0 == calls.decrementAndGet()) {
                 CALLS.remove();
                 final Connection connection = JdbcRepository.CONN.get();
@@ -138,4 +172,67 @@ final class JavassistMethodHandler implements MethodHandler {
     public MethodFilter getMethodFilter() {
         return methodFilter;
     }
+
+    /**
+     * Resolved invocation of a proxied method.
+     */
+    private static final class Invocation {
+
+        /**
+         * Whether the method is annotated by {@link Transactional}.
+         */
+        private final boolean transactional;
+
+        /**
+         * Whether the method is annotated by {@link Transactional#readOnly() read-only} {@link Transactional}.
+         */
+        private final boolean readOnly;
+
+        /**
+         * Proceed method handle of type {@link #PROCEED_TYPE}, {@code null} if falls back to reflection.
+         */
+        private final MethodHandle proceedHandle;
+
+        /**
+         * Proceed method.
+         */
+        private final Method proceed;
+
+        /**
+         * Constructs an invocation with the specified method and its proceed method.
+         *
+         * @param method  the specified method
+         * @param proceed the specified proceed method
+         */
+        private Invocation(final Method method, final Method proceed) {
+            final Transactional annotation = method.getAnnotation(Transactional.class);
+            transactional = null != annotation;
+            readOnly = transactional && annotation.readOnly();
+            this.proceed = proceed;
+            MethodHandle handle = null;
+            try {
+                proceed.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(proceed).
+                        asSpreader(Object[].class, proceed.getParameterCount()).asType(PROCEED_TYPE);
+            } catch (final Exception e) {
+                LOGGER.log(Level.DEBUG, "Creates method handle for [" + method + "] failed, falls back to reflection", e);
+            }
+            proceedHandle = handle;
+        }
+
+        /**
+         * Invokes the proceed method on the specified proxy with the specified params.
+         *
+         * @param proxy  the specified proxy
+         * @param params the specified params
+         * @return result
+         * @throws Throwable throwable
+         */
+        private Object invoke(final Object proxy, final Object[] params) throws Throwable {
+            if (null != proceedHandle) {
+                return (Object) proceedHandle.invokeExact(proxy, params);
+            }
+            return proceed.invoke(proxy, params);
+        }
+    }
 }
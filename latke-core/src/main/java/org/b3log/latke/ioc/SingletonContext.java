@@ -11,93 +11,205 @@
  */
 package org.b3log.latke.ioc;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Abstract context.
+ * Singleton context.
+ * <p>
+ * References are held in a concurrent map, each bean is created once only even if it is requested by several threads
+ * at the same time, and the created reference is safely published to all of them.
+ * </p>
+ * <p>
+ * A thread waiting for a bean being created by another thread is recorded, so a dependency cycle spread across threads
+ * (thread 1 creates A which needs B, thread 2 creates B which needs A) fails fast instead of deadlocking.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.1.9, Sep 29, 2018
+ * @version 2.1.0.0, Oct 17, 2026
  * @since 2.4.18
  */
 public final class SingletonContext {
 
     /**
-     * Bean reference in this context.
+     * Bean references in this context, &lt;bean, reference holder&gt;.
      */
-    private final Map<Bean<?>, Object> beanReferences;
+    private final Map<Bean<?>, Reference<?>> beanReferences;
+
+    /**
+     * Threads waiting for references being created by other threads, &lt;thread, reference holder&gt;.
+     */
+    private final Map<Thread, Reference<?>> waitings = new ConcurrentHashMap<>();
 
     /**
      * Constructs a context.
      */
     public SingletonContext() {
-        beanReferences = new HashMap<>();
+        beanReferences = new ConcurrentHashMap<>();
     }
 
     public <T> void add(final Bean<T> bean, final T reference) {
-        beanReferences.put(bean, reference);
+        getHolder(bean).value = reference;
     }
 
     public <T> T get(final Bean<T> bean) {
-        return getReference(bean);
+        final Reference<T> holder = getHolder(bean);
+        final T ret = holder.value;
+        if (null != ret) {
+            return ret;
+        }
+
+        return create(holder);
     }
 
     /**
-     * Gets reference of the specified bean and creational context.
+     * Checks whether the reference of the specified bean has been created.
      *
-     * @param <T>  the type of contextual
      * @param bean the specified bean
-     * @return reference
+     * @return {@code true} if created, returns {@code false} otherwise
      */
-    private <T> T getReference(final Bean<T> bean) {
-        T ret = (T) beanReferences.get(bean);
+    boolean isCreated(final Bean<?> bean) {
+        final Reference<?> holder = beanReferences.get(bean);
 
-        if (null != ret) {
-            return ret;
+        return null != holder && null != holder.value;
+    }
+
+    /**
+     * Destroys this context, clears all bean's references (instances).
+     *
+     * @param <T> the type of contextual
+     */
+    public <T> void destroy() {
+        for (final Reference<?> holder : beanReferences.values()) {
+            final T instance = (T) holder.value;
+            if (null != instance) {
+                ((Bean<T>) holder.bean).destroy(instance);
+            }
         }
 
-        ret = bean.create();
+        beanReferences.clear();
+    }
 
-        if (null != ret) {
-            beanReferences.put(bean, ret);
+    /**
+     * Creates the reference of the specified holder if it's not created yet.
+     *
+     * @param holder the specified holder
+     * @param <T>    the type of contextual
+     * @return reference
+     */
+    private <T> T create(final Reference<T> holder) {
+        final Thread current = Thread.currentThread();
+        if (!holder.lock.tryLock()) {
+            waitings.put(current, holder);
+            try {
+                checkDeadlock(holder, current);
+                holder.lock.lock();
+            } finally {
+                waitings.remove(current);
+            }
+        }
+
+        try {
+            T ret = holder.value;
+            if (null != ret) {
+                return ret;
+            }
+
+            if (1 < holder.lock.getHoldCount()) {
+                throw new IllegalStateException("Circular dependency detected while creating bean [" + holder.bean + "]");
+            }
+
+            holder.creator = current;
+            try {
+                ret = holder.bean.create();
+            } finally {
+                holder.creator = null;
+            }
+
+            if (null == ret) {
+                throw new RuntimeException("Can't create reference for bean [" + holder.bean + "]");
+            }
+
+            holder.value = ret;
 
             return ret;
+        } finally {
+            holder.lock.unlock();
         }
-
-        throw new RuntimeException("Can't create reference for bean [" + bean + "]");
     }
 
     /**
-     * Destroys this context, clears all bean's references (instances).
+     * Checks whether the specified thread waiting for the specified holder would deadlock, follows the creator of the
+     * holder, the holder the creator is waiting for and so on.
      *
-     * @param <T> the type of contextual
+     * @param holder  the specified holder
+     * @param current the specified thread
+     * @throws IllegalStateException if the chain leads back to the specified thread
      */
-    public <T> void destroy() {
-        final Set<Entry<Bean<?>, Object>> beanSet = beanReferences.entrySet();
-        final Iterator<Entry<Bean<?>, Object>> i = beanSet.iterator();
-        Bean<?> bean;
-        while (i.hasNext()) {
-            bean = i.next().getKey();
-            final T instance = (T) beanReferences.get(bean);
-
-            destroyReference((Bean<T>) bean, instance);
+    private void checkDeadlock(final Reference<?> holder, final Thread current) {
+        final Set<Thread> visited = new HashSet<>();
+        Reference<?> next = holder;
+        while (null != next) {
+            final Thread creator = next.creator;
+            if (null == creator || !visited.add(creator)) {
+                return;
+            }
+            if (creator == current) {
+                throw new IllegalStateException("Circular dependency detected across threads while creating bean [" + holder.bean + "]");
+            }
+
+            next = waitings.get(creator);
         }
+    }
 
-        beanReferences.clear();
+    /**
+     * Gets the reference holder of the specified bean.
+     *
+     * @param bean the specified bean
+     * @param <T>  the type of contextual
+     * @return reference holder
+     */
+    private <T> Reference<T> getHolder(final Bean<T> bean) {
+        return (Reference<T>) beanReferences.computeIfAbsent(bean, Reference::new);
     }
 
     /**
-     * Destroys the specified bean's instance.
+     * Reference holder of a bean.
      *
-     * @param <T>          the type of contextual
-     * @param bean         the specified bean
-     * @param beanInstance the specified bean's instance
+     * @param <T> the type of contextual
      */
-    private <T> void destroyReference(final Bean<T> bean, final T beanInstance) {
-        bean.destroy(beanInstance);
+    private static final class Reference<T> {
+
+        /**
+         * Bean.
+         */
+        private final Bean<T> bean;
+
+        /**
+         * Lock guarding the creation of the reference.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Reference, written once under the lock of this holder.
+         */
+        private volatile T value;
+
+        /**
+         * The thread creating the reference, written under the lock of this holder.
+         */
+        private volatile Thread creator;
+
+        /**
+         * Constructs a reference holder for the specified bean.
+         *
+         * @param bean the specified bean
+         */
+        private Reference(final Bean<?> bean) {
+            this.bean = (Bean<T>) bean;
+        }
     }
 }
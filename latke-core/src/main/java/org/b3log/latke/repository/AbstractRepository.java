@@ -30,7 +30,7 @@ import java.util.Map;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.3.0.4, Jun 20, 2020
+ * @version 2.6.0.1, Oct 17, 2026
  */
 public abstract class AbstractRepository implements Repository {
 
@@ -71,7 +71,15 @@ public abstract class AbstractRepository implements Repository {
             }
 
             final Constructor<Repository> constructor = repositoryClass.getConstructor(String.class);
-            repository = constructor.newInstance(name);
+            Repository underlyingRepository = constructor.newInstance(name);
+            if (Latkes.RuntimeDatabase.NONE != runtimeDatabase) {
+                // Repositories not defined in repositories.json, for example, created by plugins, are not cached
+                final JSONObject repositoryDef = Repositories.findRepositoryDef(underlyingRepository.getName());
+                if (null != repositoryDef && repositoryDef.optBoolean("cache")) { // 按仓库配置启用实体缓存
+                    underlyingRepository = new CachedRepository(underlyingRepository, repositoryDef.optInt("cacheExpireSeconds", CachedRepository.EXPIRE_SECONDS));
+                }
+            }
+            repository = underlyingRepository;
         } catch (final Exception e) {
             throw new RuntimeException("Can not initialize repository!", e);
         }
@@ -99,6 +107,40 @@ public abstract class AbstractRepository implements Repository {
         repository.update(id, jsonObject, propertyNames);
     }
 
+    @Override
+    public void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException {
+        if (!isWritable()) {
+            throw new RepositoryException("The repository [name=" + getName() + "] is not writable at present");
+        }
+
+        Repositories.check(getName(), jsonObject, Keys.OBJECT_ID);
+        repository.update(id, oldJsonObject, jsonObject, propertyNames);
+    }
+
+    @Override
+    public List<String> addAll(final List<JSONObject> jsonObjects) throws RepositoryException {
+        if (!isWritable()) {
+            throw new RepositoryException("The repository [name=" + getName() + "] is not writable at present");
+        }
+
+        for (final JSONObject jsonObject : jsonObjects) {
+            Repositories.check(getName(), jsonObject, Keys.OBJECT_ID);
+        }
+        return repository.addAll(jsonObjects);
+    }
+
+    @Override
+    public void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) throws RepositoryException {
+        if (!isWritable()) {
+            throw new RepositoryException("The repository [name=" + getName() + "] is not writable at present");
+        }
+
+        for (final JSONObject jsonObject : jsonObjects) {
+            Repositories.check(getName(), jsonObject, Keys.OBJECT_ID);
+        }
+        repository.updateAll(jsonObjects, propertyNames);
+    }
+
     @Override
     public void remove(final String id) throws RepositoryException {
         if (!isWritable()) {
@@ -0,0 +1,379 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.b3log.latke.Keys;
+import org.b3log.latke.cache.Cache;
+import org.b3log.latke.cache.CacheFactory;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through entity cache repository.
+ * <p>
+ * Serves {@link #get(String)}, {@link #get(Iterable)} and {@link #has(String)} from a {@link Cache} (built by
+ * {@link CacheFactory}), other calls are delegated to the wrapped repository. Enables it in repository.json per
+ * repository:
+ * <pre>
+ * {
+ *     "name": "user",
+ *     "cache": true,
+ *     "cacheExpireSeconds": 3600, // optional
+ *     "keys": [....]
+ * }
+ * </pre>
+ * </p>
+ * <p>
+ * Cached records are evicted when updated or removed, and evicted again after the current transaction completed, so
+ * that a record read by other threads before commit will not stay stale. Records read within a transaction are not put
+ * into the cache, because they may be uncommitted.
+ * </p>
+ * <p>
+ * Each eviction increases the version of the evicted ids (versions are striped by id hash). A record loaded from the
+ * wrapped repository is evicted again after it's put into the cache if the version of its id changed during the load,
+ * so a load racing with an update and its commit can't leave the old record in the cache.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public final class CachedRepository implements Repository {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(CachedRepository.class);
+
+    /**
+     * Default expire seconds, 1 hour.
+     */
+    public static final int EXPIRE_SECONDS = 60 * 60;
+
+    /**
+     * Count of version stripes, must be a power of two.
+     */
+    private static final int VERSION_STRIPES = 1024;
+
+    /**
+     * Wrapped repository.
+     */
+    private final Repository repository;
+
+    /**
+     * Entity cache.
+     */
+    private final Cache cache;
+
+    /**
+     * Striped versions of ids, increased when the ids are evicted.
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * Hit count.
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * Miss count.
+     */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Constructs a cached repository with the specified repository and expire seconds.
+     *
+     * @param repository    the specified repository to wrap
+     * @param expireSeconds the specified expire seconds
+     */
+    public CachedRepository(final Repository repository, final int expireSeconds) {
+        this.repository = repository;
+        cache = CacheFactory.getCache("repository-" + repository.getName(), expireSeconds);
+        LOGGER.log(Level.DEBUG, "Enabled entity cache for repository [name={}]", repository.getName());
+    }
+
+    @Override
+    public String add(final JSONObject jsonObject) throws RepositoryException {
+        return repository.add(jsonObject);
+    }
+
+    @Override
+    public void update(final String id, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException {
+        evict(Collections.singletonList(id));
+        repository.update(id, jsonObject, propertyNames);
+    }
+
+    @Override
+    public void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException {
+        evict(Collections.singletonList(id));
+        repository.update(id, oldJsonObject, jsonObject, propertyNames);
+    }
+
+    @Override
+    public List<String> addAll(final List<JSONObject> jsonObjects) throws RepositoryException {
+        return repository.addAll(jsonObjects);
+    }
+
+    @Override
+    public void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) throws RepositoryException {
+        final List<String> ids = new ArrayList<>(jsonObjects.size());
+        for (final JSONObject jsonObject : jsonObjects) {
+            ids.add(jsonObject.optString(Keys.OBJECT_ID));
+        }
+        evict(ids);
+        repository.updateAll(jsonObjects, propertyNames);
+    }
+
+    @Override
+    public void remove(final String id) throws RepositoryException {
+        evict(Collections.singletonList(id));
+        repository.remove(id);
+    }
+
+    @Override
+    public void remove(final Query query) throws RepositoryException {
+        evictAll();
+        if (repository.hasTransactionBegun()) {
+            repository.beginTransaction().afterCompletion(this::evictAll);
+        }
+        repository.remove(query);
+    }
+
+    @Override
+    public JSONObject get(final String id) throws RepositoryException {
+        if (null == id) {
+            return null;
+        }
+
+        final JSONObject cached = cache.get(id);
+        if (null != cached) {
+            hitCount.incrementAndGet();
+            return copy(cached);
+        }
+
+        missCount.incrementAndGet();
+        final long version = versions.get(stripe(id));
+        final JSONObject ret = repository.get(id);
+        if (null != ret && !repository.hasTransactionBegun()) {
+            cache.put(id, copy(ret));
+            if (version != versions.get(stripe(id))) {
+                // Evicted during the load, the loaded record may be stale
+                cache.remove(id);
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public Map<String, JSONObject> get(final Iterable<String> ids) throws RepositoryException {
+        final Set<String> idSet = new LinkedHashSet<>();
+        for (final String id : ids) {
+            if (null != id) {
+                idSet.add(id);
+            }
+        }
+
+        final Map<String, JSONObject> ret = new HashMap<>();
+        final Map<String, JSONObject> cached = cache.getAll(idSet);
+        for (final Map.Entry<String, JSONObject> entry : cached.entrySet()) {
+            ret.put(entry.getKey(), copy(entry.getValue()));
+        }
+        hitCount.addAndGet(cached.size());
+        if (cached.size() == idSet.size()) {
+            return ret;
+        }
+
+        final List<String> missedIds = new ArrayList<>(idSet.size() - cached.size());
+        final Map<String, Long> loadVersions = new HashMap<>();
+        for (final String id : idSet) {
+            if (!cached.containsKey(id)) {
+                missedIds.add(id);
+                loadVersions.put(id, versions.get(stripe(id)));
+            }
+        }
+        missCount.addAndGet(missedIds.size());
+
+        final Map<String, JSONObject> loaded = repository.get(missedIds);
+        if (!loaded.isEmpty() && !repository.hasTransactionBegun()) {
+            final Map<String, JSONObject> toCache = new HashMap<>();
+            for (final Map.Entry<String, JSONObject> entry : loaded.entrySet()) {
+                toCache.put(entry.getKey(), copy(entry.getValue()));
+            }
+            cache.putAll(toCache);
+            final List<String> staleIds = new ArrayList<>();
+            for (final String id : toCache.keySet()) {
+                if (loadVersions.get(id) != versions.get(stripe(id))) {
+                    staleIds.add(id);
+                }
+            }
+            if (!staleIds.isEmpty()) {
+                cache.remove(staleIds);
+            }
+        }
+        ret.putAll(loaded);
+        return ret;
+    }
+
+    @Override
+    public boolean has(final String id) throws RepositoryException {
+        return null != get(id);
+    }
+
+    @Override
+    public JSONObject get(final Query query) throws RepositoryException {
+        return repository.get(query);
+    }
+
+    @Override
+    public List<JSONObject> select(final String statement, final Object... params) throws RepositoryException {
+        return repository.select(statement, params);
+    }
+
+    @Override
+    public List<JSONObject> getRandomly(final int fetchSize) throws RepositoryException {
+        return repository.getRandomly(fetchSize);
+    }
+
+    @Override
+    public long count() throws RepositoryException {
+        return repository.count();
+    }
+
+    @Override
+    public long count(final Query query) throws RepositoryException {
+        return repository.count(query);
+    }
+
+    @Override
+    public String getName() {
+        return repository.getName();
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        return repository.beginTransaction();
+    }
+
+    @Override
+    public boolean hasTransactionBegun() {
+        return repository.hasTransactionBegun();
+    }
+
+    @Override
+    public boolean isWritable() {
+        return repository.isWritable();
+    }
+
+    @Override
+    public void setWritable(final boolean writable) {
+        repository.setWritable(writable);
+    }
+
+    @Override
+    public void setDebug(final boolean debugEnabled) {
+        repository.setDebug(debugEnabled);
+    }
+
+    /**
+     * Gets the hit count of the entity cache.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the miss count of the entity cache.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the wrapped repository.
+     *
+     * @return wrapped repository
+     */
+    public Repository getWrappedRepository() {
+        return repository;
+    }
+
+    /**
+     * Evicts the records specified by the given ids now and after the current transaction completed.
+     *
+     * @param ids the given ids
+     */
+    private void evict(final Collection<String> ids) {
+        evictNow(ids);
+        if (repository.hasTransactionBegun()) {
+            // Returns the current transaction
+            repository.beginTransaction().afterCompletion(() -> evictNow(ids));
+        }
+    }
+
+    /**
+     * Increases the versions of the specified ids and evicts the records specified by them.
+     *
+     * @param ids the specified ids
+     */
+    private void evictNow(final Collection<String> ids) {
+        for (final String id : ids) {
+            if (null != id) {
+                versions.incrementAndGet(stripe(id));
+            }
+        }
+        cache.remove(ids);
+    }
+
+    /**
+     * Increases the versions of all ids and evicts all records.
+     */
+    private void evictAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.clear();
+    }
+
+    /**
+     * Gets the version stripe of the specified id.
+     *
+     * @param id the specified id
+     * @return version stripe
+     */
+    private static int stripe(final String id) {
+        final int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Shallow copies the specified json object, avoids callers modifying the cached json object.
+     *
+     * @param jsonObject the specified json object
+     * @return copied json object
+     */
+    private static JSONObject copy(final JSONObject jsonObject) {
+        final JSONObject ret = new JSONObject(jsonObject.length());
+        for (final String key : jsonObject.keySet()) {
+            ret.put(key, jsonObject.opt(key));
+        }
+        return ret;
+    }
+}
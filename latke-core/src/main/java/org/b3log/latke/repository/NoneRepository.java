@@ -20,7 +20,7 @@ import java.util.Map;
  * None repository implementation.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.3.0.2, Jun 6, 2019
+ * @version 1.5.0.0, Oct 17, 2026
  */
 public final class NoneRepository implements Repository {
 
@@ -42,6 +42,21 @@ public final class NoneRepository implements Repository {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    @Override
+    public void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public List<String> addAll(final List<JSONObject> jsonObjects) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public void remove(final String id) {
         throw new UnsupportedOperationException("Not supported yet.");
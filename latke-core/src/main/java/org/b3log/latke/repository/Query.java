@@ -18,7 +18,7 @@ import java.util.Map.Entry;
  * Query.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.2, Jan 15, 2019
+ * @version 1.3.1.1, Oct 17, 2026
  * @see Projection
  * @see Filter
  * @see SortDirection
@@ -60,6 +60,26 @@ public final class Query {
      */
     private boolean debug;
 
+    /**
+     * Seek (keyset) pagination sort value, the value of the first sort property of the last record in the previous page.
+     */
+    private Object seekValue;
+
+    /**
+     * Seek (keyset) pagination id, the id (oId) of the last record in the previous page.
+     */
+    private String seekId;
+
+    /**
+     * Seconds to cache the record count, {@code 0} for no caching.
+     */
+    private int countCacheSeconds;
+
+    /**
+     * Read-only flag.
+     */
+    private boolean readOnly;
+
     /**
      * Sets the current page number and page size with the specified current page number and the specified page sieze.
      *
@@ -93,6 +113,90 @@ public final class Query {
         return this;
     }
 
+    /**
+     * Sets seek (keyset) pagination with the specified sort value and id of the last record in the previous page.
+     * <p>
+     * The next page will be fetched by "WHERE (sortProperty, oId) &lt; (?, ?) ... LIMIT pageSize" (or "&gt;" for
+     * ascending sort) instead of an offset, the current page number will be ignored. At most one sort property can be
+     * {@link #addSort(String, SortDirection) added}, records are ordered by oId in the same direction as a tie-breaker.
+     * </p>
+     * <p>
+     * The records are not counted for a seek page, the page count of the result is {@code -1} and the record count is
+     * {@code 0} unless the page count is {@link #setPageCount(int) specified}. Uses {@link Repository#count(Query)} to
+     * count the records if needed.
+     * </p>
+     *
+     * @param sortValue the specified sort value, ignored if no sort property other than oId added, otherwise querying
+     *                  with a {@code null} sort value throws {@link IllegalArgumentException}
+     * @param id        the specified id (oId)
+     * @return the current query object
+     */
+    public Query setSeek(final Object sortValue, final String id) {
+        this.seekValue = sortValue;
+        this.seekId = id;
+        return this;
+    }
+
+    /**
+     * Gets the seek (keyset) pagination sort value.
+     *
+     * @return seek sort value
+     */
+    public Object getSeekValue() {
+        return seekValue;
+    }
+
+    /**
+     * Gets the seek (keyset) pagination id.
+     *
+     * @return seek id, returns {@code null} if not seek pagination
+     */
+    public String getSeekId() {
+        return seekId;
+    }
+
+    /**
+     * Sets the seconds to cache the record count of this query, the record count of the same filter will be reused in
+     * the specified seconds instead of executing "SELECT COUNT" every time.
+     *
+     * @param countCacheSeconds the specified seconds, {@code 0} for no caching
+     * @return the current query object
+     */
+    public Query setCountCacheSeconds(final int countCacheSeconds) {
+        this.countCacheSeconds = countCacheSeconds;
+        return this;
+    }
+
+    /**
+     * Gets the seconds to cache the record count.
+     *
+     * @return seconds to cache the record count, {@code 0} for no caching
+     */
+    public int getCountCacheSeconds() {
+        return countCacheSeconds;
+    }
+
+    /**
+     * Checks whether is read-only.
+     *
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Sets the read-only flag. A read-only query executed outside a transaction runs in auto-commit mode on a
+     * connection of the read replica (if configured), and the connection is released right after the query.
+     *
+     * @param readOnly the specified read-only flag
+     * @return the current query object
+     */
+    public Query setReadOnly(final boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
     /**
      * Set SELECT projections.
      *
@@ -236,6 +340,10 @@ public final class Query {
         return currentPageNum == query.currentPageNum &&
                 pageSize == query.pageSize &&
                 debug == query.debug &&
+                readOnly == query.readOnly &&
+                countCacheSeconds == query.countCacheSeconds &&
+                Objects.equals(seekValue, query.seekValue) &&
+                Objects.equals(seekId, query.seekId) &&
                 Objects.equals(pageCount, query.pageCount) &&
                 Objects.equals(sorts, query.sorts) &&
                 Objects.equals(filter, query.filter) &&
@@ -244,7 +352,7 @@ public final class Query {
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentPageNum, pageCount, pageSize, sorts, filter, projections, debug);
+        return Objects.hash(currentPageNum, pageCount, pageSize, sorts, filter, projections, debug, readOnly, seekValue, seekId, countCacheSeconds);
     }
 
     @Override
@@ -274,6 +382,9 @@ public final class Query {
             }
         }
         stringBuilder.append("]");
+        if (null != seekId) {
+            stringBuilder.append(", seek=[value=").append(seekValue).append(", id=").append(seekId).append("]");
+        }
         return stringBuilder.toString();
     }
 }
@@ -34,7 +34,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Repository utilities.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.2, May 13, 2020
+ * @version 1.2.0.0, Oct 17, 2026
  */
 public final class Repositories {
 
@@ -219,14 +219,30 @@ public final class Repositories {
      * Gets the repository definition of an repository specified by the given repository name.
      *
      * @param repositoryName the given repository name (maybe with table name prefix)
-     * @return repository definition, returns {@code null} if not found
+     * @return repository definition, returns {@code null} if the given repository name is blank or the repositories
+     * description has not been loaded
+     * @throws RuntimeException if not found the repository definition in the loaded repositories description
      */
     public static JSONObject getRepositoryDef(final String repositoryName) {
-        if (StringUtils.isBlank(repositoryName)) {
+        if (StringUtils.isBlank(repositoryName) || null == repositoriesDescription) {
             return null;
         }
 
-        if (null == repositoriesDescription) {
+        final JSONObject ret = findRepositoryDef(repositoryName);
+        if (null == ret) {
+            throw new RuntimeException("Not found the repository [name=" + repositoryName + "] definition, please define it in repositories.json");
+        }
+        return ret;
+    }
+
+    /**
+     * Finds the repository definition of an repository specified by the given repository name.
+     *
+     * @param repositoryName the given repository name (maybe with table name prefix)
+     * @return repository definition, returns {@code null} if not found
+     */
+    static JSONObject findRepositoryDef(final String repositoryName) {
+        if (StringUtils.isBlank(repositoryName) || null == repositoriesDescription) {
             return null;
         }
 
@@ -237,8 +253,7 @@ public final class Repositories {
                 return repository;
             }
         }
-
-        throw new RuntimeException("Not found the repository [name=" + repositoryName + "] definition, please define it in repositories.json");
+        return null;
     }
 
     /**
@@ -14,6 +14,7 @@ package org.b3log.latke.repository;
 import org.b3log.latke.Keys;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -21,7 +22,7 @@ import java.util.Map;
  * Repository.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.5.0.2, Jun 6, 2019
+ * @version 1.7.1.0, Oct 17, 2026
  */
 public interface Repository {
 
@@ -44,6 +45,66 @@ public interface Repository {
      */
     void update(final String id, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException;
 
+    /**
+     * Updates a certain json object specified by the given id with the specified old json object, new json object and
+     * property names.
+     * <p>
+     * Different from {@link #update(String, JSONObject, String...)}, this method will not read the current record before
+     * writing, the changed properties are computed against the specified old json object (a snapshot held by the caller).
+     * Numbers are compared by value, nested json objects and arrays are compared by content. A nested json object or
+     * array shared by the old and the new json objects is always written, its changes can't be detected, so the snapshot
+     * should be a deep copy. If the old json object is {@code null}, the whole new json object is written.
+     * </p>
+     * <p>
+     * The default implementation ignores the old json object and invokes {@link #update(String, JSONObject, String...)}.
+     * </p>
+     *
+     * @param id            the specified id
+     * @param oldJsonObject the specified old json object, may be {@code null}
+     * @param jsonObject    the specified new json object
+     * @param propertyNames the specified property names to update, update all properties if not specified
+     * @throws RepositoryException repository exception
+     */
+    default void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException {
+        update(id, jsonObject, propertyNames);
+    }
+
+    /**
+     * Adds the specified json objects in batch.
+     * <p>
+     * The default implementation adds the json objects one by one with {@link #add(JSONObject)}.
+     * </p>
+     *
+     * @param jsonObjects the specified json objects
+     * @return the generated object ids, in the order of the specified json objects
+     * @throws RepositoryException repository exception
+     */
+    default List<String> addAll(final List<JSONObject> jsonObjects) throws RepositoryException {
+        final List<String> ret = new ArrayList<>(jsonObjects.size());
+        for (final JSONObject jsonObject : jsonObjects) {
+            ret.add(add(jsonObject));
+        }
+        return ret;
+    }
+
+    /**
+     * Updates the specified json objects in batch, each json object is specified by its own id (oId) with the specified
+     * property names.
+     * <p>
+     * The default implementation updates the json objects one by one with {@link #update(String, JSONObject, String...)}.
+     * </p>
+     *
+     * @param jsonObjects   the specified json objects, each of which must contain the id (oId)
+     * @param propertyNames the specified property names to update, update all properties if not specified, each of the
+     *                      json objects must contain them
+     * @throws RepositoryException repository exception
+     */
+    default void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) throws RepositoryException {
+        for (final JSONObject jsonObject : jsonObjects) {
+            update(jsonObject.optString(Keys.OBJECT_ID), jsonObject, propertyNames);
+        }
+    }
+
     /**
      * Removes a json object by the specified id.
      *
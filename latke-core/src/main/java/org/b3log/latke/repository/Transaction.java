@@ -17,7 +17,7 @@ import java.util.UUID;
  * Transaction.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.3, Oct 31, 2018
+ * @version 1.1.0.0, Oct 17, 2026
  */
 public interface Transaction {
 
@@ -50,6 +50,18 @@ public interface Transaction {
      */
     void rollback();
 
+    /**
+     * Registers the specified callback which will be invoked after this transaction completed (committed or rolled back).
+     * <p>
+     * Implementations without completion tracking invoke the specified callback immediately.
+     * </p>
+     *
+     * @param callback the specified callback
+     */
+    default void afterCompletion(final Runnable callback) {
+        callback.run();
+    }
+
     /**
      * Determines whether this transaction is active.
      *
@@ -15,12 +15,24 @@ import java.lang.annotation.*;
 
 /**
  * Indicates that an annotated method is transactional.
+ * <p>
+ * A {@link #readOnly() read-only} method doesn't begin a transaction, its reads run in auto-commit mode on connections
+ * of the read replica (if configured) and each connection is released right after its statement. It joins the current
+ * transaction if there is one.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.1, Jun 20, 2020
+ * @version 1.1.0.0, Oct 17, 2026
  */
 @Target(value = ElementType.METHOD)
 @Retention(value = RetentionPolicy.RUNTIME)
 @Documented
 public @interface Transactional {
+
+    /**
+     * Whether the annotated method only reads.
+     *
+     * @return {@code true} if it does, returns {@code false} otherwise
+     */
+    boolean readOnly() default false;
 }
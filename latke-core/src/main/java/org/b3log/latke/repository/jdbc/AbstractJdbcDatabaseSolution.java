@@ -28,7 +28,7 @@ import java.util.Map;
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.2, Jun 20, 2020
+ * @version 2.1.0.0, Oct 17, 2026
  */
 public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
 
@@ -58,6 +58,21 @@ public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses row value comparison "(sortKey, oId) &lt; (?, ?)", which is supported by both MySQL and H2.
+     * </p>
+     */
+    @Override
+    public String seekSql(final String sortKey, final boolean ascending) {
+        final String operator = ascending ? " > " : " < ";
+        if (null == sortKey || JdbcRepositories.keyName.equals(sortKey)) {
+            return JdbcRepositories.keyName + operator + "?";
+        }
+        return "(" + sortKey + ", " + JdbcRepositories.keyName + ")" + operator + "(?, ?)";
+    }
+
     /**
      * abstract createTableHead for each DB to impl.
      *
@@ -0,0 +1,321 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import org.b3log.latke.repository.*;
+import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled SQL fragments of a query shape.
+ * <p>
+ * A query shape consists of the table name, the soft delete flag, projections, filter structure (keys, operators and
+ * the size of IN values), sorts and whether it is a seek (keyset) pagination query. Queries with the same shape share the
+ * same SQL text, only the parameters bound by {@link #bind(Filter, List)} and {@link #bindSeek(Query, List)} differ.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.3.0.0, Oct 17, 2026
+ */
+final class CompiledSql {
+
+    /**
+     * Maximum count of page SQL cached in a compiled SQL.
+     */
+    private static final int MAX_PAGE_SQL_CNT = 16;
+
+    /**
+     * Table name.
+     */
+    private final String tableName;
+
+    /**
+     * 'SELECT' part.
+     */
+    private final String selectSql;
+
+    /**
+     * 'WHERE' part of the page query (the filter and the seek predicate), without the 'WHERE' keyword.
+     */
+    private final String pageWhereSql;
+
+    /**
+     * Whether the seek predicate has a placeholder for the sort value.
+     */
+    private final boolean seekBySortValue;
+
+    /**
+     * 'ORDER BY' part.
+     */
+    private final String orderBySql;
+
+    /**
+     * Count SQL.
+     */
+    private final String countSql;
+
+    /**
+     * Delete SQL.
+     */
+    private final String deleteSql;
+
+    /**
+     * Cached page SQL, &lt;start &lt;&lt; 32 | end, page SQL&gt;. Only the first pages are cached, seek pagination always
+     * fetches from the start 0 so it has one page SQL per page size.
+     */
+    private final Map<Long, String> pageSqls = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a compiled SQL with the specified fragments.
+     *
+     * @param tableName       the specified table name
+     * @param selectSql       the specified 'SELECT' part
+     * @param whereSql        the specified 'WHERE' part of the filter
+     * @param orderBySql      the specified 'ORDER BY' part
+     * @param seekSql         the specified seek predicate, {@code null} if not seek pagination
+     * @param seekBySortValue whether the specified seek predicate has a placeholder for the sort value
+     */
+    CompiledSql(final String tableName, final String selectSql, final String whereSql, final String orderBySql,
+                final String seekSql, final boolean seekBySortValue) {
+        this.tableName = tableName;
+        this.selectSql = selectSql;
+        this.orderBySql = orderBySql;
+        this.seekBySortValue = seekBySortValue;
+        if (null == seekSql) {
+            pageWhereSql = whereSql;
+        } else {
+            pageWhereSql = whereSql.isBlank() ? seekSql : "(" + whereSql + ") AND " + seekSql;
+        }
+
+        final String where = whereSql.isBlank() ? "" : " WHERE " + whereSql;
+        countSql = "SELECT COUNT(" + JdbcRepositories.keyName + ") FROM `" + tableName + "`" + where;
+        deleteSql = "DELETE FROM `" + tableName + "`" + where;
+    }
+
+    /**
+     * Gets the shape of the specified query.
+     *
+     * @param tableName the specified table name
+     * @param query     the specified query
+     * @return shape
+     */
+    static Shape shape(final String tableName, final Query query) {
+        return new Shape(tableName, query);
+    }
+
+    /**
+     * Binds parameters of the specified filter into the specified param list, in the same order as the 'WHERE' part
+     * placeholders.
+     *
+     * @param filter    the specified filter
+     * @param paramList the specified param list
+     */
+    static void bind(final Filter filter, final List<Object> paramList) {
+        bindFilter(filter, paramList);
+        if (Repositories.isSoftDelete()) {
+            paramList.add(0);
+        }
+    }
+
+    /**
+     * Binds seek (keyset) pagination parameters of the specified query into the specified param list, should be called
+     * after {@link #bind(Filter, List)}.
+     *
+     * @param query     the specified query
+     * @param paramList the specified param list
+     * @throws IllegalArgumentException if the query is sorted by a property other than the key without a seek value
+     */
+    void bindSeek(final Query query, final List<Object> paramList) {
+        if (seekBySortValue) {
+            if (null == query.getSeekValue()) {
+                throw new IllegalArgumentException("Seek pagination sorted by a property requires the seek value");
+            }
+            paramList.add(query.getSeekValue());
+        }
+        paramList.add(query.getSeekId());
+    }
+
+    /**
+     * Binds parameters of the specified filter recursively.
+     *
+     * @param filter    the specified filter
+     * @param paramList the specified param list
+     */
+    private static void bindFilter(final Filter filter, final List<Object> paramList) {
+        if (null == filter) {
+            return;
+        }
+
+        if (filter instanceof PropertyFilter) {
+            final PropertyFilter propertyFilter = (PropertyFilter) filter;
+            final FilterOperator operator = propertyFilter.getOperator();
+            if (FilterOperator.IN != operator && FilterOperator.NOT_IN != operator) {
+                paramList.add(propertyFilter.getValue());
+            } else {
+                final Collection<?> values = (Collection<?>) propertyFilter.getValue();
+                if (null != values) {
+                    paramList.addAll(values);
+                }
+            }
+            return;
+        }
+
+        for (final Filter subFilter : ((CompositeFilter) filter).getSubFilters()) {
+            bindFilter(subFilter, paramList);
+        }
+    }
+
+    /**
+     * Gets the page SQL built by the specified database with the specified start and end, builds and caches it if not
+     * cached yet.
+     *
+     * @param database the specified database
+     * @param start    the specified start
+     * @param end      the specified end
+     * @return page SQL
+     */
+    String getPageSql(final JdbcDatabase database, final int start, final int end) {
+        final Long key = (long) start << 32 | end & 0xFFFFFFFFL;
+        String ret = pageSqls.get(key);
+        if (null == ret) {
+            ret = database.queryPage(start, end, selectSql, pageWhereSql, orderBySql, tableName);
+            if (MAX_PAGE_SQL_CNT > pageSqls.size()) {
+                pageSqls.put(key, ret);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the count SQL.
+     *
+     * @return count SQL
+     */
+    String getCountSql() {
+        return countSql;
+    }
+
+    /**
+     * Gets the delete SQL.
+     *
+     * @return delete SQL
+     */
+    String getDeleteSql() {
+        return deleteSql;
+    }
+
+    /**
+     * Query shape, the cache key of compiled SQL.
+     * <p>
+     * A shape holds the references of the query parts (table name, keys and operators) instead of a text built from
+     * them, its hash code is computed once.
+     * </p>
+     */
+    static final class Shape {
+
+        /**
+         * Start of a composite filter.
+         */
+        private static final Object OPEN = new Object();
+
+        /**
+         * End of a query part or a composite filter.
+         */
+        private static final Object CLOSE = new Object();
+
+        /**
+         * Parts.
+         */
+        private final List<Object> parts = new ArrayList<>(16);
+
+        /**
+         * Hash code.
+         */
+        private final int hash;
+
+        /**
+         * Constructs the shape of the specified query.
+         *
+         * @param tableName the specified table name
+         * @param query     the specified query
+         */
+        private Shape(final String tableName, final Query query) {
+            parts.add(tableName);
+            parts.add(Repositories.isSoftDelete());
+            for (final Projection projection : query.getProjections()) {
+                parts.add(projection.getKey());
+            }
+            parts.add(CLOSE);
+            addFilter(query.getFilter());
+            parts.add(CLOSE);
+            for (final Map.Entry<String, SortDirection> sort : query.getSorts().entrySet()) {
+                parts.add(sort.getKey());
+                parts.add(sort.getValue());
+            }
+            parts.add(null != query.getSeekId());
+            hash = parts.hashCode();
+        }
+
+        /**
+         * Adds the shape of the specified filter.
+         *
+         * @param filter the specified filter
+         */
+        private void addFilter(final Filter filter) {
+            if (null == filter) {
+                return;
+            }
+
+            if (filter instanceof PropertyFilter) {
+                final PropertyFilter propertyFilter = (PropertyFilter) filter;
+                final FilterOperator operator = propertyFilter.getOperator();
+                parts.add(propertyFilter.getKey());
+                parts.add(operator);
+                if (FilterOperator.IN == operator || FilterOperator.NOT_IN == operator) {
+                    final Collection<?> values = (Collection<?>) propertyFilter.getValue();
+                    parts.add(null == values ? 0 : values.size());
+                }
+                return;
+            }
+
+            final CompositeFilter compositeFilter = (CompositeFilter) filter;
+            parts.add(compositeFilter.getOperator());
+            parts.add(OPEN);
+            for (final Filter subFilter : compositeFilter.getSubFilters()) {
+                addFilter(subFilter);
+            }
+            parts.add(CLOSE);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Shape)) {
+                return false;
+            }
+            final Shape that = (Shape) o;
+            return hash == that.hash && parts.equals(that.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -20,7 +20,7 @@ import java.sql.SQLException;
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.1, Feb 21, 2019
+ * @version 2.1.0.0, Oct 17, 2026
  */
 public interface JdbcDatabase {
 
@@ -55,6 +55,15 @@ public interface JdbcDatabase {
      */
     String queryPage(final int start, final int end, final String selectSql, final String filterSql, final String orderBySql, final String tableName);
 
+    /**
+     * Builds seek (keyset) pagination predicate.
+     *
+     * @param sortKey   the specified sort key, {@code null} if sorts by the key (oId) only
+     * @param ascending whether the sort is ascending
+     * @return predicate SQL, with placeholders for the sort value (if the sort key specified) and the key value
+     */
+    String seekSql(final String sortKey, final boolean ascending);
+
     /**
      * getRandomlySql.
      *
@@ -26,7 +26,7 @@ import java.util.Map;
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.3, Jun 20, 2020
+ * @version 2.1.0.0, Oct 17, 2026
  */
 public final class JdbcFactory implements JdbcDatabase {
 
@@ -91,6 +91,11 @@ public final class JdbcFactory implements JdbcDatabase {
         return databaseSolution.queryPage(start, end, selectSql, filterSql, orderBySql, tableName);
     }
 
+    @Override
+    public String seekSql(final String sortKey, final boolean ascending) {
+        return databaseSolution.seekSql(sortKey, ascending);
+    }
+
     @Override
     public String getRandomlySql(final String tableName, final int fetchSize) {
         return databaseSolution.getRandomlySql(tableName, fetchSize);
@@ -11,6 +11,8 @@
  */
 package org.b3log.latke.repository.jdbc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
@@ -23,9 +25,12 @@ import org.b3log.latke.repository.*;
 import org.b3log.latke.repository.jdbc.util.Connections;
 import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
 import org.b3log.latke.repository.jdbc.util.JdbcUtil;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
@@ -36,7 +41,7 @@ import java.util.stream.Collectors;
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.3.0, Jun 26, 2026
+ * @version 2.6.0.1, Oct 17, 2026
  */
 public final class JdbcRepository implements Repository {
 
@@ -55,6 +60,26 @@ public final class JdbcRepository implements Repository {
      */
     public static final ThreadLocal<Connection> CONN = new ThreadLocal<>();
 
+    /**
+     * Whether the current thread is in a read-only scope, see {@link org.b3log.latke.repository.annotation.Transactional#readOnly()}.
+     */
+    public static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    /**
+     * Maximum count of ids bound in one 'IN (?,?,...)' clause of {@link #get(Iterable)}.
+     */
+    static final int MULTI_GET_BATCH_SIZE = 512;
+
+    /**
+     * Maximum count of compiled SQL cached in a repository.
+     */
+    private static final int MAX_COMPILED_SQL_CNT = 1024;
+
+    /**
+     * Maximum count of record counts cached in a repository.
+     */
+    private static final int MAX_CACHED_COUNT_CNT = 4096;
+
     /**
      * Key generator.
      */
@@ -66,6 +91,8 @@ public final class JdbcRepository implements Repository {
             KEY_GEN = new TimeMillisKeyGenerator();
         } else if ("DB".equals(value)) {
             KEY_GEN = new DBKeyGenerator();
+        } else if ("Sequence".equals(value) || "org.b3log.latke.repository.SequenceKeyGenerator".equals(value)) {
+            KEY_GEN = new SequenceKeyGenerator();
         } else { // User customized key generator
             try {
                 final Class<?> keyGenClass = Class.forName(value);
@@ -82,6 +109,28 @@ public final class JdbcRepository implements Repository {
      */
     private final String name;
 
+    /**
+     * Table name, the repository name with the table name prefix.
+     */
+    private final String tableName;
+
+    /**
+     * Compiled SQL cache, &lt;query shape, compiled SQL&gt;, the least recently used ones are evicted when full.
+     */
+    private final Cache<CompiledSql.Shape, CompiledSql> compiledSqls = CacheBuilder.newBuilder().maximumSize(MAX_COMPILED_SQL_CNT).build();
+
+    /**
+     * Cached record counts, &lt;count SQL + params, [count, expire time]&gt;, the least recently used ones are evicted
+     * when full. All counts are evicted by a write of this repository, a write through another repository instance or
+     * another node is seen after the count cache seconds of the query.
+     */
+    private final Cache<String, long[]> counts = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_COUNT_CNT).build();
+
+    /**
+     * Database of the SQL dialect.
+     */
+    private final JdbcDatabase database;
+
     /**
      * Writable?
      */
@@ -98,7 +147,20 @@ public final class JdbcRepository implements Repository {
      * @param name the specified name
      */
     public JdbcRepository(final String name) {
+        this(name, JdbcFactory.getInstance());
+    }
+
+    /**
+     * Constructs a JDBC repository with the specified name and database.
+     *
+     * @param name     the specified name
+     * @param database the specified database of the SQL dialect
+     */
+    JdbcRepository(final String name, final JdbcDatabase database) {
         this.name = name;
+        this.database = database;
+        final String tablePrefix = Latkes.getLocalProperty("jdbc.tablePrefix");
+        tableName = StringUtils.isBlank(tablePrefix) ? name : tablePrefix + "_" + name;
     }
 
     /**
@@ -136,6 +198,7 @@ public final class JdbcRepository implements Repository {
         try {
             ret = buildAddSql(jsonObject, paramList, sqlBuilder);
             JdbcUtil.executeSql(sqlBuilder.toString(), paramList, connection, debug);
+            counts.invalidateAll();
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Adds a record failed", e);
             throw new RepositoryException(e);
@@ -144,15 +207,68 @@ public final class JdbcRepository implements Repository {
         return ret;
     }
 
+    @Override
+    public List<String> addAll(final List<JSONObject> jsonObjects) throws RepositoryException {
+        final JdbcTransaction currentTransaction = TX.get();
+        if (null == currentTransaction) {
+            throw new RepositoryException("Invoking addAll() outside a transaction");
+        }
+
+        final List<String> ret = new ArrayList<>(jsonObjects.size());
+        if (jsonObjects.isEmpty()) {
+            return ret;
+        }
+
+        // Groups rows by column set so that each group shares one prepared INSERT statement
+        final Map<List<String>, List<List<Object>>> batches = new LinkedHashMap<>();
+        for (final JSONObject jsonObject : jsonObjects) {
+            ret.add(genKey(jsonObject));
+            final List<String> columns = new ArrayList<>(new TreeSet<>(jsonObject.keySet()));
+            final List<Object> paramList = new ArrayList<>(columns.size());
+            for (final String column : columns) {
+                paramList.add(jsonObject.get(column));
+            }
+            batches.computeIfAbsent(columns, k -> new ArrayList<>()).add(paramList);
+        }
+
+        final Connection connection = getConnection();
+        try {
+            for (final Map.Entry<List<String>, List<List<Object>>> batch : batches.entrySet()) {
+                final List<String> columns = batch.getKey();
+                final StringBuilder sqlBuilder = new StringBuilder("INSERT INTO ").append("`").append(getName()).append("`(");
+                final StringBuilder argBuilder = new StringBuilder("(");
+                for (int i = 0; i < columns.size(); i++) {
+                    if (0 < i) {
+                        sqlBuilder.append(",");
+                        argBuilder.append(",");
+                    }
+                    sqlBuilder.append("`").append(columns.get(i)).append("`");
+                    argBuilder.append("?");
+                }
+                if (Repositories.isSoftDelete()) {
+                    sqlBuilder.append(", `").append(JdbcRepositories.softDeleteFieldName).append("`");
+                    argBuilder.append(", 0");
+                }
+                sqlBuilder.append(") VALUES ").append(argBuilder).append(")");
+
+                JdbcUtil.executeBatch(sqlBuilder.toString(), batch.getValue(), connection, debug);
+                counts.invalidateAll();
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Adds records failed", e);
+            throw new RepositoryException(e);
+        }
+
+        return ret;
+    }
+
     /**
-     * Builds add param list and SQL.
+     * Generates a key for the specified json object with the configured key generator if it has no id (oId).
      *
-     * @param jsonObject jsonObject the specified JSON object
-     * @param paramList  paramlist the specified param list
-     * @param sqlBuilder the specified SQL builder
-     * @return id the generated key
+     * @param jsonObject the specified json object
+     * @return id of the specified json object, returns {@code null} if the key will be generated by database
      */
-    private String buildAddSql(final JSONObject jsonObject, final List<Object> paramList, final StringBuilder sqlBuilder) {
+    private String genKey(final JSONObject jsonObject) {
         String ret = null;
         if (!jsonObject.has(Keys.OBJECT_ID)) {
             if (!(KEY_GEN instanceof DBKeyGenerator)) {
@@ -162,6 +278,19 @@ public final class JdbcRepository implements Repository {
         } else {
             ret = jsonObject.getString(Keys.OBJECT_ID);
         }
+        return ret;
+    }
+
+    /**
+     * Builds add param list and SQL.
+     *
+     * @param jsonObject jsonObject the specified JSON object
+     * @param paramList  paramlist the specified param list
+     * @param sqlBuilder the specified SQL builder
+     * @return id the generated key
+     */
+    private String buildAddSql(final JSONObject jsonObject, final List<Object> paramList, final StringBuilder sqlBuilder) {
+        final String ret = genKey(jsonObject);
 
         final Iterator<String> keys = jsonObject.keys();
         final StringBuilder paraBuilder = new StringBuilder();
@@ -208,11 +337,25 @@ public final class JdbcRepository implements Repository {
             throw new RepositoryException("Invoking update() outside a transaction");
         }
 
+        final JSONObject oldJsonObject = get(id);
+        update(id, oldJsonObject, jsonObject, propertyNames);
+    }
+
+    @Override
+    public void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) throws RepositoryException {
+        if (StringUtils.isBlank(id)) {
+            return;
+        }
+
+        final JdbcTransaction currentTransaction = TX.get();
+        if (null == currentTransaction) {
+            throw new RepositoryException("Invoking update() outside a transaction");
+        }
+
         final Connection connection = getConnection();
         final List<Object> paramList = new ArrayList<>();
         final StringBuilder sqlBuilder = new StringBuilder();
         try {
-            final JSONObject oldJsonObject = get(id);
             buildUpdate(id, oldJsonObject, jsonObject, paramList, sqlBuilder, propertyNames);
             final String sql = sqlBuilder.toString();
             if (StringUtils.isBlank(sql)) {
@@ -220,12 +363,74 @@ public final class JdbcRepository implements Repository {
             }
 
             JdbcUtil.executeSql(sql, paramList, connection, debug);
+            counts.invalidateAll();
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Updates a record [id=" + id + "] failed", e);
             throw new RepositoryException(e);
         }
     }
 
+    @Override
+    public void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) throws RepositoryException {
+        final JdbcTransaction currentTransaction = TX.get();
+        if (null == currentTransaction) {
+            throw new RepositoryException("Invoking updateAll() outside a transaction");
+        }
+
+        if (jsonObjects.isEmpty()) {
+            return;
+        }
+
+        // Groups rows by column set so that each group shares one prepared UPDATE statement
+        final Map<List<String>, List<List<Object>>> batches = new LinkedHashMap<>();
+        for (final JSONObject jsonObject : jsonObjects) {
+            final String id = jsonObject.optString(JdbcRepositories.keyName);
+            if (StringUtils.isBlank(id)) {
+                throw new RepositoryException("Invoking updateAll() with a record without id");
+            }
+
+            final Set<String> columnSet = new TreeSet<>();
+            if (0 < ArrayUtils.getLength(propertyNames)) {
+                columnSet.addAll(Arrays.asList(propertyNames));
+            } else {
+                columnSet.addAll(jsonObject.keySet());
+            }
+            columnSet.remove(JdbcRepositories.keyName);
+            if (columnSet.isEmpty()) {
+                continue;
+            }
+
+            final List<String> columns = new ArrayList<>(columnSet);
+            final List<Object> paramList = new ArrayList<>(columns.size() + 1);
+            for (final String column : columns) {
+                if (!jsonObject.has(column)) {
+                    throw new RepositoryException("Invoking updateAll() with a record [id=" + id + "] without property [" + column + "]");
+                }
+                paramList.add(jsonObject.get(column));
+            }
+            paramList.add(id);
+            batches.computeIfAbsent(columns, k -> new ArrayList<>()).add(paramList);
+        }
+
+        final Connection connection = getConnection();
+        try {
+            for (final Map.Entry<List<String>, List<List<Object>>> batch : batches.entrySet()) {
+                final List<String> columns = batch.getKey();
+                final StringBuilder sqlBuilder = new StringBuilder("UPDATE ").append("`").append(getName()).append("`");
+                for (int i = 0; i < columns.size(); i++) {
+                    sqlBuilder.append(0 == i ? " SET `" : ", `").append(columns.get(i)).append("` = ?");
+                }
+                sqlBuilder.append(" WHERE ").append(JdbcRepositories.keyName).append(" = ?");
+
+                JdbcUtil.executeBatch(sqlBuilder.toString(), batch.getValue(), connection, debug);
+                counts.invalidateAll();
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Updates records failed", e);
+            throw new RepositoryException(e);
+        }
+    }
+
     /**
      * Builds update param list and SQL.
      *
@@ -266,7 +471,7 @@ public final class JdbcRepository implements Repository {
     /**
      * Compares the specified old json object and the new json object, returns diff object for updating.
      *
-     * @param oldJsonObject the specified old json object
+     * @param oldJsonObject the specified old json object, the whole new json object is returned if it is {@code null}
      * @param jsonObject    the specified new json object
      * @param propertyNames the specified property names
      * @return diff object for updating
@@ -276,7 +481,6 @@ public final class JdbcRepository implements Repository {
             return jsonObject;
         }
 
-        final JSONObject ret = new JSONObject();
         final Set<String> keys = new HashSet<>();
         if (0 < ArrayUtils.getLength(propertyNames)) {
             keys.addAll(Arrays.asList(propertyNames));
@@ -284,12 +488,10 @@ public final class JdbcRepository implements Repository {
             keys.addAll(jsonObject.keySet());
         }
 
+        final JSONObject ret = new JSONObject();
         for (final String key : keys) {
-            final Object oldVal = oldJsonObject.get(key);
             final Object val = jsonObject.get(key);
-            if (null == val && null == oldVal) {
-                ret.put(key, val);
-            } else if (!jsonObject.optString(key).equals(oldJsonObject.optString(key))) {
+            if (!same(oldJsonObject.opt(key), val)) {
                 ret.put(key, val);
             }
         }
@@ -297,6 +499,63 @@ public final class JdbcRepository implements Repository {
         return ret;
     }
 
+    /**
+     * Checks whether the specified old value and the new value are the same.
+     *
+     * @param oldVal the specified old value
+     * @param val    the specified new value
+     * @return {@code true} if they are the same, returns {@code false} otherwise
+     */
+    private static boolean same(final Object oldVal, final Object val) {
+        if (null == oldVal || null == val) {
+            return false;
+        }
+
+        if (val instanceof JSONObject || val instanceof JSONArray) {
+            // A shared nested object may have been changed in place, can't tell
+            if (oldVal == val) {
+                return false;
+            }
+            if (val instanceof JSONObject) {
+                return oldVal instanceof JSONObject && ((JSONObject) val).similar(oldVal);
+            }
+            return oldVal instanceof JSONArray && ((JSONArray) val).similar(oldVal);
+        }
+
+        if (val instanceof Number && oldVal instanceof Number) {
+            final BigDecimal decimal = toDecimal((Number) val);
+            final BigDecimal oldDecimal = toDecimal((Number) oldVal);
+            if (null != decimal && null != oldDecimal) {
+                return 0 == decimal.compareTo(oldDecimal); // e.g. Integer vs Long read from database, 1.0 vs 1.00
+            }
+        }
+
+        if (val.getClass() == oldVal.getClass()) {
+            return val.equals(oldVal);
+        }
+        return val.toString().equals(oldVal.toString());
+    }
+
+    /**
+     * Converts the specified number to a decimal.
+     *
+     * @param number the specified number
+     * @return decimal, returns {@code null} if the specified number is not finite
+     */
+    private static BigDecimal toDecimal(final Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            final double value = number.doubleValue();
+            return Double.isFinite(value) ? new BigDecimal(number.toString()) : null;
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
     @Override
     public void remove(final String id) throws RepositoryException {
         if (StringUtils.isBlank(id)) {
@@ -321,6 +580,7 @@ public final class JdbcRepository implements Repository {
                         append(JdbcRepositories.keyName).append(" = ?");
             }
             JdbcUtil.executeSql(sqlBuilder.toString(), paramList, connection, debug);
+            counts.invalidateAll();
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Removes a record [id=" + id + "] failed", e);
 
@@ -335,17 +595,14 @@ public final class JdbcRepository implements Repository {
             throw new RepositoryException("Invoking remove() outside a transaction");
         }
 
-        final StringBuilder deleteSQLBuilder = new StringBuilder("DELETE FROM ").append("`").append(getName()).append("`");
+        final CompiledSql compiledSql = compile(getName(), query);
         final List<Object> paramList = new ArrayList<>();
-        final StringBuilder filterSqlBuilder = new StringBuilder();
-        buildWhere(filterSqlBuilder, paramList, query.getFilter());
-        if (StringUtils.isNotBlank(filterSqlBuilder.toString())) {
-            deleteSQLBuilder.append(" WHERE ").append(filterSqlBuilder);
-        }
+        CompiledSql.bind(query.getFilter(), paramList);
 
         final Connection connection = getConnection();
         try {
-            JdbcUtil.executeSql(deleteSQLBuilder.toString(), paramList, connection, debug);
+            JdbcUtil.executeSql(compiledSql.getDeleteSql(), paramList, connection, debug);
+            counts.invalidateAll();
         } catch (final SQLException e) {
             LOGGER.log(Level.ERROR, "Remove failed", e);
             throw new RepositoryException(e);
@@ -368,6 +625,8 @@ public final class JdbcRepository implements Repository {
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Gets a record [id=" + id + "] failed", e);
             throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
         return ret;
     }
@@ -375,12 +634,44 @@ public final class JdbcRepository implements Repository {
     @Override
     public Map<String, JSONObject> get(final Iterable<String> ids) throws RepositoryException {
         final Map<String, JSONObject> ret = new HashMap<>();
+        final Set<String> idSet = new LinkedHashSet<>();
         for (final String id : ids) {
-            final JSONObject jsonObject = get(id);
-            if (null == jsonObject) {
-                continue;
+            if (StringUtils.isNotBlank(id)) {
+                idSet.add(id);
             }
-            ret.put(jsonObject.optString(JdbcRepositories.keyName), jsonObject);
+        }
+        if (idSet.isEmpty()) {
+            return ret;
+        }
+
+        final List<String> idList = new ArrayList<>(idSet);
+        final Connection connection = getConnection();
+        try {
+            for (int i = 0; i < idList.size(); i += MULTI_GET_BATCH_SIZE) {
+                final List<Object> paramList = new ArrayList<>(idList.subList(i, Math.min(i + MULTI_GET_BATCH_SIZE, idList.size())));
+                final StringBuilder sqlBuilder = new StringBuilder("SELECT * FROM ").append("`").append(getName()).append("`").
+                        append(" WHERE ").append(JdbcRepositories.keyName).append(" IN (");
+                for (int j = 0; j < paramList.size(); j++) {
+                    if (0 < j) {
+                        sqlBuilder.append(",");
+                    }
+                    sqlBuilder.append("?");
+                }
+                sqlBuilder.append(")");
+                if (Repositories.isSoftDelete()) {
+                    sqlBuilder.append(" AND `").append(JdbcRepositories.softDeleteFieldName).append("` = 0");
+                }
+
+                final List<JSONObject> list = JdbcUtil.queryListJson(sqlBuilder.toString(), paramList, connection, getName(), debug);
+                for (final JSONObject jsonObject : list) {
+                    ret.put(jsonObject.optString(JdbcRepositories.keyName), jsonObject);
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Gets records [ids=" + idList + "] failed", e);
+            throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
         return ret;
     }
@@ -405,8 +696,8 @@ public final class JdbcRepository implements Repository {
         }
 
         final StringBuilder sqlBuilder = new StringBuilder();
-        final Connection connection = getConnection();
         final List<Object> paramList = new ArrayList<>();
+        Connection connection = null;
         try {
             final Map<String, Object> paginationCnt = buildSQLCount(currentPageNum, pageSize, pageCount, query, sqlBuilder, paramList);
             final JSONObject pagination = new JSONObject();
@@ -419,11 +710,17 @@ public final class JdbcRepository implements Repository {
                 return ret;
             }
 
+            // Gets the connection after counting, a read-only query holds at most one connection at a time
+            connection = getConnection(query.isReadOnly());
             final List<JSONObject> list = JdbcUtil.queryListJson(sqlBuilder.toString(), paramList, connection, getName(), query.isDebug());
             ret.put(Keys.RESULTS, (Object) list);
+        } catch (final IllegalArgumentException e) {
+            throw e;
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Query failed", e);
             throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
         return ret;
     }
@@ -442,6 +739,8 @@ public final class JdbcRepository implements Repository {
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Select failed", e);
             throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
     }
 
@@ -452,7 +751,8 @@ public final class JdbcRepository implements Repository {
      * @param pageSize       pageSize
      * @param pageCount      if the pageCount specified with {@code -1}, the returned (pageCnt, recordCnt) value will be
      *                       calculated, otherwise, the returned pageCnt will be this pageCount, and recordCnt will be {@code 0}, means these
-     *                       values will not be calculated
+     *                       values will not be calculated. The values are not calculated for a seek (keyset) pagination
+     *                       query either, the returned pageCnt will be {@code -1} if the pageCount is {@code -1}
      * @param query          query
      * @param sqlBuilder     the specified SQL builder
      * @param paramList      paramList
@@ -464,20 +764,12 @@ public final class JdbcRepository implements Repository {
         final Map<String, Object> ret = new HashMap<>();
         int pageCnt = pageCount;
         int recordCnt = 0;
-        final StringBuilder selectBuilder = new StringBuilder();
-        final StringBuilder whereBuilder = new StringBuilder();
-        final StringBuilder orderByBuilder = new StringBuilder();
+        final String tableName = getName();
+        final CompiledSql compiledSql = compile(tableName, query);
+        CompiledSql.bind(query.getFilter(), paramList);
 
-        buildSelect(selectBuilder, query.getProjections());
-        buildWhere(whereBuilder, paramList, query.getFilter());
-        buildOrderBy(orderByBuilder, query.getSorts());
-
-        if (-1 == pageCount) {
-            final StringBuilder countBuilder = new StringBuilder("SELECT COUNT(" + JdbcRepositories.keyName + ") FROM ").append("`").append(getName()).append("`");
-            if (StringUtils.isNotBlank(whereBuilder.toString())) {
-                countBuilder.append(" WHERE ").append(whereBuilder);
-            }
-            recordCnt = (int) count(countBuilder, paramList);
+        if (-1 == pageCount && null == query.getSeekId()) {
+            recordCnt = (int) count(compiledSql.getCountSql(), paramList, query.getCountCacheSeconds(), query.isReadOnly());
             if (0 == recordCnt) {
                 ret.put(Pagination.PAGINATION_PAGE_COUNT, 0);
                 ret.put(Pagination.PAGINATION_RECORD_COUNT, 0);
@@ -491,13 +783,77 @@ public final class JdbcRepository implements Repository {
         ret.put(Pagination.PAGINATION_PAGE_COUNT, pageCnt);
         ret.put(Pagination.PAGINATION_RECORD_COUNT, recordCnt);
 
-        // 用 long 计算偏移量以避免 (currentPageNum - 1) * pageSize 的 int 溢出（负值会导致 MySQL "LIMIT -xxx" 语法错误）
-        final long startL = (long) (currentPageNum - 1) * pageSize;
-        final long endL = startL + pageSize;
-        // 钳制为非负，越界页码回退到第 0 偏移（返回空结果），绝不产生负 LIMIT
-        final int start = startL < 0 ? 0 : (int) Math.min(startL, Integer.MAX_VALUE);
-        final int end = endL < 0 ? start + pageSize : (int) Math.min(endL, Integer.MAX_VALUE);
-        sqlBuilder.append(JdbcFactory.getInstance().queryPage(start, end, selectBuilder.toString(), whereBuilder.toString(), orderByBuilder.toString(), getName()));
+        final int start;
+        final int end;
+        if (null != query.getSeekId()) { // Seek (keyset) pagination always fetches from the first row after the seek predicate
+            compiledSql.bindSeek(query, paramList);
+            start = 0;
+            end = pageSize;
+        } else {
+            // 用 long 计算偏移量以避免 (currentPageNum - 1) * pageSize 的 int 溢出（负值会导致 MySQL "LIMIT -xxx" 语法错误）
+            final long startL = (long) (currentPageNum - 1) * pageSize;
+            final long endL = startL + pageSize;
+            // 钳制为非负，越界页码回退到第 0 偏移（返回空结果），绝不产生负 LIMIT
+            start = startL < 0 ? 0 : (int) Math.min(startL, Integer.MAX_VALUE);
+            end = endL < 0 ? start + pageSize : (int) Math.min(endL, Integer.MAX_VALUE);
+        }
+        sqlBuilder.append(compiledSql.getPageSql(database, start, end));
+        return ret;
+    }
+
+    /**
+     * Gets the compiled SQL of the specified query, compiles and caches it if not compiled yet.
+     *
+     * @param tableName the specified table name
+     * @param query     the specified query
+     * @return compiled SQL
+     * @throws RepositoryException RepositoryException
+     */
+    private CompiledSql compile(final String tableName, final Query query) throws RepositoryException {
+        final CompiledSql.Shape shape = CompiledSql.shape(tableName, query);
+        CompiledSql ret = compiledSqls.getIfPresent(shape);
+        if (null != ret) {
+            return ret;
+        }
+
+        final StringBuilder selectBuilder = new StringBuilder();
+        final StringBuilder whereBuilder = new StringBuilder();
+        final StringBuilder orderByBuilder = new StringBuilder();
+        buildSelect(selectBuilder, query.getProjections());
+        buildWhere(whereBuilder, new ArrayList<>(), query.getFilter());
+        if (null == query.getSeekId()) {
+            buildOrderBy(orderByBuilder, query.getSorts());
+            ret = new CompiledSql(tableName, selectBuilder.toString(), whereBuilder.toString(), orderByBuilder.toString(), null, false);
+        } else {
+            final Map<String, SortDirection> sorts = query.getSorts();
+            if (1 < sorts.size()) {
+                throw new RepositoryException("Seek pagination supports at most one sort property");
+            }
+
+            String sortKey = null;
+            boolean ascending = false;
+            if (!sorts.isEmpty()) {
+                final Map.Entry<String, SortDirection> sort = sorts.entrySet().iterator().next();
+                ascending = SortDirection.ASCENDING == sort.getValue();
+                if (!JdbcRepositories.keyName.equals(sort.getKey())) {
+                    sortKey = sort.getKey();
+                }
+            }
+
+            // Orders by the key in the same direction as a tie-breaker, so that the seek position is unique
+            final Map<String, SortDirection> seekSorts = new LinkedHashMap<>();
+            final SortDirection direction = ascending ? SortDirection.ASCENDING : SortDirection.DESCENDING;
+            if (null != sortKey) {
+                seekSorts.put(sortKey, direction);
+            }
+            seekSorts.put(JdbcRepositories.keyName, direction);
+            buildOrderBy(orderByBuilder, seekSorts);
+
+            final String seekSql = database.seekSql(sortKey, ascending);
+            ret = new CompiledSql(tableName, selectBuilder.toString(), whereBuilder.toString(), orderByBuilder.toString(), seekSql, null != sortKey);
+        }
+
+        compiledSqls.put(shape, ret);
         return ret;
     }
 
@@ -579,31 +935,55 @@ public final class JdbcRepository implements Repository {
     public List<JSONObject> getRandomly(final int fetchSize) throws RepositoryException {
         final Connection connection = getConnection();
         final StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append(JdbcFactory.getInstance().getRandomlySql(getName(), fetchSize));
+        sqlBuilder.append(database.getRandomlySql(getName(), fetchSize));
         try {
             return JdbcUtil.queryListJson(sqlBuilder.toString(), new ArrayList<>(), connection, getName(), debug);
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Get list randomly failed", e);
             throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
     }
 
     @Override
     public long count() throws RepositoryException {
-        final StringBuilder sqlBuilder = new StringBuilder("SELECT COUNT(" + JdbcRepositories.keyName + ") FROM ").append("`").append(getName()).append("`");
-        return count(sqlBuilder, new ArrayList<>());
+        return count("SELECT COUNT(" + JdbcRepositories.keyName + ") FROM `" + getName() + "`", new ArrayList<>(), false);
     }
 
     @Override
     public long count(final Query query) throws RepositoryException {
-        final StringBuilder countSqlBuilder = new StringBuilder("SELECT COUNT(" + JdbcRepositories.keyName + ") FROM ").append("`").append(getName()).append("`");
+        final CompiledSql compiledSql = compile(getName(), query);
         final List<Object> paramList = new ArrayList<>();
-        final StringBuilder filterSqlBuilder = new StringBuilder();
-        buildWhere(filterSqlBuilder, paramList, query.getFilter());
-        if (StringUtils.isNotBlank(filterSqlBuilder.toString())) {
-            countSqlBuilder.append(" WHERE ").append(filterSqlBuilder);
+        CompiledSql.bind(query.getFilter(), paramList);
+        return (int) count(compiledSql.getCountSql(), paramList, query.isReadOnly());
+    }
+
+    /**
+     * Count with the specified cache seconds.
+     *
+     * @param sql          sql
+     * @param paramList    paramList
+     * @param cacheSeconds the specified seconds to cache the count, {@code 0} for no caching
+     * @param readOnly     whether to count in read-only mode
+     * @return count
+     * @throws RepositoryException RepositoryException
+     */
+    private long count(final String sql, final List<Object> paramList, final int cacheSeconds, final boolean readOnly) throws RepositoryException {
+        if (0 >= cacheSeconds) {
+            return count(sql, paramList, readOnly);
         }
-        return (int) count(countSqlBuilder, paramList);
+
+        final String key = sql + paramList;
+        final long now = System.currentTimeMillis();
+        final long[] cached = counts.getIfPresent(key);
+        if (null != cached && now < cached[1]) {
+            return cached[0];
+        }
+
+        final long ret = count(sql, paramList, readOnly);
+        counts.put(key, new long[]{ret, now + cacheSeconds * 1000L});
+        return ret;
     }
 
     /**
@@ -611,19 +991,22 @@ public final class JdbcRepository implements Repository {
      *
      * @param sql       sql
      * @param paramList paramList
+     * @param readOnly  whether to count in read-only mode
      * @return count
      * @throws RepositoryException RepositoryException
      */
-    private long count(final StringBuilder sql, final List<Object> paramList) throws RepositoryException {
-        final Connection connection = getConnection();
+    private long count(final String sql, final List<Object> paramList, final boolean readOnly) throws RepositoryException {
+        final Connection connection = getConnection(readOnly);
         JSONObject jsonObject;
         long count;
         try {
-            jsonObject = JdbcUtil.queryJsonObject(sql.toString(), paramList, connection, getName(), debug);
+            jsonObject = JdbcUtil.queryJsonObject(sql, paramList, connection, getName(), debug);
             count = jsonObject.getLong(jsonObject.keys().next());
         } catch (final Exception e) {
             LOGGER.log(Level.ERROR, "Count failed", e);
             throw new RepositoryException(e);
+        } finally {
+            release(connection);
         }
         return count;
     }
@@ -636,9 +1019,7 @@ public final class JdbcRepository implements Repository {
      */
     @Override
     public String getName() {
-        final String tableNamePrefix = StringUtils.isNotBlank(Latkes.getLocalProperty("jdbc.tablePrefix"))
-                ? Latkes.getLocalProperty("jdbc.tablePrefix") + "_" : "";
-        return tableNamePrefix + name;
+        return tableName;
     }
 
     @Override
@@ -684,13 +1065,36 @@ public final class JdbcRepository implements Repository {
      * getConnection. default using current JdbcTransaction's connection, if null get a new one.
      *
      * @return {@link Connection}
+     * @throws RepositoryException repository exception
+     */
+    private Connection getConnection() throws RepositoryException {
+        return getConnection(false);
+    }
+
+    /**
+     * Gets a connection. Uses the current transaction's connection if there is one, otherwise gets a read-only
+     * connection for the specified read-only flag or in a {@link #READ_ONLY read-only scope}, otherwise uses the
+     * connection of the current thread.
+     *
+     * @param readOnly the specified read-only flag
+     * @return {@link Connection}
+     * @throws RepositoryException if gets a read-only connection failed
      */
-    private Connection getConnection() {
+    Connection getConnection(final boolean readOnly) throws RepositoryException {
         final JdbcTransaction jdbcTransaction = TX.get();
         if (null != jdbcTransaction && jdbcTransaction.isActive()) {
             return jdbcTransaction.getConnection();
         }
 
+        if (readOnly || Boolean.TRUE.equals(READ_ONLY.get())) {
+            try {
+                return Connections.getReadOnlyConnection();
+            } catch (final SQLException e) {
+                LOGGER.log(Level.ERROR, "Gets a read-only connection failed", e);
+                throw new RepositoryException(e);
+            }
+        }
+
         Connection ret = CONN.get();
         try {
             if (null != ret && !ret.isClosed()) {
@@ -705,6 +1109,28 @@ public final class JdbcRepository implements Repository {
         return ret;
     }
 
+    /**
+     * Releases the specified connection if it's a read-only connection, connections of the current transaction or the
+     * current thread are kept.
+     *
+     * @param connection the specified connection
+     */
+    static void release(final Connection connection) {
+        if (null == connection || connection == CONN.get()) {
+            return;
+        }
+        final JdbcTransaction jdbcTransaction = TX.get();
+        if (null != jdbcTransaction && connection == jdbcTransaction.getConnection()) {
+            return;
+        }
+
+        try {
+            connection.close();
+        } catch (final SQLException e) {
+            LOGGER.log(Level.ERROR, "Releases a connection failed", e);
+        }
+    }
+
     /**
      * Processes property filter.
      *
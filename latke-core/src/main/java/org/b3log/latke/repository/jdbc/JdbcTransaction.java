@@ -19,13 +19,15 @@ import org.b3log.latke.repository.jdbc.util.Connections;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * JdbcTransaction.
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.0, May 10, 2020
+ * @version 1.2.1.0, Oct 17, 2026
  */
 public final class JdbcTransaction implements Transaction {
 
@@ -44,14 +46,18 @@ public final class JdbcTransaction implements Transaction {
      */
     private boolean isActive;
 
+    /**
+     * Callbacks invoked after this transaction completed.
+     */
+    private final List<Runnable> completionCallbacks = new ArrayList<>();
+
     /**
      * Public constructor.
      *
      * @throws SQLException SQLException
      */
     public JdbcTransaction() throws SQLException {
-        connection = Connections.getConnection();
-        connection.setAutoCommit(false);
+        connection = Connections.getConnection(); // Auto-commit is disabled by the pool
         isActive = true;
     }
 
@@ -77,6 +83,11 @@ public final class JdbcTransaction implements Transaction {
         }
     }
 
+    @Override
+    public void afterCompletion(final Runnable callback) {
+        completionCallbacks.add(callback);
+    }
+
     @Override
     public boolean isActive() {
         return isActive;
@@ -94,6 +105,14 @@ public final class JdbcTransaction implements Transaction {
             isActive = false;
             connection = null;
             JdbcRepository.TX.remove();
+            for (final Runnable callback : completionCallbacks) {
+                try {
+                    callback.run();
+                } catch (final Exception e) {
+                    LOGGER.log(Level.ERROR, "Invokes completion callback of transaction [" + getId() + "] failed", e);
+                }
+            }
+            completionCallbacks.clear();
         }
     }
 
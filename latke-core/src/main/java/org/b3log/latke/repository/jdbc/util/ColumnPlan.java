@@ -0,0 +1,225 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.repository.RepositoryException;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column plan of a result set shape, maps column index to the JSON property name and the getter kind.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+final class ColumnPlan {
+
+    /**
+     * Getter kind: {@link java.sql.ResultSet#getObject(int)}, no field definition (for example COUNT(OID)).
+     */
+    static final int KIND_RAW = 0;
+
+    /**
+     * Getter kind: {@link java.sql.ResultSet#getBoolean(int)}.
+     */
+    static final int KIND_BOOLEAN = 1;
+
+    /**
+     * Getter kind: {@link java.sql.ResultSet#getObject(int)}, with Clob converting.
+     */
+    static final int KIND_OBJECT = 2;
+
+    /**
+     * Maximum count of cached plans.
+     */
+    private static final int MAX_PLAN_CNT = 1024;
+
+    /**
+     * Cached plans, &lt;shape, plan&gt;, the least recently used plans are evicted.
+     */
+    private static final Cache<Shape, ColumnPlan> PLANS = CacheBuilder.newBuilder().maximumSize(MAX_PLAN_CNT).build();
+
+    /**
+     * JSON property names, indexed by column index - 1.
+     */
+    private final String[] names;
+
+    /**
+     * Getter kinds, indexed by column index - 1.
+     */
+    private final int[] kinds;
+
+    /**
+     * Constructs a column plan with the specified names and kinds.
+     *
+     * @param names the specified names
+     * @param kinds the specified kinds
+     */
+    private ColumnPlan(final String[] names, final int[] kinds) {
+        this.names = names;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Gets the column plan of the specified result set meta data and table name, builds and caches it if not built yet.
+     *
+     * @param resultSetMetaData the specified result set meta data
+     * @param tableName         the specified table name
+     * @return column plan
+     * @throws SQLException        SQLException
+     * @throws RepositoryException if the table is not defined
+     */
+    static ColumnPlan get(final ResultSetMetaData resultSetMetaData, final String tableName) throws SQLException, RepositoryException {
+        return get(resultSetMetaData, tableName, Latkes.RuntimeDatabase.H2 == Latkes.getRuntimeDatabase());
+    }
+
+    /**
+     * Gets the column plan of the specified result set meta data and table name, builds and caches it if not built yet.
+     *
+     * @param resultSetMetaData the specified result set meta data
+     * @param tableName         the specified table name
+     * @param h2                whether the column labels are upper-cased by H2
+     * @return column plan
+     * @throws SQLException        SQLException
+     * @throws RepositoryException if the table is not defined
+     */
+    static ColumnPlan get(final ResultSetMetaData resultSetMetaData, final String tableName, final boolean h2) throws SQLException, RepositoryException {
+        final int numColumns = resultSetMetaData.getColumnCount();
+        final String[] labels = new String[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            labels[i] = resultSetMetaData.getColumnLabel(i + 1);
+        }
+        final Shape shape = new Shape(tableName, h2, labels);
+
+        ColumnPlan ret = PLANS.getIfPresent(shape);
+        if (null != ret) {
+            return ret;
+        }
+
+        final List<FieldDefinition> definitionList = JdbcRepositories.getKeys(tableName);
+        if (null == definitionList) {
+            throw new RepositoryException("Null definition list for table [" + tableName + "]");
+        }
+
+        final Map<String, FieldDefinition> dMap = new HashMap<>();
+        for (final FieldDefinition fieldDefinition : definitionList) {
+            dMap.put(h2 ? fieldDefinition.getName().toUpperCase() : fieldDefinition.getName(), fieldDefinition);
+        }
+
+        final String[] names = new String[numColumns];
+        final int[] kinds = new int[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            final FieldDefinition definition = dMap.get(labels[i]);
+            if (null == definition) {
+                names[i] = labels[i];
+                kinds[i] = KIND_RAW;
+            } else {
+                names[i] = definition.getName();
+                kinds[i] = "boolean".equals(definition.getType()) ? KIND_BOOLEAN : KIND_OBJECT;
+            }
+        }
+
+        ret = new ColumnPlan(names, kinds);
+        PLANS.put(shape, ret);
+        return ret;
+    }
+
+    /**
+     * Gets the JSON property names.
+     *
+     * @return JSON property names, indexed by column index - 1
+     */
+    String[] getNames() {
+        return names;
+    }
+
+    /**
+     * Gets the getter kinds.
+     *
+     * @return getter kinds, indexed by column index - 1
+     */
+    int[] getKinds() {
+        return kinds;
+    }
+
+    /**
+     * Clears all cached plans, should be called if repository definitions changed.
+     */
+    static void clear() {
+        PLANS.invalidateAll();
+    }
+
+    /**
+     * Shape of a result set, the table name and the column labels of the result set meta data.
+     */
+    private static final class Shape {
+
+        /**
+         * Table name.
+         */
+        private final String tableName;
+
+        /**
+         * Whether the column labels are upper-cased by H2.
+         */
+        private final boolean h2;
+
+        /**
+         * Column labels, indexed by column index - 1.
+         */
+        private final String[] labels;
+
+        /**
+         * Hash code.
+         */
+        private final int hash;
+
+        /**
+         * Constructs a shape with the specified table name, H2 flag and column labels.
+         *
+         * @param tableName the specified table name
+         * @param h2        the specified H2 flag
+         * @param labels    the specified column labels
+         */
+        private Shape(final String tableName, final boolean h2, final String[] labels) {
+            this.tableName = tableName;
+            this.h2 = h2;
+            this.labels = labels;
+            hash = 31 * (31 * tableName.hashCode() + Boolean.hashCode(h2)) + Arrays.hashCode(labels);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Shape)) {
+                return false;
+            }
+            final Shape that = (Shape) o;
+            return hash == that.hash && h2 == that.h2 && tableName.equals(that.tableName) && Arrays.equals(labels, that.labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
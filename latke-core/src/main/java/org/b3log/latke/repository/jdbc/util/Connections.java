@@ -30,11 +30,17 @@ import java.util.Properties;
  * <p>
  * Uses <a href="https://github.com/brettwooldridge/HikariCP">HikariCP</a> as the underlying connection pool.
  * </p>
+ * <p>
+ * Auto-commit and transaction isolation of the primary pool are configured on the pool, so connections aren't reset
+ * on every checkout. A {@code transactionIsolation} set in {@code hikari.properties} takes precedence over
+ * {@code jdbc.transactionIsolation}. Read-only connections come from the read replica pool if {@code jdbc.replica.URL} is configured,
+ * otherwise from the primary pool in auto-commit mode.
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="https://ld246.com/member/DASHU">DASHU</a>
- * @version 2.1.0.1, Jun 20, 2020
+ * @version 2.2.1.0, Oct 17, 2026
  */
 public final class Connections {
 
@@ -49,9 +55,9 @@ public final class Connections {
     private static HikariDataSource hikari;
 
     /**
-     * Transaction isolation integer value.
+     * Read replica connection pool - HikariCP, {@code null} if no replica configured.
      */
-    private static int transactionIsolationInt;
+    private static HikariDataSource replica;
 
     /**
      * JDBC URL.
@@ -80,24 +86,7 @@ public final class Connections {
                 final int minConnCnt = Integer.valueOf(Latkes.getLocalProperty("jdbc.minConnCnt"));
                 final int maxConnCnt = Integer.valueOf(Latkes.getLocalProperty("jdbc.maxConnCnt"));
 
-                final String transactionIsolation = Latkes.getLocalProperty("jdbc.transactionIsolation");
-                if (StringUtils.isBlank(transactionIsolation)) {
-                    transactionIsolationInt = Connection.TRANSACTION_READ_COMMITTED;
-                } else {
-                    if ("NONE".equals(transactionIsolation)) {
-                        transactionIsolationInt = Connection.TRANSACTION_NONE;
-                    } else if ("READ_COMMITTED".equals(transactionIsolation)) {
-                        transactionIsolationInt = Connection.TRANSACTION_READ_COMMITTED;
-                    } else if ("READ_UNCOMMITTED".equals(transactionIsolation)) {
-                        transactionIsolationInt = Connection.TRANSACTION_READ_UNCOMMITTED;
-                    } else if ("REPEATABLE_READ".equals(transactionIsolation)) {
-                        transactionIsolationInt = Connection.TRANSACTION_REPEATABLE_READ;
-                    } else if ("SERIALIZABLE".equals(transactionIsolation)) {
-                        transactionIsolationInt = Connection.TRANSACTION_SERIALIZABLE;
-                    } else {
-                        throw new IllegalStateException("Undefined transaction isolation [" + transactionIsolation + ']');
-                    }
-                }
+                final String transactionIsolation = getTransactionIsolation();
 
                 LOGGER.log(Level.DEBUG, "Initialing database connection pool [hikari]");
                 final Properties props = new Properties();
@@ -105,34 +94,29 @@ public final class Connections {
                 if (null != is) {
                     props.load(is);
                     final HikariConfig hikariConfig = new HikariConfig(props);
+                    hikariConfig.setAutoCommit(false);
+                    if (null == hikariConfig.getTransactionIsolation()) {
+                        hikariConfig.setTransactionIsolation(transactionIsolation);
+                    }
                     hikari = new HikariDataSource(hikariConfig);
                     LOGGER.log(Level.INFO, "Created datasource with hikari.properties");
                 } else {
-                    hikari = new HikariDataSource();
-                    hikari.setConnectionTestQuery("SELECT 1");
-
-                    if (Latkes.RuntimeDatabase.MYSQL == Latkes.getRuntimeDatabase()) {
-                        // 内置 HikariCP 对 MySQL 的优化配置 https://github.com/b3log/latke/issues/159
-                        hikari.addDataSourceProperty("dataSource.cachePrepStmts", true);
-                        hikari.addDataSourceProperty("dataSource.prepStmtCacheSize", 256);
-                        hikari.addDataSourceProperty("dataSource.prepStmtCacheSqlLimit", 2048);
-                        hikari.addDataSourceProperty("dataSource.useServerPrepStmts", true);
-                        hikari.addDataSourceProperty("dataSource.useLocalSessionState", true);
-                        hikari.addDataSourceProperty("dataSource.rewriteBatchedStatements", true);
-                        hikari.addDataSourceProperty("dataSource.cacheResultSetMetadata", true);
-                        hikari.addDataSourceProperty("dataSource.cacheServerConfiguration", true);
-                        hikari.addDataSourceProperty("dataSource.elideSetAutoCommits", true);
-                        hikari.addDataSourceProperty("dataSource.maintainTimeStats", false);
-                    }
-                    hikari.setValidationTimeout(2000);
-                    hikari.setConnectionTimeout(2000);
-                    hikari.setLeakDetectionThreshold(300000);
-                    hikari.setUsername(userName);
-                    hikari.setPassword(password);
-                    hikari.setJdbcUrl(url);
-                    hikari.setDriverClassName(driver);
-                    hikari.setMinimumIdle(minConnCnt);
-                    hikari.setMaximumPoolSize(maxConnCnt);
+                    hikari = newDataSource(driver, url, userName, password, minConnCnt, maxConnCnt);
+                    hikari.setAutoCommit(false);
+                    hikari.setTransactionIsolation(transactionIsolation);
+                }
+
+                final String replicaURL = Latkes.getLocalProperty("jdbc.replica.URL");
+                if (StringUtils.isNotBlank(replicaURL)) {
+                    replica = newDataSource(driver, replicaURL,
+                            StringUtils.defaultIfBlank(Latkes.getLocalProperty("jdbc.replica.username"), userName),
+                            StringUtils.defaultIfBlank(Latkes.getLocalProperty("jdbc.replica.password"), password),
+                            Integer.valueOf(StringUtils.defaultIfBlank(Latkes.getLocalProperty("jdbc.replica.minConnCnt"), String.valueOf(minConnCnt))),
+                            Integer.valueOf(StringUtils.defaultIfBlank(Latkes.getLocalProperty("jdbc.replica.maxConnCnt"), String.valueOf(maxConnCnt))));
+                    replica.setAutoCommit(true);
+                    replica.setReadOnly(true);
+                    replica.setPoolName("latke-replica");
+                    LOGGER.log(Level.INFO, "Created read replica datasource [{}]", replicaURL);
                 }
 
                 LOGGER.info("Initialized database connection pool [hikari]");
@@ -142,6 +126,71 @@ public final class Connections {
         }
     }
 
+    /**
+     * Gets the transaction isolation name configured by {@code jdbc.transactionIsolation}.
+     *
+     * @return transaction isolation name, for example {@code TRANSACTION_READ_COMMITTED}
+     */
+    private static String getTransactionIsolation() {
+        final String transactionIsolation = Latkes.getLocalProperty("jdbc.transactionIsolation");
+        if (StringUtils.isBlank(transactionIsolation)) {
+            return "TRANSACTION_READ_COMMITTED";
+        }
+
+        switch (transactionIsolation) {
+            case "NONE":
+            case "READ_COMMITTED":
+            case "READ_UNCOMMITTED":
+            case "REPEATABLE_READ":
+            case "SERIALIZABLE":
+                return "TRANSACTION_" + transactionIsolation;
+            default:
+                throw new IllegalStateException("Undefined transaction isolation [" + transactionIsolation + ']');
+        }
+    }
+
+    /**
+     * Creates a datasource with the specified arguments.
+     *
+     * @param driver     the specified JDBC driver class name
+     * @param url        the specified JDBC URL
+     * @param userName   the specified user name
+     * @param password   the specified password
+     * @param minConnCnt the specified minimum idle connection count
+     * @param maxConnCnt the specified maximum connection count
+     * @return datasource
+     */
+    private static HikariDataSource newDataSource(final String driver, final String url, final String userName, final String password,
+                                                  final int minConnCnt, final int maxConnCnt) {
+        final HikariDataSource ret = new HikariDataSource();
+        ret.setConnectionTestQuery("SELECT 1");
+
+        if (Latkes.RuntimeDatabase.MYSQL == Latkes.getRuntimeDatabase()) {
+            // 内置 HikariCP 对 MySQL 的优化配置 https://github.com/b3log/latke/issues/159
+            ret.addDataSourceProperty("dataSource.cachePrepStmts", true);
+            ret.addDataSourceProperty("dataSource.prepStmtCacheSize", 256);
+            ret.addDataSourceProperty("dataSource.prepStmtCacheSqlLimit", 2048);
+            ret.addDataSourceProperty("dataSource.useServerPrepStmts", true);
+            ret.addDataSourceProperty("dataSource.useLocalSessionState", true);
+            ret.addDataSourceProperty("dataSource.rewriteBatchedStatements", true);
+            ret.addDataSourceProperty("dataSource.cacheResultSetMetadata", true);
+            ret.addDataSourceProperty("dataSource.cacheServerConfiguration", true);
+            ret.addDataSourceProperty("dataSource.elideSetAutoCommits", true);
+            ret.addDataSourceProperty("dataSource.maintainTimeStats", false);
+        }
+        ret.setValidationTimeout(2000);
+        ret.setConnectionTimeout(2000);
+        ret.setLeakDetectionThreshold(300000);
+        ret.setUsername(userName);
+        ret.setPassword(password);
+        ret.setJdbcUrl(url);
+        ret.setDriverClassName(driver);
+        ret.setMinimumIdle(minConnCnt);
+        ret.setMaximumPoolSize(maxConnCnt);
+
+        return ret;
+    }
+
     /**
      * Gets the total connection count.
      *
@@ -193,9 +242,32 @@ public final class Connections {
             return null;
         }
 
+        return hikari.getConnection();
+    }
+
+    /**
+     * Gets a read-only connection in auto-commit mode. The connection comes from the read replica pool if configured,
+     * otherwise from the primary pool. Callers should close it right after the statement.
+     *
+     * @return a read-only connection
+     * @throws SQLException SQL exception
+     */
+    public static Connection getReadOnlyConnection() throws SQLException {
+        if (Latkes.RuntimeDatabase.NONE == Latkes.getRuntimeDatabase()) {
+            return null;
+        }
+
+        if (null != replica) {
+            return replica.getConnection();
+        }
+
         final Connection ret = hikari.getConnection();
-        ret.setTransactionIsolation(transactionIsolationInt);
-        ret.setAutoCommit(false);
+        try {
+            ret.setAutoCommit(true); // Restored by the pool when the connection is closed
+        } catch (final SQLException e) {
+            ret.close();
+            throw e;
+        }
         return ret;
     }
 
@@ -203,6 +275,9 @@ public final class Connections {
      * Shutdowns the connection pool.
      */
     public static void shutdownConnectionPool() {
+        if (null != replica) {
+            replica.close();
+        }
         if (null == hikari) {
             return;
         }
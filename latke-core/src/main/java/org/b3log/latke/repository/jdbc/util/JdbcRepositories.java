@@ -35,7 +35,7 @@ import java.util.Set;
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.1.0.0, May 13, 2019
+ * @version 2.1.0.2, Oct 17, 2026
  */
 public final class JdbcRepositories {
 
@@ -105,9 +105,9 @@ public final class JdbcRepositories {
     public static String softDeleteFieldName = "oDeleted";
 
     /**
-     * Stores all repository definitions.
+     * Stores all repository definitions, published after filled.
      */
-    private static List<RepositoryDefinition> repositoryDefinitions = null;
+    private static volatile List<RepositoryDefinition> repositoryDefinitions = null;
 
     /**
      * Gets keys of the repository specified by the given repository name.
@@ -155,7 +155,7 @@ public final class JdbcRepositories {
             return;
         }
 
-        repositoryDefinitions = new ArrayList<>();
+        final List<RepositoryDefinition> definitions = new ArrayList<>();
         final JSONArray repositoritArray = jsonObject.getJSONArray(REPOSITORIES);
         JSONObject repositoryObject;
         JSONObject keyObject;
@@ -163,7 +163,7 @@ public final class JdbcRepositories {
             repositoryObject = repositoritArray.getJSONObject(i);
 
             final RepositoryDefinition repositoryDefinition = new RepositoryDefinition();
-            repositoryDefinitions.add(repositoryDefinition);
+            definitions.add(repositoryDefinition);
             repositoryDefinition.setName(repositoryObject.getString(NAME));
             repositoryDefinition.setDescription(repositoryObject.optString(DESCRIPTION));
             final List<FieldDefinition> keys = new ArrayList<>();
@@ -178,6 +178,7 @@ public final class JdbcRepositories {
             repositoryDefinition.setCharset(repositoryObject.optString(CHARSET));
             repositoryDefinition.setCollate(repositoryObject.optString(COLLATE));
         }
+        repositoryDefinitions = definitions;
     }
 
     /**
@@ -419,6 +420,7 @@ public final class JdbcRepositories {
      */
     public static void setRepositoryDefinitions(final List<RepositoryDefinition> repositoryDefinitions) {
         JdbcRepositories.repositoryDefinitions = repositoryDefinitions;
+        ColumnPlan.clear();
     }
 
     /**
@@ -16,23 +16,19 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.b3log.latke.Keys;
-import org.b3log.latke.Latkes;
 import org.b3log.latke.repository.RepositoryException;
 import org.json.JSONObject;
 
-import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * JDBC utilities.
  *
  * @author <a href="https://ld246.com/member/mainlove">Love Yao</a>
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.1, Jun 20, 2020
+ * @version 2.2.0.0, Oct 17, 2026
  */
 public final class JdbcUtil {
 
@@ -41,6 +37,11 @@ public final class JdbcUtil {
      */
     private static final Logger LOGGER = LogManager.getLogger(JdbcUtil.class);
 
+    /**
+     * Maximum count of rows in one JDBC batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
     /**
      * Executes the specified SQL with the specified connection.
      *
@@ -85,6 +86,42 @@ public final class JdbcUtil {
         return ret;
     }
 
+    /**
+     * Executes the specified SQL in batch with the specified params list and connection. The batch will be flushed every
+     * {@value #BATCH_SIZE} rows.
+     *
+     * @param sql        the specified SQL
+     * @param paramLists the specified params list, each element is the params of one row
+     * @param connection the specified connection
+     * @param isDebug    the specified debug flag
+     * @return update counts, in the order of the specified params list
+     * @throws SQLException SQLException
+     */
+    public static int[] executeBatch(final String sql, final List<List<Object>> paramLists, final Connection connection, final boolean isDebug) throws SQLException {
+        if (isDebug || LOGGER.isTraceEnabled()) {
+            LOGGER.log(Level.INFO, "Executing batch SQL [" + sql + "], rows [" + paramLists.size() + "]");
+        }
+
+        final int[] ret = new int[paramLists.size()];
+        try (final PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int flushed = 0;
+            for (int row = 0; row < paramLists.size(); row++) {
+                final List<Object> paramList = paramLists.get(row);
+                for (int i = 1; i <= paramList.size(); i++) {
+                    preparedStatement.setObject(i, paramList.get(i - 1));
+                }
+                preparedStatement.addBatch();
+
+                if (0 == (row + 1) % BATCH_SIZE || row == paramLists.size() - 1) {
+                    final int[] counts = preparedStatement.executeBatch();
+                    System.arraycopy(counts, 0, ret, flushed, counts.length);
+                    flushed += counts.length;
+                }
+            }
+        }
+        return ret;
+    }
+
     /**
      * Queries a JSON object.
      *
@@ -151,68 +188,43 @@ public final class JdbcUtil {
      * @return JSONObject
      */
     private static JSONObject resultSetToJsonObject(final ResultSet resultSet, final boolean ifOnlyOne, final String tableName) throws Exception {
-        final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        final ColumnPlan plan = ColumnPlan.get(resultSet.getMetaData(), tableName);
+        final String[] names = plan.getNames();
+        final int[] kinds = plan.getKinds();
+        final int numColumns = names.length;
+        final int capacity = (int) (numColumns / 0.75f) + 1;
 
-        final List<FieldDefinition> definitionList = JdbcRepositories.getKeys(tableName);
-        if (null == definitionList) {
-            throw new RepositoryException("Null definition list for table [" + tableName + "]");
-        }
-
-        final Map<String, FieldDefinition> dMap = new HashMap<>();
-        for (final FieldDefinition fieldDefinition : definitionList) {
-            if (Latkes.RuntimeDatabase.H2 == Latkes.getRuntimeDatabase()) {
-                dMap.put(fieldDefinition.getName().toUpperCase(), fieldDefinition);
-            } else {
-                dMap.put(fieldDefinition.getName(), fieldDefinition);
-            }
-        }
-
-        final int numColumns = resultSetMetaData.getColumnCount();
         final List<JSONObject> list = new ArrayList<>();
         JSONObject ret;
-        String columnName;
         while (resultSet.next()) {
-            ret = new JSONObject();
-            for (int i = 1; i < numColumns + 1; i++) {
-                columnName = resultSetMetaData.getColumnLabel(i);
-                final FieldDefinition definition = dMap.get(columnName);
-                if (null == definition) { // COUNT(OID)
-                    ret.put(columnName, resultSet.getObject(columnName));
-                } else if ("boolean".equals(definition.getType())) {
-                    ret.put(definition.getName(), resultSet.getBoolean(columnName));
-                } else {
-                    final Object v = resultSet.getObject(columnName);
-                    if (v instanceof Clob) {
-                        final Clob clob = (Clob) v;
-                        String str = null;
-                        try {
-                            str = IOUtils.toString(clob.getCharacterStream());
-                        } catch (final IOException e) {
-                            LOGGER.log(Level.ERROR,
-                                    "Cant not read column[name=" + columnName + "] in table[name=" + tableName + "] on H2", e);
-                        } finally {
-                            try {
-                                clob.free();
-                            } catch (final Exception e) { // Some drivers dose not implement free(), for example, jtds
-                                LOGGER.log(Level.ERROR, "clob.free error", e);
-                            }
+            ret = new JSONObject(capacity);
+            for (int i = 0; i < numColumns; i++) {
+                final int columnIndex = i + 1;
+                switch (kinds[i]) {
+                    case ColumnPlan.KIND_BOOLEAN:
+                        ret.put(names[i], resultSet.getBoolean(columnIndex));
+                        break;
+                    case ColumnPlan.KIND_OBJECT:
+                        final Object v = resultSet.getObject(columnIndex);
+                        if (v instanceof Clob) {
+                            ret.put(names[i], readClob((Clob) v, names[i], tableName));
+                        } else {
+                            ret.put(names[i], v);
                         }
-
-                        ret.put(definition.getName(), str);
-                    } else {
-                        ret.put(definition.getName(), v);
-                    }
+                        break;
+                    default: // COUNT(OID)
+                        ret.put(names[i], resultSet.getObject(columnIndex));
                 }
             }
 
             list.add(ret);
+            if (ifOnlyOne) {
+                return ret;
+            }
         }
 
         if (ifOnlyOne) {
-            if (list.isEmpty()) {
-                return null;
-            }
-            return list.get(0);
+            return null;
         }
 
         ret = new JSONObject();
@@ -220,6 +232,30 @@ public final class JdbcUtil {
         return ret;
     }
 
+    /**
+     * Reads the specified clob as a string.
+     *
+     * @param clob       the specified clob
+     * @param columnName the specified column name
+     * @param tableName  the specified table name
+     * @return string, returns {@code null} if read failed
+     */
+    private static String readClob(final Clob clob, final String columnName, final String tableName) {
+        String ret = null;
+        try {
+            ret = IOUtils.toString(clob.getCharacterStream());
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Cant not read column[name=" + columnName + "] in table[name=" + tableName + "] on H2", e);
+        } finally {
+            try {
+                clob.free();
+            } catch (final Exception e) { // Some drivers dose not implement free(), for example, jtds
+                LOGGER.log(Level.ERROR, "clob.free error", e);
+            }
+        }
+        return ret;
+    }
+
     /**
      * Private constructor.
      */
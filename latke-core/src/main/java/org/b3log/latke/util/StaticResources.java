@@ -26,15 +26,23 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.File;
 import java.net.URI;
-import java.util.Iterator;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Static resource utilities.
+ * <p>
+ * Path patterns in static-resources.xml are compiled once into a classifier:
+ * <ul>
+ * <li>patterns without wildcards, for example "/favicon.ico", are looked up in a hash set</li>
+ * <li>patterns like "/css/&#42;&#42;/&#42;.css" are compiled into a prefix trie of directories with file extensions</li>
+ * <li>other patterns are matched by {@link AntPathMatcher} one by one</li>
+ * </ul>
+ * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.1.0, Mar 3, 2018
+ * @version 2.1.1.0, Oct 17, 2026
  */
 public final class StaticResources {
 
@@ -43,6 +51,11 @@ public final class StaticResources {
      */
     private static final Logger LOGGER = LogManager.getLogger(StaticResources.class);
 
+    /**
+     * Directory with extension pattern, for example "/css/&#42;&#42;/&#42;.css".
+     */
+    private static final Pattern DIR_EXT_PATTERN = Pattern.compile("^(/[^*?]*)/\\*\\*/\\*(\\.[^*?/]+)$");
+
     /**
      * Static resource path patterns.
      * <p>
@@ -52,48 +65,85 @@ public final class StaticResources {
     private static final Set<String> STATIC_RESOURCE_PATHS = new TreeSet<>();
 
     /**
-     * Determines whether the static resource path patterns has been initialized.
+     * Compiled classifier, {@code null} if not initialized yet.
      */
-    private static boolean inited;
+    private static volatile Classifier classifier;
 
     /**
-     * Determines whether the client requests a static resource with the specified request.
+     * Determines whether the client requests a static resource with the specified request. The result is kept in the
+     * request attributes {@link Keys.HttpRequest#REQUEST_STATIC_RESOURCE_CHECKED} and
+     * {@link Keys.HttpRequest#IS_REQUEST_STATIC_RESOURCE}.
      *
      * @param request the specified request
      * @return {@code true} if the client requests a static resource, returns {@code false} otherwise
      */
     public static boolean isStatic(final Request request) {
-        final boolean requestStaticResourceChecked = null == request.getAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED)
-                ? false
-                : (Boolean) request.getAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED);
-
-        if (requestStaticResourceChecked) {
+        if (Boolean.TRUE.equals(request.getAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED))) {
             return (Boolean) request.getAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE);
         }
 
-        if (!inited) {
-            init();
+        final boolean ret = isStatic(request.getRequestURI());
+        request.setAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE, ret);
+        request.setAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED, true);
+        return ret;
+    }
+
+    /**
+     * Determines whether the specified request URI is a static resource.
+     *
+     * @param requestURI the specified request URI
+     * @return {@code true} if it is a static resource, returns {@code false} otherwise
+     */
+    public static boolean isStatic(final String requestURI) {
+        return isStatic(requestURI, Latkes.getContextPath());
+    }
+
+    /**
+     * Determines whether the specified request URI is a static resource under the specified context path, the
+     * classifier is compiled again if the context path changed.
+     *
+     * @param requestURI  the specified request URI
+     * @param contextPath the specified context path
+     * @return {@code true} if it is a static resource, returns {@code false} otherwise
+     */
+    static boolean isStatic(final String requestURI, final String contextPath) {
+        Classifier c = classifier;
+        if (null == c || !c.contextPath.equals(contextPath)) {
+            c = init(contextPath);
         }
 
-        request.setAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED, true);
-        request.setAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE, false);
+        return c.isStatic(requestURI);
+    }
+
+    /**
+     * Initializes the static resource path patterns and compiles the classifier with the specified context path.
+     *
+     * @param contextPath the specified context path
+     * @return compiled classifier
+     */
+    private static synchronized Classifier init(final String contextPath) {
+        if (null != classifier && classifier.contextPath.equals(contextPath)) {
+            return classifier;
+        }
 
-        final String requestURI = request.getRequestURI();
+        if (STATIC_RESOURCE_PATHS.isEmpty()) {
+            load();
+        }
 
+        final Classifier ret = new Classifier(contextPath);
         for (final String pattern : STATIC_RESOURCE_PATHS) {
-            if (AntPathMatcher.match(Latkes.getContextPath() + pattern, requestURI)) {
-                request.setAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE, true);
-                return true;
-            }
+            ret.add(contextPath + pattern);
         }
-
-        return false;
+        LOGGER.log(Level.TRACE, "Compiled static resource path patterns [exact={}, dirExt={}, residual={}]",
+                ret.exactPaths.size(), ret.dirExtCnt, ret.residualPatterns.size());
+        classifier = ret;
+        return ret;
     }
 
     /**
-     * Initializes the static resource path patterns.
+     * Loads the static resource path patterns.
      */
-    private static synchronized void init() {
+    private static void load() {
         LOGGER.trace("Reads static resources definition from [static-resources.xml]");
 
         final File staticResources = Latkes.getFile("/static-resources.xml");
@@ -155,7 +205,6 @@ public final class StaticResources {
             LOGGER.trace(logBuilder.toString());
         }
 
-        inited = true;
     }
 
     /**
@@ -163,4 +212,171 @@ public final class StaticResources {
      */
     private StaticResources() {
     }
+
+    /**
+     * Compiled static resource classifier.
+     */
+    private static final class Classifier {
+
+        /**
+         * Context path compiled with.
+         */
+        private final String contextPath;
+
+        /**
+         * Paths without wildcards.
+         */
+        private final Set<String> exactPaths = new HashSet<>();
+
+        /**
+         * Directory prefix trie root.
+         */
+        private final DirNode dirRoot = new DirNode();
+
+        /**
+         * Count of directory with extension patterns.
+         */
+        private int dirExtCnt;
+
+        /**
+         * Residual patterns, matched by {@link AntPathMatcher}.
+         */
+        private final List<String> residualPatterns = new ArrayList<>();
+
+        /**
+         * Constructs a classifier with the specified context path.
+         *
+         * @param contextPath the specified context path
+         */
+        private Classifier(final String contextPath) {
+            this.contextPath = contextPath;
+        }
+
+        /**
+         * Compiles the specified pattern into this classifier.
+         *
+         * @param pattern the specified pattern, with context path
+         */
+        private void add(final String pattern) {
+            if (!AntPathMatcher.isPattern(pattern)) {
+                exactPaths.add(pattern);
+                return;
+            }
+
+            final Matcher matcher = DIR_EXT_PATTERN.matcher(pattern);
+            if (!matcher.matches()) {
+                residualPatterns.add(pattern);
+                return;
+            }
+
+            final String dir = matcher.group(1);
+            DirNode node = dirRoot;
+            for (int i = 0; i < dir.length(); i++) {
+                node = node.child(dir.charAt(i));
+            }
+            final String ext = matcher.group(2);
+            if (!Arrays.asList(node.exts).contains(ext)) {
+                node.exts = Arrays.copyOf(node.exts, node.exts.length + 1);
+                node.exts[node.exts.length - 1] = ext;
+            }
+            dirExtCnt++;
+        }
+
+        /**
+         * Determines whether the specified request URI is a static resource.
+         *
+         * @param requestURI the specified request URI
+         * @return {@code true} if it is a static resource, returns {@code false} otherwise
+         */
+        private boolean isStatic(final String requestURI) {
+            if (exactPaths.contains(requestURI)) {
+                return true;
+            }
+
+            final int length = requestURI.length();
+            if (0 < length && '/' != requestURI.charAt(length - 1)) {
+                DirNode node = dirRoot;
+                for (int i = 0; i < length && null != node; i++) {
+                    node = node.get(requestURI.charAt(i));
+                    // Directory prefix ends at a separator, the file name is the last segment
+                    if (null != node && 0 < node.exts.length && i + 1 < length && '/' == requestURI.charAt(i + 1)) {
+                        for (final String ext : node.exts) {
+                            if (requestURI.endsWith(ext)) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (final String pattern : residualPatterns) {
+                if (AntPathMatcher.match(pattern, requestURI)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Directory prefix trie node.
+     */
+    private static final class DirNode {
+
+        /**
+         * Empty strings.
+         */
+        private static final String[] NO_EXTS = new String[0];
+
+        /**
+         * Child chars.
+         */
+        private char[] chars = new char[0];
+
+        /**
+         * Children, indexed the same as {@link #chars}.
+         */
+        private DirNode[] children = new DirNode[0];
+
+        /**
+         * File extensions (with the leading '.') of the directory ends at this node.
+         */
+        private String[] exts = NO_EXTS;
+
+        /**
+         * Gets the child of the specified char.
+         *
+         * @param c the specified char
+         * @return child, returns {@code null} if not found
+         */
+        private DirNode get(final char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (c == chars[i]) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gets or creates the child of the specified char.
+         *
+         * @param c the specified char
+         * @return child
+         */
+        private DirNode child(final char c) {
+            DirNode ret = get(c);
+            if (null != ret) {
+                return ret;
+            }
+
+            ret = new DirNode();
+            chars = Arrays.copyOf(chars, chars.length + 1);
+            chars[chars.length - 1] = c;
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = ret;
+            return ret;
+        }
+    }
 }
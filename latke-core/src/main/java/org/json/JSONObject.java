@@ -456,7 +456,7 @@ public class JSONObject {
      * 
      * @param initialCapacity initial capacity of the internal map.
      */
-    protected JSONObject(int initialCapacity){
+    public JSONObject(int initialCapacity){
         this.map = new HashMap<String, Object>(initialCapacity);
     }
 
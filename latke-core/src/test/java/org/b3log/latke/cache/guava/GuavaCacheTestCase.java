@@ -25,7 +25,7 @@ import java.util.concurrent.TimeUnit;
  * {@link GuavaCache} test case.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.0, Apr 28, 2020
+ * @version 1.3.0.1, Oct 17, 2026
  * @since 2.4.58
  */
 public class GuavaCacheTestCase {
@@ -63,7 +63,7 @@ public class GuavaCacheTestCase {
             return;
         }
 
-        final Cache cache = CacheFactory.getCache("test", 1);
+        final Cache cache = CacheFactory.getCache("testExpire", 1);
         Assert.assertNotNull(cache);
 
         final String k0 = Ids.genTimeMillisId();
@@ -80,4 +80,89 @@ public class GuavaCacheTestCase {
 
         Assert.assertFalse(cache.contains(k0));
     }
+
+    @Test
+    public void putWithExpire() throws Exception {
+        if (Latkes.RuntimeCache.LOCAL_LRU != Latkes.getRuntimeCache()) {
+            return;
+        }
+
+        final Cache cache = CacheFactory.getCache("testPutWithExpire");
+        final String k0 = Ids.genTimeMillisId();
+        final JSONObject d0 = new JSONObject();
+        d0.put("f0", "0");
+
+        cache.put(k0, d0, 1);
+        Assert.assertTrue(cache.contains(k0));
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        Assert.assertNull(cache.get(k0));
+        Assert.assertFalse(cache.contains(k0));
+    }
+
+    @Test
+    public void stats() {
+        if (Latkes.RuntimeCache.LOCAL_LRU != Latkes.getRuntimeCache()) {
+            return;
+        }
+
+        final Cache cache = CacheFactory.getCache("testStats");
+        final String k0 = Ids.genTimeMillisId();
+        cache.put(k0, new JSONObject().put("f0", "0"));
+        cache.get(k0);
+        cache.get(k0 + "miss");
+
+        final JSONObject stats = cache.getStats();
+        Assert.assertEquals(stats.optLong("hitCount"), 1);
+        Assert.assertEquals(stats.optLong("missCount"), 1);
+        Assert.assertEquals(stats.optLong("size"), 1);
+    }
+
+    @Test
+    public void maxEntries() {
+        final GuavaCache cache = new GuavaCache(60, 10, -1);
+        final int count = 100;
+        for (int i = 0; i < count; i++) {
+            cache.put("k" + i, new JSONObject().put("f0", i));
+        }
+
+        Assert.assertTrue(cache.size() <= 10);
+        final JSONObject stats = cache.getStats();
+        Assert.assertEquals(stats.optLong("size"), cache.size());
+        Assert.assertEquals(stats.optLong("evictionCount"), count - cache.size());
+        // The last put survives
+        Assert.assertEquals(cache.get("k" + (count - 1)).optInt("f0"), count - 1);
+    }
+
+    @Test
+    public void maxWeight() {
+        final JSONObject value = new JSONObject().put("f0", "0123456789");
+        final long entryWeight = "k00".length() + GuavaCache.weigh(value);
+        final GuavaCache cache = new GuavaCache(60, 100000, entryWeight * 10);
+        final int count = 100;
+        for (int i = 0; i < count; i++) {
+            cache.put(String.format("k%02d", i), value);
+        }
+
+        Assert.assertTrue(cache.size() <= 10);
+        Assert.assertTrue(0 < cache.size());
+        final JSONObject stats = cache.getStats();
+        Assert.assertEquals(stats.optLong("evictionCount"), count - cache.size());
+
+        // Entries bounded by count aren't weighed
+        final GuavaCache unweighted = new GuavaCache(60, 100000, -1);
+        for (int i = 0; i < count; i++) {
+            unweighted.put(String.format("k%02d", i), value);
+        }
+        Assert.assertEquals(unweighted.size(), count);
+        Assert.assertEquals(unweighted.getStats().optLong("evictionCount"), 0);
+    }
+
+    @Test
+    public void weigh() {
+        final JSONObject d0 = new JSONObject();
+        d0.put("f0", "0");
+        d0.put("f1", 1);
+        Assert.assertTrue(GuavaCache.weigh(d0) >= d0.toString().length());
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.cache.redis;
+
+import org.b3log.latke.Latkes;
+import org.b3log.latke.cache.AbstractCache;
+import org.b3log.latke.cache.Cache;
+import org.b3log.latke.cache.CacheFactory;
+import org.b3log.latke.cache.guava.GuavaCache;
+import org.b3log.latke.util.Ids;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.args.ClientType;
+import redis.clients.jedis.params.ClientKillParams;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link NearRedisCache} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public class NearRedisCacheTestCase {
+
+    static {
+        Latkes.init();
+    }
+
+    @Test
+    public void invalidationDuringWrite() {
+        final String name = "testNearWrite";
+        final GuavaCache remoteValues = new GuavaCache(60);
+        final NearRedisCache cache = new NearRedisCache(60, new InterleavedRemote(remoteValues, key -> {
+            // Another node writes a newer value, its invalidation arrives before the write of this node returns
+            remoteValues.put(key, new JSONObject().put("f0", 2));
+            NearRedisCache.SUBSCRIBER.onPMessage("", RedisCache.KEY_PREFIX + ":near:" + name,
+                    new JSONObject().put("keys", new JSONArray().put(key)).put("node", "other").toString());
+        }));
+        cache.setName(name);
+        final boolean subscribed = NearRedisCache.SUBSCRIBER.subscribed;
+        NearRedisCache.SUBSCRIBER.subscribed = true;
+        try {
+            cache.put("k0", new JSONObject().put("f0", 1));
+            Assert.assertEquals(cache.get("k0").optInt("f0"), 2);
+            cache.putAll(Collections.singletonMap("k1", new JSONObject().put("f0", 1)));
+            Assert.assertEquals(cache.get("k1").optInt("f0"), 2);
+
+            // Filled on reads
+            remoteValues.put("k0", new JSONObject().put("f0", 3));
+            Assert.assertEquals(cache.get("k0").optInt("f0"), 2);
+        } finally {
+            NearRedisCache.SUBSCRIBER.subscribed = subscribed;
+        }
+    }
+
+    @Test
+    public void invalidation() throws Exception {
+        if (Latkes.RuntimeCache.NEAR_REDIS != Latkes.getRuntimeCache()) {
+            return;
+        }
+
+        final Cache cache = CacheFactory.getCache("testNear");
+        final RedisCache otherNode = newRemote("testNear");
+        TimeUnit.MILLISECONDS.sleep(500); // Waits for the subscription
+
+        final String k0 = Ids.genTimeMillisId();
+        cache.put(k0, new JSONObject().put("f0", 0));
+        final JSONObject d0 = cache.get(k0);
+        Assert.assertEquals(d0.optInt("f0"), 0);
+        d0.put("f0", -1);
+        Assert.assertEquals(cache.get(k0).optInt("f0"), 0); // Got values are copies
+
+        // Changed by another node without invalidation, the local entry is still served
+        otherNode.put(k0, new JSONObject().put("f0", 1));
+        Assert.assertEquals(cache.get(k0).optInt("f0"), 0);
+
+        // Changed by another node with invalidation
+        otherNode.put(k0, new JSONObject().put("f0", 2));
+        publishInvalidation("testNear", k0);
+        Assert.assertEquals(await(cache, k0, 2), 2);
+
+        cache.clear();
+    }
+
+    @Test
+    public void resubscribe() throws Exception {
+        if (Latkes.RuntimeCache.NEAR_REDIS != Latkes.getRuntimeCache()) {
+            return;
+        }
+
+        final Cache cache = CacheFactory.getCache("testNearResubscribe");
+        final RedisCache otherNode = newRemote("testNearResubscribe");
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        final String k0 = Ids.genTimeMillisId();
+        cache.put(k0, new JSONObject().put("f0", 0));
+        Assert.assertEquals(cache.get(k0).optInt("f0"), 0);
+
+        try (final Jedis jedis = Connections.getJedis()) {
+            jedis.clientKill(ClientKillParams.clientKillParams().type(ClientType.PUBSUB));
+        }
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        // Invalidations may be missed while the subscription is broken, the local cache is bypassed
+        otherNode.put(k0, new JSONObject().put("f0", 1));
+        Assert.assertEquals(cache.get(k0).optInt("f0"), 1);
+
+        // Resubscribes after 3 seconds, invalidations work again
+        TimeUnit.SECONDS.sleep(4);
+        Assert.assertEquals(cache.get(k0).optInt("f0"), 1);
+        otherNode.put(k0, new JSONObject().put("f0", 2));
+        publishInvalidation("testNearResubscribe", k0);
+        Assert.assertEquals(await(cache, k0, 2), 2);
+
+        cache.clear();
+    }
+
+    private static RedisCache newRemote(final String name) {
+        final RedisCache ret = new RedisCache(60);
+        ret.setName(name);
+        return ret;
+    }
+
+    /**
+     * Publishes invalidation of the specified key as another node.
+     *
+     * @param name the specified cache name
+     * @param key  the specified key
+     */
+    private static void publishInvalidation(final String name, final String key) {
+        try (final Jedis jedis = Connections.getJedis()) {
+            jedis.publish(RedisCache.KEY_PREFIX + ":near:" + name, new JSONObject().put("keys", new JSONArray().put(key)).put("node", "other").toString());
+        }
+    }
+
+    /**
+     * Remote cache runs the specified action after each written key, to interleave with the writes.
+     */
+    private static final class InterleavedRemote extends AbstractCache {
+
+        private final GuavaCache values;
+
+        private final Consumer<String> afterPut;
+
+        private InterleavedRemote(final GuavaCache values, final Consumer<String> afterPut) {
+            super(60);
+            this.values = values;
+            this.afterPut = afterPut;
+        }
+
+        @Override
+        public boolean contains(final String key) {
+            return values.contains(key);
+        }
+
+        @Override
+        public void put(final String key, final JSONObject value) {
+            values.put(key, value);
+            afterPut.accept(key);
+        }
+
+        @Override
+        public void put(final String key, final JSONObject value, final int expireSeconds) {
+            values.put(key, value, expireSeconds);
+            afterPut.accept(key);
+        }
+
+        @Override
+        public JSONObject get(final String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void remove(final String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void remove(final Collection<String> keys) {
+            values.remove(keys);
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+    }
+
+    private static int await(final Cache cache, final String key, final int expected) throws Exception {
+        int ret = cache.get(key).optInt("f0");
+        for (int i = 0; i < 20 && expected != ret; i++) {
+            TimeUnit.MILLISECONDS.sleep(50);
+            ret = cache.get(key).optInt("f0");
+        }
+        return ret;
+    }
+}
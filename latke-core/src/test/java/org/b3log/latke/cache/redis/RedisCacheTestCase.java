@@ -19,13 +19,16 @@ import org.json.JSONObject;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * {@link RedisCache} test case.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.0, Apr 28, 2020
+ * @version 1.2.0.0, Oct 17, 2026
  * @since 2.3.13
  */
 public class RedisCacheTestCase {
@@ -80,4 +83,27 @@ public class RedisCacheTestCase {
 
         Assert.assertFalse(cache.contains(k0));
     }
+
+    @Test
+    public void putAll() {
+        if (Latkes.RuntimeCache.REDIS != Latkes.getRuntimeCache()) {
+            return;
+        }
+
+        final Cache cache = CacheFactory.getCache("testPutAll");
+        final String k0 = Ids.genTimeMillisId();
+        final String k1 = k0 + "1";
+        final Map<String, JSONObject> values = new HashMap<>();
+        values.put(k0, new JSONObject().put("f0", "0"));
+        values.put(k1, new JSONObject().put("f1", 1));
+        cache.putAll(values);
+
+        final Map<String, JSONObject> got = cache.getAll(Arrays.asList(k0, k1, k0 + "miss"));
+        Assert.assertEquals(got.size(), 2);
+        Assert.assertEquals(got.get(k1).optInt("f1"), 1);
+        Assert.assertEquals(cache.size(), 2);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+    }
 }
@@ -11,14 +11,24 @@
  */
 package org.b3log.latke.event;
 
+import io.netty.util.concurrent.FastThreadLocalThread;
 import org.json.JSONObject;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * {@link EventManager} test case.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.6, Oct 31, 2018
+ * @version 1.3.0.0, Oct 17, 2026
  */
 public final class EventManagerTestCase {
 
@@ -53,6 +63,230 @@ public final class EventManagerTestCase {
         System.out.println("Done in simplest thread");
     }
 
+    @Test
+    public void deliveryMode() throws Exception {
+        final EventManager eventManager = new EventManager();
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        eventManager.registerListener(new AbstractEventListener<Integer>() {
+            @Override
+            public void action(final Event<Integer> event) {
+                received.add(event.getData());
+            }
+
+            @Override
+            public String getEventType() {
+                return "Test ordered";
+            }
+        });
+        eventManager.setDeliveryMode("Test ordered", EventManager.DeliveryMode.ORDERED);
+
+        Future<Void> last = null;
+        final int eventCnt = 1000;
+        for (int i = 0; i < eventCnt; i++) {
+            last = eventManager.fireEventAsynchronously(new Event<>("Test ordered", i));
+        }
+        last.get();
+        Assert.assertEquals(received.size(), eventCnt);
+        for (int i = 0; i < eventCnt; i++) {
+            Assert.assertEquals(received.get(i).intValue(), i);
+        }
+
+        received.clear();
+        for (int i = 0; i < 3; i++) {
+            final int listenerId = i;
+            eventManager.registerListener(new AbstractEventListener<Integer>() {
+                @Override
+                public void action(final Event<Integer> event) {
+                    received.add(listenerId);
+                }
+
+                @Override
+                public String getEventType() {
+                    return "Test parallel";
+                }
+            });
+        }
+        eventManager.setDeliveryMode("Test parallel", EventManager.DeliveryMode.PARALLEL);
+        eventManager.fireEventAsynchronously(new Event<>("Test parallel", 0)).get();
+        Assert.assertEquals(received.size(), 3);
+
+        final JSONObject stats = eventManager.getStats();
+        Assert.assertEquals(stats.optJSONObject("Test ordered").optLong("fired"), eventCnt);
+        Assert.assertEquals(stats.optJSONObject("Test parallel").optLong("delivered"), 3);
+    }
+
+    @Test
+    public void saturated() throws Exception {
+        final ThreadPoolExecutor executor = EventManager.newExecutor(1, 1, 500);
+        final EventManager eventManager = new EventManager(executor);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        eventManager.registerListener(new AbstractEventListener<Integer>() {
+            @Override
+            public void action(final Event<Integer> event) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public String getEventType() {
+                return "Test saturated";
+            }
+        });
+
+        try {
+            final Future<Void> running = eventManager.fireEventAsynchronously(new Event<>("Test saturated", 0));
+            started.await();
+            final Future<Void> queued = eventManager.fireEventAsynchronously(new Event<>("Test saturated", 1));
+
+            // The caller waits for a free slot and then drops the event
+            long start = System.nanoTime();
+            final Future<Void> dropped = eventManager.fireEventAsynchronously(new Event<>("Test saturated", 2));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+            try {
+                dropped.get();
+                Assert.fail();
+            } catch (final ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+
+            // An event loop thread doesn't wait
+            final AtomicLong elapsedMillis = new AtomicLong();
+            final AtomicReference<Future<Void>> eventLoopDropped = new AtomicReference<>();
+            final Thread eventLoop = new FastThreadLocalThread(() -> {
+                final long begin = System.nanoTime();
+                eventLoopDropped.set(eventManager.fireEventAsynchronously(new Event<>("Test saturated", 3)));
+                elapsedMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+            });
+            eventLoop.start();
+            eventLoop.join();
+            Assert.assertTrue(elapsedMillis.get() < 400);
+            Assert.assertTrue(eventLoopDropped.get().isDone());
+
+            release.countDown();
+            running.get();
+            queued.get();
+            final JSONObject stat = eventManager.getStats().optJSONObject("Test saturated");
+            Assert.assertEquals(stat.optLong("delivered"), 2);
+            Assert.assertEquals(stat.optLong("dropped"), 2);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void orderedFlood() throws Exception {
+        final ThreadPoolExecutor executor = EventManager.newExecutor(1, 1, 500);
+        final EventManager eventManager = new EventManager(executor, 4, 500);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        eventManager.registerListener(new AbstractEventListener<Integer>() {
+            @Override
+            public void action(final Event<Integer> event) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event.getData());
+            }
+
+            @Override
+            public String getEventType() {
+                return "Test flood";
+            }
+        });
+        eventManager.setDeliveryMode("Test flood", EventManager.DeliveryMode.ORDERED);
+
+        try {
+            eventManager.fireEventAsynchronously(new Event<>("Test flood", 0));
+            started.await();
+            Future<Void> last = null;
+            for (int i = 1; i <= 4; i++) {
+                last = eventManager.fireEventAsynchronously(new Event<>("Test flood", i));
+            }
+
+            // The lane is full, the caller waits for a free slot and then drops the event
+            final long start = System.nanoTime();
+            final Future<Void> dropped = eventManager.fireEventAsynchronously(new Event<>("Test flood", 5));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+            try {
+                dropped.get();
+                Assert.fail();
+            } catch (final ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+
+            // An event loop thread doesn't wait
+            final AtomicLong elapsedMillis = new AtomicLong();
+            final AtomicReference<Future<Void>> eventLoopDropped = new AtomicReference<>();
+            final Thread eventLoop = new FastThreadLocalThread(() -> {
+                final long begin = System.nanoTime();
+                eventLoopDropped.set(eventManager.fireEventAsynchronously(new Event<>("Test flood", 6)));
+                elapsedMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+            });
+            eventLoop.start();
+            eventLoop.join();
+            Assert.assertTrue(elapsedMillis.get() < 400);
+            Assert.assertTrue(eventLoopDropped.get().isDone());
+
+            release.countDown();
+            last.get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(received, Arrays.asList(0, 1, 2, 3, 4));
+            final JSONObject stat = eventManager.getStats().optJSONObject("Test flood");
+            Assert.assertEquals(stat.optLong("delivered"), 5);
+            Assert.assertEquals(stat.optLong("dropped"), 2);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void afterShutdown() throws Exception {
+        final ThreadPoolExecutor executor = EventManager.newExecutor(1, 1, 500);
+        final EventManager eventManager = new EventManager(executor);
+        for (final EventManager.DeliveryMode deliveryMode : EventManager.DeliveryMode.values()) {
+            final String eventType = "Test shutdown " + deliveryMode;
+            eventManager.setDeliveryMode(eventType, deliveryMode);
+            eventManager.registerListener(new AbstractEventListener<Integer>() {
+                @Override
+                public void action(final Event<Integer> event) {
+                    Assert.fail("Event fired after shutdown should be dropped");
+                }
+
+                @Override
+                public String getEventType() {
+                    return eventType;
+                }
+            });
+        }
+        executor.shutdown();
+
+        for (final EventManager.DeliveryMode deliveryMode : EventManager.DeliveryMode.values()) {
+            final Future<Void> future = eventManager.fireEventAsynchronously(new Event<>("Test shutdown " + deliveryMode, 0));
+            Assert.assertTrue(future.isDone());
+            try {
+                future.get();
+                Assert.fail();
+            } catch (final ExecutionException | CancellationException e) {
+                // Dropped
+            }
+        }
+
+        final JSONObject stats = eventManager.getStats();
+        for (final EventManager.DeliveryMode deliveryMode : EventManager.DeliveryMode.values()) {
+            Assert.assertEquals(stats.optJSONObject("Test shutdown " + deliveryMode).optLong("dropped"), 1);
+        }
+    }
+
     /**
      * Test event listener 1.
      *
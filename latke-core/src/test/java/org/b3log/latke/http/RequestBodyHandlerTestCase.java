@@ -0,0 +1,127 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.ioc.BeanManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RequestBodyHandler} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class RequestBodyHandlerTestCase {
+
+    static {
+        Latkes.init();
+    }
+
+    @BeforeTest
+    public void beforeTest() {
+        final List<Class<?>> classes = new ArrayList<>();
+        classes.add(TestProcessor.class);
+        BeanManager.start(classes);
+        final TestProcessor testProcessor = BeanManager.getInstance().getReference(TestProcessor.class);
+        Dispatcher.group().router().post().uri("/body/stream").streamBody().maxBodySize(1024).handler(testProcessor::first);
+        Dispatcher.group().router().post().uri("/body/limited").maxBodySize(8).handler(testProcessor::second);
+        Dispatcher.mapping();
+    }
+
+    @Test
+    public void tooLargeContentLength() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new RequestBodyHandler());
+        final HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/body/limited");
+        HttpUtil.setContentLength(req, 100);
+        channel.writeInbound(req);
+
+        assertStatus(channel.readOutbound(), HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+        Assert.assertNull(channel.readInbound());
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void tooLargeChunkedBody() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new RequestBodyHandler());
+        final HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/body/limited");
+        HttpUtil.setTransferEncodingChunked(req, true);
+        channel.writeInbound(req);
+        Assert.assertSame(channel.readInbound(), req);
+        channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer("12345", CharsetUtil.UTF_8)));
+        ((HttpContent) channel.readInbound()).release();
+        channel.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer("67890", CharsetUtil.UTF_8)));
+
+        assertStatus(channel.readOutbound(), HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+        Assert.assertNull(channel.readInbound());
+        Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void streaming() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new RequestBodyHandler());
+        final HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/body/stream");
+        req.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+        HttpUtil.setContentLength(req, 11);
+        channel.writeInbound(req);
+        Assert.assertNull(channel.readInbound());
+        channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer("hello ", CharsetUtil.UTF_8)));
+        Assert.assertNull(channel.readInbound());
+        channel.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer("world", CharsetUtil.UTF_8)));
+
+        final RequestBodyHandler.StreamedRequest streamedRequest = channel.readInbound();
+        Assert.assertNotNull(streamedRequest);
+        Assert.assertNull(streamedRequest.decoder);
+        Assert.assertEquals(streamedRequest.uri(), "/body/stream");
+        Assert.assertEquals(streamedRequest.content().readableBytes(), 0);
+        Assert.assertEquals(streamedRequest.body.getString(CharsetUtil.UTF_8), "hello world");
+        streamedRequest.destroy();
+        Assert.assertNull(channel.readOutbound());
+        Assert.assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void continueExpected() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new RequestBodyHandler());
+        final HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/body/stream");
+        HttpUtil.setContentLength(req, 2);
+        HttpUtil.set100ContinueExpected(req, true);
+        channel.writeInbound(req);
+
+        assertStatus(channel.readOutbound(), HttpResponseStatus.CONTINUE);
+        channel.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer("ok", CharsetUtil.UTF_8)));
+        final RequestBodyHandler.StreamedRequest streamedRequest = channel.readInbound();
+        Assert.assertFalse(HttpUtil.is100ContinueExpected(streamedRequest));
+        streamedRequest.destroy();
+        channel.finishAndReleaseAll();
+    }
+
+    private static void assertStatus(final FullHttpResponse response, final HttpResponseStatus status) {
+        Assert.assertNotNull(response);
+        try {
+            Assert.assertEquals(response.status(), status);
+        } finally {
+            response.release();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.HttpMethod;
+import org.b3log.latke.Latkes;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+
+/**
+ * {@link ResponseCompressor} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public class ResponseCompressorTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void compress() {
+        final EmbeddedChannel channel = newChannel("gzip, deflate");
+        channel.writeOutbound(newResponse("application/json; charset=utf-8", 2048));
+        final HttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.CONTENT_ENCODING), "gzip");
+        Assert.assertEquals(res.headers().getAll(HttpHeaderNames.VARY).size(), 1);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void weakenETag() {
+        final EmbeddedChannel channel = newChannel("gzip");
+        final FullHttpResponse response = newResponse("text/css", 2048);
+        response.headers().set(HttpHeaderNames.ETAG, "\"800-1\"");
+        channel.writeOutbound(response);
+        final HttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.CONTENT_ENCODING), "gzip");
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.ETAG), "W/\"800-1\"");
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void rangeRequest() {
+        final EmbeddedChannel channel = new EmbeddedChannel(ResponseCompressor.create().get(), new ChannelInboundHandlerAdapter());
+        final FullHttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/css/app.css");
+        req.headers().set(HttpHeaderNames.ACCEPT_ENCODING, "gzip");
+        req.headers().set(HttpHeaderNames.RANGE, "bytes=1024-3071");
+        channel.writeInbound(req);
+        ((FullHttpRequest) channel.readInbound()).release();
+
+        // A range of a cached jar resource is sent as a full response, see StaticFileRenderer
+        final Response response = new Response(channel.pipeline().lastContext(), new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        response.setKeepAlive(true);
+        response.setContentType("text/css");
+        response.setHeader(HttpHeaderNames.ETAG.toString(), "\"1000-1\"");
+        response.setStatus(HttpResponseStatus.PARTIAL_CONTENT.code());
+        response.setHeader(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes 1024-3071/4096");
+        response.sendBuffer(Unpooled.wrappedBuffer(new byte[2048]));
+
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.status(), HttpResponseStatus.PARTIAL_CONTENT);
+        Assert.assertNull(res.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.ETAG), "\"1000-1\"");
+        Assert.assertEquals(res.content().readableBytes(), 2048);
+        res.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void belowMinSize() {
+        final EmbeddedChannel channel = newChannel("gzip");
+        channel.writeOutbound(newResponse("application/json", 100));
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertNull(res.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        Assert.assertEquals(res.content().readableBytes(), 100);
+        res.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void incompressibleType() {
+        final EmbeddedChannel channel = newChannel("gzip");
+        channel.writeOutbound(newResponse("image/png", 2048));
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertNull(res.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        Assert.assertNull(res.headers().get(HttpHeaderNames.VARY));
+        res.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void precompressed() {
+        final EmbeddedChannel channel = newChannel("br, gzip");
+        final FullHttpResponse response = newResponse("text/css", 2048);
+        response.headers().set(HttpHeaderNames.CONTENT_ENCODING, "br");
+        response.headers().set(HttpHeaderNames.VARY, "Origin, Accept-Encoding");
+        channel.writeOutbound(response);
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.CONTENT_ENCODING), "br");
+        Assert.assertEquals(res.headers().getAll(HttpHeaderNames.VARY), Collections.singletonList("Origin, Accept-Encoding"));
+        Assert.assertEquals(res.content().readableBytes(), 2048);
+        res.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void fileRegion() throws Exception {
+        final File file = File.createTempFile("latke", ".css");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[2048]);
+
+        final EmbeddedChannel channel = newChannel("gzip");
+        final HttpResponse head = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        head.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/css");
+        HttpUtil.setContentLength(head, file.length());
+        channel.writeOutbound(head, new DefaultFileRegion(file, 0, file.length()), LastHttpContent.EMPTY_LAST_CONTENT);
+
+        final HttpResponse res = channel.readOutbound();
+        Assert.assertNull(res.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        Assert.assertEquals(HttpUtil.getContentLength(res), 2048);
+        final FileRegion region = channel.readOutbound();
+        Assert.assertEquals(region.count(), 2048);
+        region.release();
+        final LastHttpContent last = channel.readOutbound();
+        Assert.assertEquals(last.content().readableBytes(), 0);
+        channel.finishAndReleaseAll();
+    }
+
+    private static EmbeddedChannel newChannel(final String acceptEncoding) {
+        final EmbeddedChannel ret = new EmbeddedChannel(ResponseCompressor.create().get());
+        final FullHttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding);
+        ret.writeInbound(req);
+        ((FullHttpRequest) ret.readInbound()).release();
+        return ret;
+    }
+
+    private static FullHttpResponse newResponse(final String contentType, final int length) {
+        final FullHttpResponse ret = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(new byte[length]));
+        ret.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        HttpUtil.setContentLength(ret, length);
+        return ret;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.HttpMethod;
+import org.apache.commons.lang3.StringUtils;
+import org.b3log.latke.http.renderer.JsonRenderer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONString;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * {@link ResponseOutputStream} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 17, 2026
+ */
+public class ResponseOutputStreamTestCase {
+
+    @Test
+    public void smallContent() throws Exception {
+        final MockResponse response = new MockResponse(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        final Writer writer = response.getWriter();
+        writer.write("{\"code\": 0}");
+        writer.flush();
+        // Flushing a small response doesn't start the chunked transfer
+        Assert.assertFalse(response.isCommitted());
+        writer.close();
+        Assert.assertTrue(response.isCommitted());
+        Assert.assertEquals(response.getString(), "{\"code\": 0}");
+    }
+
+    @Test
+    public void largeContent() throws Exception {
+        final MockResponse response = new MockResponse(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        final OutputStream outputStream = response.getOutputStream();
+        outputStream.write(new byte[ResponseOutputStream.CHUNK_SIZE - 1]);
+        Assert.assertFalse(response.isCommitted());
+        outputStream.write(new byte[ResponseOutputStream.CHUNK_SIZE * 2]);
+        // The headers have been sent with the first chunk
+        Assert.assertTrue(response.isCommitted());
+        outputStream.close();
+        Assert.assertThrows(java.io.IOException.class, () -> outputStream.write(1));
+        // Responses without a channel keep the content of all chunks
+        Assert.assertEquals(response.getBytes().length, ResponseOutputStream.CHUNK_SIZE * 3 - 1);
+    }
+
+    @Test
+    public void mockRender() {
+        final MockResponse response = new MockResponse(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        final RequestContext context = new RequestContext(new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/")), response);
+        final JsonRenderer renderer = new JsonRenderer();
+        renderer.setJSONObject(new JSONObject().put("code", 0));
+        renderer.render(context);
+        Assert.assertEquals(new JSONObject(response.getString()).optInt("code", -1), 0);
+    }
+
+    @Test
+    public void chunkFraming() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final Response response = new Response(channel.pipeline().firstContext(), new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        response.setKeepAlive(true);
+        final OutputStream outputStream = response.getOutputStream();
+        outputStream.write(new byte[ResponseOutputStream.CHUNK_SIZE * 2 + 16]);
+        outputStream.close();
+
+        final HttpResponse head = channel.readOutbound();
+        Assert.assertFalse(head instanceof FullHttpResponse);
+        Assert.assertEquals(head.status(), HttpResponseStatus.OK);
+        Assert.assertTrue(HttpUtil.isTransferEncodingChunked(head));
+        Assert.assertFalse(head.headers().contains(HttpHeaderNames.CONTENT_LENGTH));
+        for (int i = 0; i < 2; i++) {
+            final HttpContent chunk = channel.readOutbound();
+            Assert.assertFalse(chunk instanceof LastHttpContent);
+            Assert.assertEquals(chunk.content().readableBytes(), ResponseOutputStream.CHUNK_SIZE);
+            chunk.release();
+        }
+        final HttpContent last = channel.readOutbound();
+        Assert.assertTrue(last instanceof LastHttpContent);
+        Assert.assertEquals(last.content().readableBytes(), 16);
+        last.release();
+        Assert.assertNull(channel.readOutbound());
+        Assert.assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void serializeErrorBeforeCommit() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final Response response = render(channel, new JSONObject().put("value", new FailingValue()));
+        Assert.assertTrue(response.isCommitted());
+
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.status(), HttpResponseStatus.INTERNAL_SERVER_ERROR);
+        Assert.assertEquals(res.content().readableBytes(), 0);
+        res.release();
+        Assert.assertNull(channel.readOutbound());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void serializeErrorAfterCommit() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final String large = StringUtils.repeat('a', ResponseOutputStream.CHUNK_SIZE * 2);
+        render(channel, new JSONObject().put("values", new JSONArray().put(large).put(new FailingValue())));
+
+        final HttpResponse head = channel.readOutbound();
+        Assert.assertEquals(head.status(), HttpResponseStatus.OK);
+        Assert.assertTrue(HttpUtil.isTransferEncodingChunked(head));
+        HttpContent chunk;
+        while (null != (chunk = channel.readOutbound())) {
+            // The body is truncated, it must not be terminated as a complete one
+            Assert.assertFalse(chunk instanceof LastHttpContent);
+            chunk.release();
+        }
+        Assert.assertFalse(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    private static Response render(final EmbeddedChannel channel, final JSONObject jsonObject) {
+        final Response response = new Response(channel.pipeline().firstContext(), new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        response.setKeepAlive(true);
+        final RequestContext context = new RequestContext(new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/")), response);
+        final JsonRenderer renderer = new JsonRenderer();
+        renderer.setJSONObject(jsonObject);
+        renderer.render(context);
+        return response;
+    }
+
+    /**
+     * JSON value fails to serialize.
+     */
+    private static final class FailingValue implements JSONString {
+
+        @Override
+        public String toJSONString() {
+            throw new IllegalStateException("Serializes failed");
+        }
+    }
+}
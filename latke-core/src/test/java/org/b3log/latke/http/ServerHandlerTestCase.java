@@ -0,0 +1,133 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.ioc.BeanManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ServerHandler} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class ServerHandlerTestCase {
+
+    static {
+        Latkes.init();
+    }
+
+    @BeforeTest
+    public void beforeTest() {
+        final List<Class<?>> classes = new ArrayList<>();
+        classes.add(TestProcessor.class);
+        BeanManager.start(classes);
+        final TestProcessor testProcessor = BeanManager.getInstance().getReference(TestProcessor.class);
+        Dispatcher.get("/pipeline/first", testProcessor::first);
+        Dispatcher.get("/pipeline/second", testProcessor::second);
+        Dispatcher.mapping();
+    }
+
+    /**
+     * Two pipelined requests are dispatched one by one, the second one is dispatched after the response of the first
+     * one has been written.
+     */
+    @Test
+    public void pipelining() {
+        final ManualExecutor executor = new ManualExecutor();
+        final EmbeddedChannel channel = new EmbeddedChannel(new ServerHandler(new DispatchExecutor(executor, 16)));
+        channel.writeInbound(
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/pipeline/first"),
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/pipeline/second"));
+        Assert.assertFalse(channel.config().isAutoRead());
+        Assert.assertEquals(executor.tasks.size(), 1);
+
+        executor.runNext();
+        Assert.assertEquals(executor.tasks.size(), 0);
+        channel.runPendingTasks();
+        Assert.assertEquals(executor.tasks.size(), 1);
+        Assert.assertFalse(channel.config().isAutoRead());
+
+        executor.runNext();
+        channel.runPendingTasks();
+        Assert.assertTrue(channel.config().isAutoRead());
+
+        assertResponse(channel.readOutbound(), "first");
+        assertResponse(channel.readOutbound(), "second");
+        Assert.assertNull(channel.readOutbound());
+        channel.finishAndReleaseAll();
+    }
+
+    private static void assertResponse(final FullHttpResponse response, final String content) {
+        Assert.assertNotNull(response);
+        try {
+            Assert.assertEquals(response.status(), HttpResponseStatus.OK);
+            Assert.assertEquals(response.content().toString(CharsetUtil.UTF_8), content);
+        } finally {
+            response.release();
+        }
+    }
+
+    /**
+     * Executor runs tasks when the test asks for.
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        private void runNext() {
+            tasks.remove(0).run();
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -17,7 +17,7 @@ import org.b3log.latke.ioc.Singleton;
  * Processor for testing.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.3, Feb 9, 2020
+ * @version 1.1.0.0, Oct 17, 2026
  * @since 3.2.4
  */
 @Singleton
@@ -25,5 +25,13 @@ public class TestProcessor {
     public void a(final RequestContext context) {
         context.attr("a", "a");
     }
+
+    public void first(final RequestContext context) {
+        context.sendString("first");
+    }
+
+    public void second(final RequestContext context) {
+        context.sendString("second");
+    }
 }
 
@@ -0,0 +1,141 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http.handler;
+
+import org.b3log.latke.util.UriTemplates;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RouteTrie} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public class RouteTrieTestCase {
+
+    @Test
+    public void match() {
+        final RouteTrie routeTrie = new RouteTrie();
+        final ContextHandlerMeta root = new ContextHandlerMeta();
+        final ContextHandlerMeta articles = new ContextHandlerMeta();
+        final ContextHandlerMeta article = new ContextHandlerMeta();
+        final ContextHandlerMeta articleHtml = new ContextHandlerMeta();
+        final ContextHandlerMeta latest = new ContextHandlerMeta();
+        final ContextHandlerMeta comment = new ContextHandlerMeta();
+        final ContextHandlerMeta tag = new ContextHandlerMeta();
+        routeTrie.add("/", root);
+        routeTrie.add("/articles", articles);
+        routeTrie.add("/articles/{id}", article);
+        routeTrie.add("/articles/{id}.html", articleHtml);
+        routeTrie.add("/articles/latest", latest);
+        routeTrie.add("/articles/{articleId}/comments/{commentId}", comment);
+        routeTrie.add("/tags/{tagTitle}", tag);
+
+        Assert.assertSame(routeTrie.match("/", "GET").getContextHandlerMeta(), root);
+        Assert.assertSame(routeTrie.match("/articles", "GET").getContextHandlerMeta(), articles);
+        Assert.assertNull(routeTrie.match("/articles/", "GET"));
+
+        RouteResolution resolution = routeTrie.match("/articles/1", "GET");
+        Assert.assertSame(resolution.getContextHandlerMeta(), article);
+        Assert.assertEquals(resolution.getPathVars().get("id"), "1");
+        Assert.assertEquals(resolution.getMatchedUriTemplate(), "/articles/{id}");
+
+        // Static segment takes precedence
+        Assert.assertSame(routeTrie.match("/articles/latest", "GET").getContextHandlerMeta(), latest);
+
+        // Pattern with literal suffix takes precedence
+        resolution = routeTrie.match("/articles/1.html", "GET");
+        Assert.assertSame(resolution.getContextHandlerMeta(), articleHtml);
+        Assert.assertEquals(resolution.getPathVars().get("id"), "1");
+
+        // Backtracks to the path var branch
+        resolution = routeTrie.match("/articles/latest/comments/2", "GET");
+        Assert.assertSame(resolution.getContextHandlerMeta(), comment);
+        Assert.assertEquals(resolution.getPathVars().get("articleId"), "latest");
+        Assert.assertEquals(resolution.getPathVars().get("commentId"), "2");
+
+        // Trailing slash for path var routes
+        Assert.assertSame(routeTrie.match("/articles/1/", "GET").getContextHandlerMeta(), article);
+
+        resolution = routeTrie.match("/tags/%e7%94%9f%e6%b4%bb", "GET");
+        Assert.assertEquals(resolution.getPathVars().get("tagTitle"), "生活");
+
+        Assert.assertNull(routeTrie.match("/articles/1/comments", "GET"));
+        Assert.assertNull(routeTrie.match("/users/1", "GET"));
+    }
+
+    @Test
+    public void reuseCaptures() {
+        final RouteTrie deep = new RouteTrie();
+        deep.add("/a/{x}/b/{y}/c/{z}", new ContextHandlerMeta());
+        final RouteTrie shallow = new RouteTrie();
+        shallow.add("/{id}", new ContextHandlerMeta());
+        shallow.add("/static", new ContextHandlerMeta());
+
+        Assert.assertEquals(deep.match("/a/1/b/2/c/3", "GET").getPathVars().size(), 3);
+        Assert.assertEquals(shallow.match("/4", "GET").getPathVars(), Collections.singletonMap("id", "4"));
+        Assert.assertNull(deep.match("/a/1/b/2/d/3", "GET"));
+        Assert.assertEquals(deep.match("/a/5/b/6/c/7", "GET").getPathVars(), Map.of("x", "5", "y", "6", "z", "7"));
+        Assert.assertTrue(shallow.match("/static", "GET").getPathVars().isEmpty());
+    }
+
+    /**
+     * Benchmark over a few hundred routes, compares {@link RouteTrie} with resolving URI templates one by one.
+     */
+    @Test(groups = "benchmark")
+    public void benchmark() {
+        final RouteTrie routeTrie = new RouteTrie();
+        final List<String> uriTemplates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            uriTemplates.add("/module" + i);
+            uriTemplates.add("/module" + i + "/{id}");
+            uriTemplates.add("/module" + i + "/{id}/items/{itemId}");
+        }
+        for (final String uriTemplate : uriTemplates) {
+            routeTrie.add(uriTemplate, new ContextHandlerMeta());
+        }
+
+        final String[] uris = {"/module7", "/module42/123", "/module99/456/items/789", "/module100/1"};
+        final int loop = 100000;
+        long start = System.nanoTime();
+        int matched = 0;
+        for (int i = 0; i < loop; i++) {
+            if (null != routeTrie.match(uris[i % uris.length], "GET")) {
+                matched++;
+            }
+        }
+        final long trieNanos = System.nanoTime() - start;
+        Assert.assertEquals(matched, loop / uris.length * 3);
+
+        start = System.nanoTime();
+        matched = 0;
+        for (int i = 0; i < loop / 10; i++) {
+            final String uri = uris[i % uris.length];
+            for (final String uriTemplate : uriTemplates) {
+                final Map<String, String> pathVars = UriTemplates.resolve(uri, uriTemplate);
+                if (null != pathVars) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        final long resolveNanos = (System.nanoTime() - start) * 10;
+
+        System.out.println("Route trie [" + trieNanos / loop + "ns/op], resolving one by one [" + resolveNanos / loop + "ns/op]");
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http.renderer;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.http.MockRequest;
+import org.b3log.latke.http.Request;
+import org.b3log.latke.http.RequestContext;
+import org.b3log.latke.http.Response;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Direct FreeMarker rendering test case, compares allocations of rendering into a pooled buffer with rendering into a
+ * string.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 17, 2026
+ */
+public class FreeMarkerRenderTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void genPage() throws Exception {
+        final Template template = newTemplate();
+        final Request request = new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"));
+        final Map<String, Object> dataModel = newDataModel(8);
+
+        final String expected = new TestRenderer().genHTML(request, dataModel, template);
+        final ByteBuf page = AbstractFreeMarkerRenderer.genPage(request, dataModel, template);
+        try {
+            final String html = page.toString(CharsetUtil.UTF_8);
+            Assert.assertTrue(html.contains("<li>文章 7 😀</li>"));
+            Assert.assertTrue(html.contains("<!-- Generated by Latke"));
+            Assert.assertEquals(StringUtils.substringBefore(html, "<!--"), StringUtils.substringBefore(expected, "<!--"));
+        } finally {
+            page.release();
+        }
+    }
+
+    @Test
+    public void render() throws Exception {
+        Assert.assertTrue(AbstractFreeMarkerRenderer.isRenderDirect(TestRenderer.class));
+        Assert.assertFalse(AbstractFreeMarkerRenderer.isRenderDirect(StringRenderer.class));
+        Assert.assertFalse(AbstractFreeMarkerRenderer.isRenderDirect(InheritedStringRenderer.class));
+
+        final Template template = newTemplate();
+        final String direct = render(new TestRenderer(template));
+        final String string = render(new InheritedStringRenderer(template));
+        Assert.assertEquals(StringUtils.substringBefore(direct, "<!--"), StringUtils.substringBefore(string, "<!--"));
+    }
+
+    @Test
+    public void renderAfterRenderContent() throws Exception {
+        Assert.assertFalse(AbstractFreeMarkerRenderer.isKeepContent(TestRenderer.class));
+        Assert.assertTrue(AbstractFreeMarkerRenderer.isRenderDirect(ContentRenderer.class));
+        Assert.assertTrue(AbstractFreeMarkerRenderer.isKeepContent(ContentRenderer.class));
+
+        final ContentRenderer renderer = new ContentRenderer(newTemplate());
+        final String html = render(renderer);
+        Assert.assertEquals(renderer.content, html);
+    }
+
+    /**
+     * Renders with the specified renderer.
+     *
+     * @param renderer the specified renderer
+     * @return HTML written to the channel
+     */
+    private static String render(final AbstractFreeMarkerRenderer renderer) {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final Request request = new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"));
+        final Response response = new Response(channel.pipeline().firstContext(), new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        final RequestContext context = new RequestContext(request, response);
+        renderer.getRenderDataModel().putAll(newDataModel(2));
+        renderer.render(context);
+
+        final FullHttpResponse res = channel.readOutbound();
+        try {
+            Assert.assertEquals(res.status(), HttpResponseStatus.OK);
+            final String ret = res.content().toString(CharsetUtil.UTF_8);
+            Assert.assertTrue(ret.contains("<li>文章 1 😀</li>"));
+            Assert.assertTrue(ret.contains("<!-- Generated by Latke"));
+            return ret;
+        } finally {
+            res.release();
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    public void surrogatePairs() throws Exception {
+        final ByteBuf buffer = Unpooled.buffer();
+        final Utf8ByteBufWriter writer = new Utf8ByteBufWriter(buffer);
+        final String emoji = "a😀b";
+        writer.write(emoji.substring(0, 2));
+        writer.write(emoji.substring(2));
+        writer.write(emoji.toCharArray(), 0, 2);
+        writer.write(emoji.toCharArray(), 2, 2);
+        writer.close();
+        Assert.assertEquals(buffer.toString(CharsetUtil.UTF_8), emoji + emoji);
+    }
+
+    @Test
+    public void writeChar() {
+        final String text = "aé€😀b\uD83Dc\uDE00";
+        final ByteBuf buffer = Unpooled.buffer();
+        final Utf8ByteBufWriter writer = new Utf8ByteBufWriter(buffer);
+        for (int i = 0; i < text.length(); i++) {
+            writer.write(text.charAt(i));
+        }
+        writer.write('\uD83D'); // Lone high surrogate at the end
+        writer.close();
+
+        final ByteBuf expected = Unpooled.buffer();
+        ByteBufUtil.writeUtf8(expected, text + '\uD83D');
+        Assert.assertEquals(ByteBufUtil.getBytes(buffer), ByteBufUtil.getBytes(expected));
+    }
+
+    /**
+     * Allocation benchmark for typical page sizes.
+     */
+    @Test
+    public void allocations() throws Exception {
+        final Template template = newTemplate();
+        final Request request = new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"));
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        for (final int items : new int[]{100, 500, 2000}) {
+            final Map<String, Object> dataModel = newDataModel(items);
+            final int loop = 50;
+            int pageSize = 0;
+
+            // Warms up
+            for (int i = 0; i < loop; i++) {
+                renderString(request, dataModel, template);
+                AbstractFreeMarkerRenderer.genPage(request, dataModel, template).release();
+            }
+
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < loop; i++) {
+                pageSize = renderString(request, dataModel, template).readableBytes();
+            }
+            final long stringBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - start) / loop;
+
+            start = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < loop; i++) {
+                AbstractFreeMarkerRenderer.genPage(request, dataModel, template).release();
+            }
+            final long directBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - start) / loop;
+
+            System.out.println("Page [" + pageSize / 1024 + "KB], allocated per render: string [" + stringBytes / 1024
+                    + "KB], direct [" + directBytes / 1024 + "KB]");
+            Assert.assertTrue(directBytes < stringBytes);
+        }
+    }
+
+    /**
+     * Renders with the string based path: string writer, string builder, UTF-8 bytes and a copied buffer.
+     */
+    private static ByteBuf renderString(final Request request, final Map<String, Object> dataModel, final Template template) throws Exception {
+        final String html = new TestRenderer().genHTML(request, dataModel, template);
+        return Unpooled.copiedBuffer(org.apache.commons.codec.binary.StringUtils.getBytesUtf8(html));
+    }
+
+    private static Template newTemplate() throws Exception {
+        final String source = "<!DOCTYPE html><html><head><title>${title}</title></head><body><ul>"
+                + "<#list articles as article><li>${article.title}</li><div class=\"content\">${article.content}</div></#list>"
+                + "</ul></body></html>";
+        return new Template("test.ftl", new StringReader(source), new Configuration(Configuration.VERSION_2_3_29));
+    }
+
+    private static Map<String, Object> newDataModel(final int articleCnt) {
+        final Map<String, Object> ret = new HashMap<>();
+        ret.put("title", "Latke");
+        final List<Map<String, Object>> articles = new ArrayList<>();
+        for (int i = 0; i < articleCnt; i++) {
+            final Map<String, Object> article = new HashMap<>();
+            article.put("title", "文章 " + i + " 😀");
+            article.put("content", "Latke 是一款以 JSON 为主的 Java Web 框架。Latke is a simple and easy-to-use Java web application development framework.");
+            articles.add(article);
+        }
+        ret.put("articles", articles);
+        return ret;
+    }
+
+    private static class TestRenderer extends AbstractFreeMarkerRenderer {
+
+        private final Template template;
+
+        TestRenderer() {
+            this(null);
+        }
+
+        TestRenderer(final Template template) {
+            this.template = template;
+        }
+
+        @Override
+        protected void beforeRender(final org.b3log.latke.http.RequestContext context) {
+        }
+
+        @Override
+        protected Template getTemplate() {
+            return template;
+        }
+    }
+
+    private static final class ContentRenderer extends TestRenderer {
+
+        private String content;
+
+        ContentRenderer(final Template template) {
+            super(template);
+        }
+
+        @Override
+        protected void afterRender(final org.b3log.latke.http.RequestContext context) {
+            content = context.getResponse().getString();
+        }
+    }
+
+    private static class StringRenderer extends TestRenderer {
+
+        StringRenderer(final Template template) {
+            super(template);
+        }
+
+        @Override
+        protected String genHTML(final Request request, final Map<String, Object> dataModel, final Template template) throws Exception {
+            return super.genHTML(request, dataModel, template);
+        }
+    }
+
+    private static final class InheritedStringRenderer extends StringRenderer {
+
+        InheritedStringRenderer(final Template template) {
+            super(template);
+        }
+    }
+}
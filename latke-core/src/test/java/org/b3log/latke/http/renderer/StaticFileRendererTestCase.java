@@ -0,0 +1,172 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.http.renderer;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.HttpMethod;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.http.MockRequest;
+import org.b3log.latke.http.RequestContext;
+import org.b3log.latke.http.Response;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+
+/**
+ * {@link StaticFileRenderer} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public class StaticFileRendererTestCase {
+
+    /**
+     * File length.
+     */
+    private static final long LENGTH = 1000;
+
+    /**
+     * File last modified time.
+     */
+    private static final long LAST_MODIFIED = 1602940800000L;
+
+    /**
+     * ETag of the file.
+     */
+    private static final String ETAG = "\"" + Long.toHexString(LENGTH) + "-" + Long.toHexString(LAST_MODIFIED) + "\"";
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void notModified() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final RequestContext context = newContext(channel, HttpHeaderNames.IF_NONE_MATCH, "\"other\", " + ETAG);
+        Assert.assertNull(StaticFileRenderer.prepare(context, "/js/app.js", LENGTH, LAST_MODIFIED));
+        Assert.assertEquals(sentStatus(channel), HttpResponseStatus.NOT_MODIFIED);
+
+        final RequestContext modifiedSince = newContext(channel, HttpHeaderNames.IF_MODIFIED_SINCE, DateFormatter.format(new Date(LAST_MODIFIED + 999)));
+        Assert.assertNull(StaticFileRenderer.prepare(modifiedSince, "/js/app.js", LENGTH, LAST_MODIFIED));
+        Assert.assertEquals(sentStatus(channel), HttpResponseStatus.NOT_MODIFIED);
+
+        final RequestContext modified = newContext(channel, HttpHeaderNames.IF_MODIFIED_SINCE, DateFormatter.format(new Date(LAST_MODIFIED - 1000)));
+        Assert.assertEquals(StaticFileRenderer.prepare(modified, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{0, LENGTH - 1});
+    }
+
+    @Test
+    public void range() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final RequestContext context = newContext(channel, HttpHeaderNames.RANGE, "bytes=100-199");
+        Assert.assertEquals(StaticFileRenderer.prepare(context, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{100, 199});
+        Assert.assertEquals(context.getResponse().getHeader(HttpHeaderNames.CONTENT_RANGE.toString()), "bytes 100-199/1000");
+
+        final RequestContext open = newContext(channel, HttpHeaderNames.RANGE, "bytes=900-");
+        Assert.assertEquals(StaticFileRenderer.prepare(open, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{900, LENGTH - 1});
+    }
+
+    @Test
+    public void suffixRange() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final RequestContext context = newContext(channel, HttpHeaderNames.RANGE, "bytes=-100");
+        Assert.assertEquals(StaticFileRenderer.prepare(context, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{900, LENGTH - 1});
+        Assert.assertEquals(context.getResponse().getHeader(HttpHeaderNames.CONTENT_RANGE.toString()), "bytes 900-999/1000");
+
+        // Longer than the file, the whole file
+        final RequestContext whole = newContext(channel, HttpHeaderNames.RANGE, "bytes=-5000");
+        Assert.assertEquals(StaticFileRenderer.prepare(whole, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{0, LENGTH - 1});
+    }
+
+    @Test
+    public void rangeNotSatisfiable() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final RequestContext context = newContext(channel, HttpHeaderNames.RANGE, "bytes=1000-1100");
+        Assert.assertNull(StaticFileRenderer.prepare(context, "/js/app.js", LENGTH, LAST_MODIFIED));
+        final FullHttpResponse res = channel.readOutbound();
+        Assert.assertEquals(res.status(), HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        Assert.assertEquals(res.headers().get(HttpHeaderNames.CONTENT_RANGE), "bytes */1000");
+        res.release();
+    }
+
+    @Test
+    public void ifRange() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        final RequestContext mismatch = newContext(channel, HttpHeaderNames.RANGE, "bytes=100-199", HttpHeaderNames.IF_RANGE, "\"changed\"");
+        // The file has been changed, the whole file is sent
+        Assert.assertEquals(StaticFileRenderer.prepare(mismatch, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{0, LENGTH - 1});
+        Assert.assertNull(mismatch.getResponse().getHeader(HttpHeaderNames.CONTENT_RANGE.toString()));
+
+        final RequestContext match = newContext(channel, HttpHeaderNames.RANGE, "bytes=100-199", HttpHeaderNames.IF_RANGE, ETAG);
+        Assert.assertEquals(StaticFileRenderer.prepare(match, "/js/app.js", LENGTH, LAST_MODIFIED), new long[]{100, 199});
+    }
+
+    @Test
+    public void accepts() {
+        Assert.assertTrue(StaticFileRenderer.accepts("gzip, deflate, br", "br"));
+        Assert.assertTrue(StaticFileRenderer.accepts("GZIP", "gzip"));
+        Assert.assertTrue(StaticFileRenderer.accepts("br;q=0.5, gzip;q=1.0", "br"));
+        Assert.assertTrue(StaticFileRenderer.accepts("gzip; q=0.001", "gzip"));
+        Assert.assertFalse(StaticFileRenderer.accepts("gzip;q=0, br", "gzip"));
+        Assert.assertFalse(StaticFileRenderer.accepts("gzip;q=0.000", "gzip"));
+        Assert.assertFalse(StaticFileRenderer.accepts("x-gzip, deflate", "gzip"));
+        Assert.assertFalse(StaticFileRenderer.accepts(null, "gzip"));
+    }
+
+    @Test
+    public void refCntAfterEviction() throws Exception {
+        final StaticFileRenderer.CachedResource resource = StaticFileRenderer.getResource("/latke.properties");
+        Assert.assertEquals(resource.buffer.refCnt(), 2); // Held by the cache and the caller
+
+        final StaticFileRenderer.CachedResource cached = StaticFileRenderer.getResource("/latke.properties");
+        Assert.assertSame(cached, resource);
+        Assert.assertEquals(resource.buffer.refCnt(), 3);
+        cached.buffer.release();
+
+        StaticFileRenderer.evict(0, null);
+        // The caller still holds its reference
+        Assert.assertEquals(resource.buffer.refCnt(), 1);
+        Assert.assertTrue(resource.buffer.isReadable());
+        resource.buffer.release();
+        Assert.assertEquals(resource.buffer.refCnt(), 0);
+
+        // Loaded again after eviction
+        final StaticFileRenderer.CachedResource reloaded = StaticFileRenderer.getResource("/latke.properties");
+        Assert.assertNotSame(reloaded, resource);
+        Assert.assertEquals(reloaded.buffer.refCnt(), 2);
+        reloaded.buffer.release();
+    }
+
+    private static RequestContext newContext(final EmbeddedChannel channel, final CharSequence... headers) {
+        final FullHttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/js/app.js");
+        for (int i = 0; i < headers.length; i += 2) {
+            req.headers().set(headers[i], headers[i + 1]);
+        }
+        final Response response = new Response(channel.pipeline().firstContext(), new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        response.setKeepAlive(true);
+        return new RequestContext(new MockRequest(req), response);
+    }
+
+    private static HttpResponseStatus sentStatus(final EmbeddedChannel channel) {
+        final FullHttpResponse res = channel.readOutbound();
+        try {
+            return res.status();
+        } finally {
+            res.release();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.ioc;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BeanIndexProcessor} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 17, 2026
+ */
+public class BeanIndexProcessorTestCase {
+
+    @Test
+    public void process() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final Path output = Files.createTempDirectory("latke-bean-index");
+        final List<JavaFileObject> sources = Arrays.asList(
+                source("test.beans.ArticleService", "package test.beans; @org.b3log.latke.service.annotation.Service public class ArticleService { @org.b3log.latke.ioc.Singleton public static class Cache {} }"),
+                source("test.beans.AbstractRepository", "package test.beans; @org.b3log.latke.repository.annotation.Repository public abstract class AbstractRepository {}"),
+                source("test.beans.Util", "package test.beans; public class Util {}"));
+        final List<String> options = Arrays.asList("-d", output.toString(), "-classpath", System.getProperty("java.class.path"),
+                "-processor", BeanIndexProcessor.class.getName());
+        Assert.assertTrue(compiler.getTask(null, null, null, options, null, sources).call());
+
+        final List<String> lines = Files.readAllLines(output.resolve(BeanIndexProcessor.INDEX_LOCATION), StandardCharsets.UTF_8);
+        Assert.assertTrue(lines.contains("test.beans.ArticleService"));
+        Assert.assertTrue(lines.contains("test.beans.ArticleService$Cache"));
+        Assert.assertFalse(lines.contains("test.beans.AbstractRepository"));
+        Assert.assertFalse(lines.contains("test.beans.Util"));
+    }
+
+    @Test
+    public void processIncrementally() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final Path output = Files.createTempDirectory("latke-bean-index");
+        final List<String> options = Arrays.asList("-d", output.toString(), "-classpath", System.getProperty("java.class.path") + File.pathSeparator + output,
+                "-processor", BeanIndexProcessor.class.getName());
+        Assert.assertTrue(compiler.getTask(null, null, null, options, null, Arrays.asList(
+                source("test.incremental.KeptService", "package test.incremental; @org.b3log.latke.service.annotation.Service public class KeptService {}"),
+                source("test.incremental.FormerService", "package test.incremental; @org.b3log.latke.service.annotation.Service public class FormerService {}"))).call());
+
+        // The annotation of FormerService is removed, KeptService isn't recompiled
+        Assert.assertTrue(compiler.getTask(null, null, null, options, null, Arrays.asList(
+                source("test.incremental.FormerService", "package test.incremental; public class FormerService {}"),
+                source("test.incremental.NewService", "package test.incremental; @org.b3log.latke.service.annotation.Service public class NewService {}"))).call());
+
+        final List<String> lines = Files.readAllLines(output.resolve(BeanIndexProcessor.INDEX_LOCATION), StandardCharsets.UTF_8);
+        Assert.assertTrue(lines.contains("test.incremental.KeptService"));
+        Assert.assertTrue(lines.contains("test.incremental.NewService"));
+        Assert.assertFalse(lines.contains("test.incremental.FormerService"));
+    }
+
+    @Test
+    public void discoverMixedClassPath() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final String classPath = System.getProperty("java.class.path");
+        final Path indexed = Files.createTempDirectory("latke-indexed");
+        Assert.assertTrue(compiler.getTask(null, null, null, Arrays.asList("-d", indexed.toString(), "-classpath", classPath, "-processor", BeanIndexProcessor.class.getName()),
+                null, Arrays.asList(source("test.mixed.IndexedService", "package test.mixed; @org.b3log.latke.service.annotation.Service public class IndexedService {}"),
+                        source("test.indexed.OnlyService", "package test.indexed; @org.b3log.latke.service.annotation.Service public class OnlyService {}"))).call());
+        // Built without the annotation processor, for example a plugin jar
+        final Path scanned = Files.createTempDirectory("latke-scanned");
+        Assert.assertTrue(compiler.getTask(null, null, null, Arrays.asList("-d", scanned.toString(), "-classpath", classPath, "-proc:none"),
+                null, Collections.singletonList(source("test.mixed.ScannedService", "package test.mixed; @org.b3log.latke.service.annotation.Service public class ScannedService {}"))).call());
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader classLoader = thread.getContextClassLoader();
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{indexed.toUri().toURL(), scanned.toUri().toURL()}, classLoader)) {
+            thread.setContextClassLoader(loader);
+            final Collection<Class<?>> classes = Discoverer.discover("test.mixed,test.indexed");
+            final Set<String> names = classes.stream().map(Class::getName).collect(Collectors.toSet());
+            Assert.assertTrue(names.contains("test.mixed.IndexedService"));
+            Assert.assertTrue(names.contains("test.mixed.ScannedService"));
+            Assert.assertTrue(names.contains("test.indexed.OnlyService"));
+            final Map<String, Set<String>> indexes = Discoverer.readIndexes();
+            Assert.assertTrue(indexes.containsKey(indexed.toUri().toURL().toExternalForm()));
+
+            // Package paths whose class path roots are all indexed aren't resolved
+            Assert.assertTrue(Discoverer.isIndexed(indexes.keySet(), "test/indexed/"));
+            Assert.assertFalse(Discoverer.isIndexed(indexes.keySet(), "test/mixed/"));
+        } finally {
+            thread.setContextClassLoader(classLoader);
+        }
+    }
+
+    private static JavaFileObject source(final String className, final String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
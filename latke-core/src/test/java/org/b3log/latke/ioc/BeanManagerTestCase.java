@@ -0,0 +1,365 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.ioc;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.event.EventManager;
+import org.b3log.latke.http.MockRequest;
+import org.b3log.latke.http.MockResponse;
+import org.b3log.latke.http.RequestContext;
+import org.b3log.latke.http.handler.ContextHandlerMeta;
+import org.b3log.latke.service.annotation.Service;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link BeanManager} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.4.0.0, Oct 17, 2026
+ */
+public class BeanManagerTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void lookup() {
+        final BeanManager beanManager = BeanManager.getInstance();
+        final Bean<EventManager> bean = beanManager.getBean(EventManager.class);
+        Assert.assertEquals(bean.getBeanClass(), EventManager.class);
+        Assert.assertSame(beanManager.getReference(EventManager.class), beanManager.getReference(bean));
+        Assert.assertNull(beanManager.findBean(BeanManagerTestCase.class));
+        Assert.assertThrows(RuntimeException.class, () -> beanManager.getBean(BeanManagerTestCase.class));
+
+        Assert.assertTrue(beanManager.getBeans(Stereotype.class).isEmpty());
+    }
+
+    @Test
+    public void stereotypes() {
+        final BeanManager beanManager = new BeanManager();
+        beanManager.getConfigurator().createBeans(new ArrayList<>(Arrays.asList(ServiceBean.class, Dependency.class)));
+
+        final Set<Bean<?>> services = beanManager.getBeans(Service.class);
+        Assert.assertEquals(services, Collections.singleton(beanManager.getBean(ServiceBean.class)));
+        services.clear();
+        // Returns a copy
+        Assert.assertFalse(beanManager.getBeans(Service.class).isEmpty());
+        // Singleton is a scope, not a stereotype
+        Assert.assertTrue(beanManager.getBeans(Singleton.class).isEmpty());
+    }
+
+    @Test
+    public void instantiate() throws Exception {
+        final BeanManager beanManager = BeanManager.getInstance();
+        BeanManager.start(new ArrayList<>(Arrays.asList(Dependent.class, Dependency.class, LazyBean.class)));
+        Assert.assertEquals(Dependency.CREATED.get(), 1);
+        Assert.assertEquals(Dependent.CREATED.get(), 1);
+        Assert.assertEquals(LazyBean.CREATED.get(), 0);
+
+        final Dependent dependent = beanManager.getReference(Dependent.class);
+        Assert.assertSame(dependent.dependency, beanManager.getReference(Dependency.class));
+        Assert.assertEquals(Dependent.CREATED.get(), 1);
+
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final List<Future<LazyBean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return beanManager.getReference(LazyBean.class);
+                }));
+            }
+            latch.countDown();
+            final LazyBean lazyBean = futures.get(0).get();
+            for (final Future<LazyBean> future : futures) {
+                Assert.assertSame(future.get(), lazyBean);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(LazyBean.CREATED.get(), 1);
+    }
+
+    @Test
+    public void crossThreadCycle() throws Exception {
+        final BeanManager beanManager = new BeanManager();
+        beanManager.getConfigurator().createBeans(new ArrayList<>(Arrays.asList(CycleA.class, CycleB.class)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Each thread holds the lock of one bean and then waits for the other one, the cycle is detected instead
+            // of deadlocking. The bean creation failed is left with a null dependency or not created at all.
+            final Future<CycleA> a = executor.submit(() -> beanManager.getReference(CycleA.class));
+            final Future<CycleB> b = executor.submit(() -> beanManager.getReference(CycleB.class));
+            int broken = 0;
+            try {
+                broken += null == a.get(10, TimeUnit.SECONDS).b ? 1 : 0;
+            } catch (final ExecutionException e) {
+                broken++;
+            }
+            try {
+                broken += null == b.get(10, TimeUnit.SECONDS).a ? 1 : 0;
+            } catch (final ExecutionException e) {
+                broken++;
+            }
+            Assert.assertTrue(0 < broken);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void poolClassLoader() throws Exception {
+        final Thread current = Thread.currentThread();
+        final ClassLoader origin = current.getContextClassLoader();
+        final ClassLoader classLoader = new URLClassLoader(new URL[0], origin);
+        current.setContextClassLoader(classLoader);
+        final ExecutorService pool;
+        try {
+            pool = BeanManager.newPool(4);
+        } finally {
+            current.setContextClassLoader(origin);
+        }
+
+        try {
+            final List<Thread> threads = BeanManager.invokeAll(pool, Arrays.asList(1, 2, 3, 4), i -> Thread.currentThread());
+            for (final Thread thread : threads) {
+                Assert.assertSame(thread.getContextClassLoader(), classLoader);
+                Assert.assertTrue(thread.isDaemon());
+            }
+            Assert.assertEquals(BeanManager.invokeAll(pool, Arrays.asList(1, 2, 3), i -> i * 2), Arrays.asList(2, 4, 6));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Benchmark of bean lookups as the bean count grows into the hundreds, compares the index with scanning beans. The
+     * generated beans are added to an isolated bean manager.
+     *
+     * @throws Exception exception
+     */
+    @Test(groups = "benchmark")
+    public void lookupBenchmark() throws Exception {
+        final BeanManager beanManager = new BeanManager();
+        final ClassPool classPool = ClassPool.getDefault();
+        final List<Bean<?>> beans = new ArrayList<>();
+        int generated = 0;
+        for (final int beanCnt : new int[]{100, 300, 600}) {
+            final List<Class<?>> classes = new ArrayList<>();
+            for (; generated < beanCnt; generated++) {
+                final CtClass ctClass = classPool.makeClass(BeanManagerTestCase.class.getPackage().getName() + ".GeneratedBean" + generated);
+                ctClass.addConstructor(CtNewConstructor.defaultConstructor(ctClass));
+                classes.add(ctClass.toClass(BeanManagerTestCase.class));
+            }
+            beanManager.getConfigurator().createBeans(new ArrayList<>(classes));
+            for (final Class<?> clazz : classes) {
+                beans.add(beanManager.getBean(clazz));
+            }
+
+            final Class<?> last = classes.get(classes.size() - 1);
+            final Bean<?> bean = beanManager.getBean(last);
+            final int loop = 100000;
+            long start = System.nanoTime();
+            for (int i = 0; i < loop; i++) {
+                Assert.assertSame(beanManager.getBean(last), bean);
+            }
+            final long indexNanos = (System.nanoTime() - start) / loop;
+
+            // Scans beans as the lookup did before indexing
+            Collections.shuffle(beans);
+            start = System.nanoTime();
+            for (int i = 0; i < loop / 10; i++) {
+                for (final Bean<?> b : beans) {
+                    if (b.getBeanClass().equals(last)) {
+                        break;
+                    }
+                }
+            }
+            final long scanNanos = (System.nanoTime() - start) * 10 / loop;
+
+            System.out.println("Beans [" + beanCnt + "], index lookup [" + indexNanos + "ns/op], scanning [" + scanNanos + "ns/op]");
+        }
+        Assert.assertNull(BeanManager.getInstance().findBean(beans.get(0).getBeanClass()));
+    }
+
+    @Test
+    public void dispatch() throws Exception {
+        BeanManager.start(new ArrayList<>(Collections.singletonList(DispatchProcessor.class)));
+        final ContextHandlerMeta contextHandlerMeta = new ContextHandlerMeta();
+        contextHandlerMeta.setInvokeHolder(DispatchProcessor.class.getMethod("handle", RequestContext.class));
+        final RequestContext context = new RequestContext(new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/")),
+                new MockResponse(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK)));
+        final DispatchProcessor processor = BeanManager.getInstance().getReference(DispatchProcessor.class);
+
+        contextHandlerMeta.getInvoker().handle(context);
+        contextHandlerMeta.getInvoker().handle(context);
+        Assert.assertSame(contextHandlerMeta.getInvoker(), contextHandlerMeta.getInvoker());
+        Assert.assertEquals(processor.count, 2);
+    }
+
+    /**
+     * Benchmark of dispatching a request to a processor method, compares the cached invoker with looking up the
+     * processor and invoking the method reflectively per request.
+     *
+     * @throws Exception exception
+     */
+    @Test(groups = "benchmark")
+    public void dispatchBenchmark() throws Exception {
+        BeanManager.start(new ArrayList<>(Collections.singletonList(BenchmarkProcessor.class)));
+        final Method method = BenchmarkProcessor.class.getMethod("handle", RequestContext.class);
+        final ContextHandlerMeta contextHandlerMeta = new ContextHandlerMeta();
+        contextHandlerMeta.setInvokeHolder(method);
+        final RequestContext context = new RequestContext(new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/")),
+                new MockResponse(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK)));
+        final BenchmarkProcessor processor = BeanManager.getInstance().getReference(BenchmarkProcessor.class);
+
+        final int loop = 1000000;
+        for (int round = 0; round < 2; round++) { // The first round warms up
+            processor.count = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < loop; i++) {
+                contextHandlerMeta.getInvoker().handle(context);
+            }
+            final long invokerNanos = System.nanoTime() - start;
+
+            // Looks up the processor and invokes the method reflectively as the dispatch did before caching
+            start = System.nanoTime();
+            for (int i = 0; i < loop; i++) {
+                method.invoke(BeanManager.getInstance().getReference(method.getDeclaringClass()), context);
+            }
+            final long reflectionNanos = System.nanoTime() - start;
+
+            Assert.assertEquals(processor.count, loop * 2);
+            if (0 < round) {
+                System.out.println("Dispatch, cached invoker [" + invokerNanos / loop + "ns/op], lookup and reflection [" + reflectionNanos / loop + "ns/op]");
+            }
+        }
+    }
+
+    @Singleton
+    public static class BenchmarkProcessor {
+
+        int count;
+
+        public void handle(final RequestContext context) {
+            count++;
+        }
+    }
+
+    @Singleton
+    public static class DispatchProcessor {
+
+        int count;
+
+        public void handle(final RequestContext context) {
+            count++;
+        }
+    }
+
+    @Service
+    public static class ServiceBean {
+    }
+
+    public static class Dependency {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public Dependency() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    public static class Dependent {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        @Inject
+        Dependency dependency;
+
+        public Dependent() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    @Lazy
+    public static class LazyBean {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public LazyBean() {
+            CREATED.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Lazy
+    public static class CycleA {
+
+        static final CountDownLatch CREATING = new CountDownLatch(2);
+
+        @Inject
+        CycleB b;
+
+        public CycleA() {
+            awaitCreating();
+        }
+    }
+
+    @Lazy
+    public static class CycleB {
+
+        @Inject
+        CycleA a;
+
+        public CycleB() {
+            awaitCreating();
+        }
+    }
+
+    /**
+     * Waits until both cycle beans are being created, each by its own thread.
+     */
+    private static void awaitCreating() {
+        CycleA.CREATING.countDown();
+        try {
+            CycleA.CREATING.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.ioc;
+
+import org.b3log.latke.Latkes;
+import org.b3log.latke.repository.annotation.Transactional;
+import org.b3log.latke.repository.jdbc.JdbcRepository;
+import org.b3log.latke.repository.jdbc.JdbcTransaction;
+import org.b3log.latke.repository.jdbc.util.MockDataSource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link JavassistMethodHandler} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class JavassistMethodHandlerTestCase {
+
+    @BeforeTest
+    public void beforeTest() throws Exception {
+        Latkes.init();
+        MockDataSource.install();
+    }
+
+    @Test
+    public void readOnlyScope() throws Throwable {
+        final Scopes scopes = new Scopes();
+        scopes.call("readOnly");
+
+        Assert.assertEquals(scopes.scopes, Arrays.asList(
+                "readOnly [readOnly=true, tx=none]",
+                "readWrite [readOnly=true, tx=active]",
+                "innerReadOnly [readOnly=true, tx=active]",
+                "readWrite [readOnly=true, tx=active]",
+                "readOnly [readOnly=true, tx=none]"));
+        Assert.assertNull(JdbcRepository.READ_ONLY.get());
+        Assert.assertNull(JdbcRepository.TX.get());
+        Assert.assertNull(JdbcRepository.CONN.get());
+    }
+
+    @Test
+    public void readOnlyInTransaction() throws Throwable {
+        final Scopes scopes = new Scopes();
+        scopes.call("readWrite");
+
+        Assert.assertEquals(scopes.scopes, Arrays.asList(
+                "readWrite [readOnly=null, tx=active]",
+                "innerReadOnly [readOnly=null, tx=active]",
+                "readWrite [readOnly=null, tx=active]"));
+        Assert.assertNull(JdbcRepository.READ_ONLY.get());
+        Assert.assertNull(JdbcRepository.TX.get());
+    }
+
+    @Test
+    public void readOnlyScopeOnFailure() throws Throwable {
+        final Scopes scopes = new Scopes();
+        try {
+            scopes.call("failingReadOnly");
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "failingReadOnly");
+        }
+
+        Assert.assertEquals(scopes.scopes, Arrays.asList("failingReadOnly [readOnly=true, tx=none]"));
+        Assert.assertNull(JdbcRepository.READ_ONLY.get());
+    }
+
+    /**
+     * Records the scope of each call, the calls go through a method handler as they do through a bean proxy.
+     */
+    public static class Scopes {
+
+        final JavassistMethodHandler handler = new JavassistMethodHandler(BeanManager.getInstance());
+
+        final List<String> scopes = new ArrayList<>();
+
+        @Transactional(readOnly = true)
+        public void readOnly() throws Throwable {
+            record("readOnly");
+            call("readWrite");
+            record("readOnly");
+        }
+
+        @Transactional
+        public void readWrite() throws Throwable {
+            record("readWrite");
+            call("innerReadOnly");
+            record("readWrite");
+        }
+
+        @Transactional(readOnly = true)
+        public void innerReadOnly() {
+            record("innerReadOnly");
+        }
+
+        @Transactional(readOnly = true)
+        public void failingReadOnly() {
+            record("failingReadOnly");
+            throw new IllegalStateException("failingReadOnly");
+        }
+
+        void call(final String name) throws Throwable {
+            final Method method = Scopes.class.getMethod(name);
+            handler.invoke(this, method, method, new Object[0]);
+        }
+
+        private void record(final String name) {
+            final JdbcTransaction transaction = JdbcRepository.TX.get();
+            final String tx = null == transaction ? "none" : transaction.isActive() ? "active" : "inactive";
+            scopes.add(name + " [readOnly=" + JdbcRepository.READ_ONLY.get() + ", tx=" + tx + "]");
+        }
+    }
+}
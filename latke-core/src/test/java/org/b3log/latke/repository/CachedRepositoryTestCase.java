@@ -0,0 +1,340 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository;
+
+import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CachedRepository} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class CachedRepositoryTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void readThrough() throws Exception {
+        final MemoryRepository memoryRepository = new MemoryRepository("cachedReadThrough");
+        memoryRepository.records.put("1", record("1", 1));
+        memoryRepository.records.put("2", record("2", 2));
+        final CachedRepository repository = new CachedRepository(memoryRepository, 60);
+
+        final JSONObject r1 = repository.get("1");
+        Assert.assertEquals(r1.optInt("v"), 1);
+        r1.put("v", -1); // Doesn't change the cached record
+        Assert.assertEquals(repository.get("1").optInt("v"), 1);
+        Assert.assertEquals(repository.getMissCount(), 1);
+        Assert.assertEquals(repository.getHitCount(), 1);
+
+        final Map<String, JSONObject> records = repository.get(Arrays.asList("1", "2", "3"));
+        Assert.assertEquals(records.size(), 2);
+        Assert.assertEquals(repository.getMissCount(), 3);
+        Assert.assertTrue(repository.has("2"));
+        Assert.assertFalse(repository.has("3"));
+        Assert.assertEquals(memoryRepository.loadCount, 4); // Absent records are not cached
+    }
+
+    @Test
+    public void evictOnCommit() throws Exception {
+        final MemoryRepository memoryRepository = new MemoryRepository("cachedEvictOnCommit");
+        memoryRepository.records.put("1", record("1", 1));
+        final CachedRepository repository = new CachedRepository(memoryRepository, 60);
+        Assert.assertEquals(repository.get("1").optInt("v"), 1);
+
+        final Transaction transaction = repository.beginTransaction();
+        repository.update("1", record("1", 2));
+        // Another thread reads and caches the committed record before the commit
+        Assert.assertEquals(CompletableFuture.supplyAsync(() -> getV(repository, "1")).get().intValue(), 1);
+        Assert.assertEquals(CompletableFuture.supplyAsync(() -> getV(repository, "1")).get().intValue(), 1);
+        transaction.commit();
+
+        Assert.assertEquals(repository.get("1").optInt("v"), 2);
+    }
+
+    @Test
+    public void rollback() throws Exception {
+        final MemoryRepository memoryRepository = new MemoryRepository("cachedRollback");
+        memoryRepository.records.put("1", record("1", 1));
+        final CachedRepository repository = new CachedRepository(memoryRepository, 60);
+        Assert.assertEquals(repository.get("1").optInt("v"), 1);
+
+        final Transaction transaction = repository.beginTransaction();
+        repository.update("1", record("1", 2));
+        // Uncommitted records are not cached
+        Assert.assertEquals(repository.get("1").optInt("v"), 2);
+        transaction.rollback();
+
+        Assert.assertEquals(repository.get("1").optInt("v"), 1);
+    }
+
+    @Test
+    public void staleLoad() throws Exception {
+        final MemoryRepository memoryRepository = new MemoryRepository("cachedStaleLoad");
+        memoryRepository.records.put("1", record("1", 1));
+        memoryRepository.records.put("2", record("2", 2));
+        final CachedRepository repository = new CachedRepository(memoryRepository, 60);
+
+        // Updated and committed after the record has been loaded, but before it's cached
+        memoryRepository.afterLoad = () -> update(repository, "1", 10);
+        Assert.assertEquals(repository.get("1").optInt("v"), 1);
+        memoryRepository.afterLoad = null;
+        Assert.assertEquals(repository.get("1").optInt("v"), 10);
+
+        memoryRepository.afterLoad = () -> update(repository, "2", 20);
+        Assert.assertEquals(repository.get(Arrays.asList("1", "2")).get("2").optInt("v"), 2);
+        memoryRepository.afterLoad = null;
+        Assert.assertEquals(repository.get(Arrays.asList("1", "2")).get("2").optInt("v"), 20);
+    }
+
+    private static JSONObject record(final String id, final int v) {
+        return new JSONObject().put(Keys.OBJECT_ID, id).put("v", v);
+    }
+
+    private static int getV(final Repository repository, final String id) {
+        try {
+            return repository.get(id).optInt("v");
+        } catch (final RepositoryException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(final Repository repository, final String id, final int v) {
+        try {
+            repository.update(id, record(id, v));
+        } catch (final RepositoryException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * In-memory repository, transactions are bound to threads and buffer the updates until committed.
+     */
+    private static final class MemoryRepository implements Repository {
+
+        private final String name;
+
+        private final Map<String, JSONObject> records = new HashMap<>();
+
+        private final ThreadLocal<MemoryTransaction> transaction = new ThreadLocal<>();
+
+        private int loadCount;
+
+        private Runnable afterLoad;
+
+        private MemoryRepository(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String add(final JSONObject jsonObject) {
+            update(jsonObject.optString(Keys.OBJECT_ID), jsonObject);
+            return jsonObject.optString(Keys.OBJECT_ID);
+        }
+
+        @Override
+        public void update(final String id, final JSONObject jsonObject, final String... propertyNames) {
+            final MemoryTransaction tx = transaction.get();
+            if (null != tx) {
+                tx.updates.put(id, jsonObject);
+            } else {
+                synchronized (records) {
+                    records.put(id, jsonObject);
+                }
+            }
+        }
+
+        @Override
+        public void update(final String id, final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) {
+            update(id, jsonObject);
+        }
+
+        @Override
+        public List<String> addAll(final List<JSONObject> jsonObjects) {
+            final List<String> ret = new ArrayList<>();
+            for (final JSONObject jsonObject : jsonObjects) {
+                ret.add(add(jsonObject));
+            }
+            return ret;
+        }
+
+        @Override
+        public void updateAll(final List<JSONObject> jsonObjects, final String... propertyNames) {
+            addAll(jsonObjects);
+        }
+
+        @Override
+        public void remove(final String id) {
+            synchronized (records) {
+                records.remove(id);
+            }
+        }
+
+        @Override
+        public void remove(final Query query) {
+            synchronized (records) {
+                records.clear();
+            }
+        }
+
+        @Override
+        public JSONObject get(final String id) {
+            final JSONObject ret = load(id);
+            if (null != afterLoad) {
+                afterLoad.run();
+            }
+            return ret;
+        }
+
+        @Override
+        public Map<String, JSONObject> get(final Iterable<String> ids) {
+            final Map<String, JSONObject> ret = new HashMap<>();
+            for (final String id : ids) {
+                final JSONObject record = load(id);
+                if (null != record) {
+                    ret.put(id, record);
+                }
+            }
+            if (null != afterLoad) {
+                afterLoad.run();
+            }
+            return ret;
+        }
+
+        private JSONObject load(final String id) {
+            loadCount++;
+            final MemoryTransaction tx = transaction.get();
+            if (null != tx && tx.updates.containsKey(id)) {
+                return new JSONObject(tx.updates.get(id).toString());
+            }
+            synchronized (records) {
+                final JSONObject ret = records.get(id);
+                return null == ret ? null : new JSONObject(ret.toString());
+            }
+        }
+
+        @Override
+        public boolean has(final String id) {
+            return null != get(id);
+        }
+
+        @Override
+        public JSONObject get(final Query query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<JSONObject> select(final String statement, final Object... params) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<JSONObject> getRandomly(final int fetchSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long count() {
+            return records.size();
+        }
+
+        @Override
+        public long count(final Query query) {
+            return records.size();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Transaction beginTransaction() {
+            MemoryTransaction ret = transaction.get();
+            if (null == ret) {
+                ret = new MemoryTransaction();
+                transaction.set(ret);
+            }
+            return ret;
+        }
+
+        @Override
+        public boolean hasTransactionBegun() {
+            return null != transaction.get();
+        }
+
+        @Override
+        public boolean isWritable() {
+            return true;
+        }
+
+        @Override
+        public void setWritable(final boolean writable) {
+        }
+
+        @Override
+        public void setDebug(final boolean debugEnabled) {
+        }
+
+        /**
+         * Transaction of the memory repository.
+         */
+        private final class MemoryTransaction implements Transaction {
+
+            private final Map<String, JSONObject> updates = new HashMap<>();
+
+            private final List<Runnable> callbacks = new ArrayList<>();
+
+            @Override
+            public void commit() {
+                synchronized (records) {
+                    records.putAll(updates);
+                }
+                complete();
+            }
+
+            @Override
+            public void rollback() {
+                complete();
+            }
+
+            @Override
+            public void afterCompletion(final Runnable callback) {
+                callbacks.add(callback);
+            }
+
+            @Override
+            public boolean isActive() {
+                return this == transaction.get();
+            }
+
+            private void complete() {
+                transaction.remove();
+                for (final Runnable callback : callbacks) {
+                    callback.run();
+                }
+            }
+        }
+    }
+}
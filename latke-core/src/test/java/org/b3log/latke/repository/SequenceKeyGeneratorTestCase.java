@@ -0,0 +1,150 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link SequenceKeyGenerator} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public final class SequenceKeyGeneratorTestCase {
+
+    /**
+     * Thread count of the contention test.
+     */
+    private static final int THREAD_CNT = 8;
+
+    /**
+     * Key count generated by each thread.
+     */
+    private static final int KEY_CNT_PER_THREAD = 20000;
+
+    /**
+     * Tests method {@link SequenceKeyGenerator#gen()}.
+     */
+    @Test
+    public void gen() {
+        final SequenceKeyGenerator keyGenerator = new SequenceKeyGenerator(7);
+        final long now = System.currentTimeMillis();
+        final String key = keyGenerator.gen();
+        Assert.assertEquals(key.length(), 18);
+        Assert.assertEquals(key.substring(13, 15), "07");
+        Assert.assertTrue(SequenceKeyGenerator.getTimeMillis(key) >= now);
+
+        String prev = key;
+        for (int i = 0; i < 5000; i++) {
+            final String next = keyGenerator.gen();
+            Assert.assertTrue(next.compareTo(prev) > 0, next + " should be greater than " + prev);
+            Assert.assertTrue(Long.parseLong(next) > Long.parseLong(prev));
+            prev = next;
+        }
+
+        Assert.assertEquals(SequenceKeyGenerator.getTimeMillis("1602940800000"), 1602940800000L);
+        Assert.assertThrows(IllegalArgumentException.class, () -> new SequenceKeyGenerator(100));
+    }
+
+    /**
+     * Tests method {@link SequenceKeyGenerator#gen()} under contention, keys are unique and increasing in each thread.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void contention() throws Exception {
+        run(new SequenceKeyGenerator(1), KEY_CNT_PER_THREAD, true);
+    }
+
+    /**
+     * Contention benchmark, compares {@link SequenceKeyGenerator} with a lock based generator of the same key format.
+     * {@link TimeMillisKeyGenerator} is not compared as it sleeps for each key.
+     *
+     * @throws Exception exception
+     */
+    @Test(groups = "benchmark")
+    public void contentionBenchmark() throws Exception {
+        final int rounds = 5;
+        final SequenceKeyGenerator sequenceKeyGenerator = new SequenceKeyGenerator(1);
+        final KeyGenerator<String> lockKeyGenerator = new KeyGenerator<>() {
+            private long last;
+
+            @Override
+            public synchronized String gen() {
+                last = Math.max(System.currentTimeMillis() * 1000, last + 1);
+                return String.format("%d01%03d", last / 1000, last % 1000);
+            }
+        };
+        for (int i = 0; i < rounds; i++) { // warm up
+            run(sequenceKeyGenerator, KEY_CNT_PER_THREAD, false);
+            run(lockKeyGenerator, KEY_CNT_PER_THREAD, false);
+        }
+
+        long sequenceElapsed = 0, lockElapsed = 0;
+        for (int i = 0; i < rounds; i++) {
+            sequenceElapsed += run(sequenceKeyGenerator, KEY_CNT_PER_THREAD, false);
+            lockElapsed += run(lockKeyGenerator, KEY_CNT_PER_THREAD, false);
+        }
+        final long keyCnt = (long) rounds * THREAD_CNT * KEY_CNT_PER_THREAD;
+        System.out.println("Sequence key generator [" + keyCnt * 1000 / Math.max(sequenceElapsed, 1) + " keys/s], lock key generator ["
+                + keyCnt * 1000 / Math.max(lockElapsed, 1) + " keys/s]");
+    }
+
+    /**
+     * Generates keys concurrently with the specified key generator.
+     *
+     * @param keyGenerator    the specified key generator
+     * @param keyCntPerThread the specified key count generated by each thread
+     * @param check           whether checks uniqueness and monotonicity of the generated keys
+     * @return elapsed time in milliseconds
+     * @throws Exception exception
+     */
+    private static long run(final KeyGenerator<?> keyGenerator, final int keyCntPerThread, final boolean check) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_CNT);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_CNT; i++) {
+            futures.add(executorService.submit(() -> {
+                final List<String> ret = new ArrayList<>(keyCntPerThread);
+                startLatch.await();
+                for (int j = 0; j < keyCntPerThread; j++) {
+                    ret.add((String) keyGenerator.gen());
+                }
+                return ret;
+            }));
+        }
+
+        final long start = System.currentTimeMillis();
+        startLatch.countDown();
+        final Set<String> keys = new HashSet<>();
+        for (final Future<List<String>> future : futures) {
+            final List<String> threadKeys = future.get();
+            if (check) {
+                for (int i = 1; i < threadKeys.size(); i++) {
+                    Assert.assertTrue(threadKeys.get(i).compareTo(threadKeys.get(i - 1)) > 0);
+                }
+            }
+            keys.addAll(threadKeys);
+        }
+        final long ret = System.currentTimeMillis() - start;
+        executorService.shutdown();
+
+        if (check) {
+            Assert.assertEquals(keys.size(), THREAD_CNT * keyCntPerThread);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import org.b3log.latke.Latkes;
+import org.b3log.latke.repository.*;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CompiledSql} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public class CompiledSqlTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void shape() {
+        final CompiledSql.Shape shape = CompiledSql.shape("article", newQuery("a", Arrays.asList("1", "2")));
+        Assert.assertEquals(CompiledSql.shape("article", newQuery("b", Arrays.asList("3", "4"))), shape);
+        Assert.assertEquals(CompiledSql.shape("article", newQuery("b", Arrays.asList("3", "4"))).hashCode(), shape.hashCode());
+
+        Assert.assertNotEquals(CompiledSql.shape("comment", newQuery("a", Arrays.asList("1", "2"))), shape);
+        Assert.assertNotEquals(CompiledSql.shape("article", newQuery("a", Arrays.asList("1", "2", "3"))), shape);
+        Assert.assertNotEquals(CompiledSql.shape("article", newQuery("a", Arrays.asList("1", "2")).addSort("id", SortDirection.ASCENDING)), shape);
+        Assert.assertNotEquals(CompiledSql.shape("article", newQuery("a", Arrays.asList("1", "2")).setSeek(null, "1")), shape);
+
+        // The same keys in a different nesting
+        final Query nested = new Query().setFilter(CompositeFilterOperator.and(
+                CompositeFilterOperator.or(new PropertyFilter("title", FilterOperator.EQUAL, "a"), new PropertyFilter("oId", FilterOperator.IN, Arrays.asList("1", "2")))));
+        Assert.assertNotEquals(CompiledSql.shape("article", nested), shape);
+    }
+
+    @Test
+    public void bindIn() {
+        final List<Object> params = new ArrayList<>();
+        CompiledSql.bind(new PropertyFilter("oId", FilterOperator.IN, new TreeSet<>(Arrays.asList("2", "1"))), params);
+        Assert.assertEquals(params.subList(0, 2), Arrays.asList("1", "2"));
+    }
+
+    @Test
+    public void pageSql() {
+        final AtomicInteger built = new AtomicInteger();
+        final JdbcDatabase database = (JdbcDatabase) Proxy.newProxyInstance(JdbcDatabase.class.getClassLoader(), new Class<?>[]{JdbcDatabase.class}, (proxy, method, args) -> {
+            if (!"queryPage".equals(method.getName())) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            built.incrementAndGet();
+            return args[2] + " FROM " + args[5] + " WHERE " + args[3] + args[4] + " LIMIT " + args[0] + "," + ((int) args[1] - (int) args[0]);
+        });
+        final CompiledSql compiledSql = new CompiledSql("article", "SELECT *", "title = ?", " ORDER BY oId DESC", null, false);
+        final String page = compiledSql.getPageSql(database, 0, 10);
+        Assert.assertEquals(page, "SELECT * FROM article WHERE title = ? ORDER BY oId DESC LIMIT 0,10");
+        Assert.assertSame(compiledSql.getPageSql(database, 0, 10), page);
+        Assert.assertEquals(built.get(), 1);
+
+        Assert.assertEquals(compiledSql.getPageSql(database, 10, 20), "SELECT * FROM article WHERE title = ? ORDER BY oId DESC LIMIT 10,10");
+        Assert.assertEquals(built.get(), 2);
+
+        // Pages beyond the cached ones are built every time
+        for (int i = 2; i < 32; i++) {
+            compiledSql.getPageSql(database, i * 10, i * 10 + 10);
+        }
+        final int builtCnt = built.get();
+        compiledSql.getPageSql(database, 310, 320);
+        Assert.assertEquals(built.get(), builtCnt + 1);
+        compiledSql.getPageSql(database, 0, 10);
+        Assert.assertEquals(built.get(), builtCnt + 1);
+    }
+
+    private static Query newQuery(final String title, final Object ids) {
+        return new Query().setFilter(CompositeFilterOperator.or(
+                new PropertyFilter("title", FilterOperator.EQUAL, title), new PropertyFilter("oId", FilterOperator.IN, ids)));
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.repository.*;
+import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+import org.b3log.latke.repository.jdbc.util.MockDataSource;
+import org.b3log.latke.repository.jdbc.util.RepositoryDefinition;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * {@link JdbcRepository} connection handling test case, uses {@link MockDataSource} instead of a database.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.5.0.0, Oct 17, 2026
+ */
+public class JdbcRepositoryTestCase {
+
+    @BeforeTest
+    public void beforeTest() throws Exception {
+        Latkes.init();
+        MockDataSource.install();
+    }
+
+    @Test
+    public void release() throws Exception {
+        final JdbcRepository repository = new JdbcRepository("test");
+        try {
+            final Connection connection = repository.getConnection(false);
+            Assert.assertSame(JdbcRepository.CONN.get(), connection);
+            JdbcRepository.release(connection);
+            Assert.assertFalse(connection.isClosed());
+            Assert.assertSame(repository.getConnection(false), connection);
+
+            final JdbcTransaction transaction = new JdbcTransaction();
+            JdbcRepository.TX.set(transaction);
+            final Connection txConnection = repository.getConnection(true);
+            Assert.assertSame(txConnection, transaction.getConnection());
+            JdbcRepository.release(txConnection);
+            Assert.assertFalse(txConnection.isClosed());
+            transaction.commit();
+            Assert.assertNull(JdbcRepository.TX.get());
+
+            final Connection readOnlyConnection = repository.getConnection(true);
+            Assert.assertNotSame(readOnlyConnection, connection);
+            Assert.assertTrue(readOnlyConnection.getAutoCommit());
+            JdbcRepository.release(readOnlyConnection);
+            Assert.assertTrue(readOnlyConnection.isClosed());
+            Assert.assertFalse(connection.isClosed());
+
+            JdbcRepository.READ_ONLY.set(Boolean.TRUE);
+            final Connection scopeConnection = repository.getConnection(false);
+            Assert.assertNotSame(scopeConnection, connection);
+            JdbcRepository.release(scopeConnection);
+            Assert.assertTrue(scopeConnection.isClosed());
+        } finally {
+            JdbcRepository.READ_ONLY.remove();
+            JdbcRepository.dispose();
+        }
+        Assert.assertNull(JdbcRepository.CONN.get());
+    }
+
+    @Test
+    public void readOnlyConnectionFailure() throws Exception {
+        final JdbcRepository repository = new JdbcRepository("test");
+        MockDataSource.FAIL_AUTO_COMMIT.set(Boolean.TRUE);
+        try {
+            Assert.expectThrows(RepositoryException.class, () -> repository.getConnection(true));
+        } finally {
+            MockDataSource.FAIL_AUTO_COMMIT.remove();
+        }
+    }
+
+    @Test
+    public void updateAllWithoutProperty() throws Exception {
+        final JdbcRepository repository = new JdbcRepository("test");
+        final JdbcTransaction transaction = new JdbcTransaction();
+        JdbcRepository.TX.set(transaction);
+        try {
+            final List<JSONObject> records = Arrays.asList(
+                    new JSONObject().put(Keys.OBJECT_ID, "1").put("title", "a").put("content", "a"),
+                    new JSONObject().put(Keys.OBJECT_ID, "2").put("title", "b"));
+            final RepositoryException e = Assert.expectThrows(RepositoryException.class, () -> repository.updateAll(records, "title", "content"));
+            Assert.assertTrue(e.getMessage().contains("[id=2]"));
+            Assert.assertTrue(e.getMessage().contains("[content]"));
+        } finally {
+            transaction.rollback();
+            JdbcRepository.dispose();
+        }
+    }
+
+    @Test
+    public void updateWithNullSnapshot() throws Exception {
+        final List<MockDataSource.Execution> executions = update(null, new JSONObject().put("title", "a").put("content", "a"), "title");
+        Assert.assertEquals(executions.size(), 1);
+        final String sql = executions.get(0).getSql();
+        Assert.assertTrue(sql.startsWith("UPDATE `test` SET "));
+        Assert.assertTrue(sql.contains("`title` = ?"));
+        Assert.assertTrue(sql.contains("`content` = ?"));
+        Assert.assertEquals(executions.get(0).getParams().size(), 3);
+        Assert.assertEquals(executions.get(0).getParams().get(2), "1");
+    }
+
+    @Test
+    public void updateWithUnchangedSnapshot() throws Exception {
+        final JSONObject oldJsonObject = new JSONObject().put("title", "a").put("commentCount", 1L).put("price", new BigDecimal("1.00")).
+                put("meta", new JSONObject().put("tags", new JSONArray().put("a"))).put("published", true);
+        final JSONObject jsonObject = new JSONObject().put("title", "a").put("commentCount", 1).put("price", 1.0D).
+                put("meta", new JSONObject().put("tags", new JSONArray().put("a"))).put("published", true);
+        Assert.assertTrue(update(oldJsonObject, jsonObject).isEmpty());
+    }
+
+    @Test
+    public void updateNestedObject() throws Exception {
+        final JSONObject oldJsonObject = new JSONObject().put("title", "a").put("meta", new JSONObject().put("views", 1));
+        List<MockDataSource.Execution> executions = update(oldJsonObject, new JSONObject().put("title", "a").put("meta", new JSONObject().put("views", 2)));
+        Assert.assertEquals(executions.size(), 1);
+        Assert.assertEquals(executions.get(0).getSql(), "UPDATE `test` SET `meta` = ? WHERE oId = ?");
+
+        // A nested object shared with the snapshot may have been changed in place
+        final JSONObject shared = new JSONObject().put("views", 1);
+        executions = update(new JSONObject().put("meta", shared), new JSONObject().put("meta", shared));
+        Assert.assertEquals(executions.size(), 1);
+        Assert.assertEquals(executions.get(0).getSql(), "UPDATE `test` SET `meta` = ? WHERE oId = ?");
+    }
+
+    @Test
+    public void updateOutsidePropertyNames() throws Exception {
+        final JSONObject oldJsonObject = new JSONObject().put("title", "a").put("content", "a");
+        final List<MockDataSource.Execution> executions = update(oldJsonObject, new JSONObject().put("title", "b").put("content", "b"), "title");
+        Assert.assertEquals(executions.size(), 1);
+        Assert.assertEquals(executions.get(0).getSql(), "UPDATE `test` SET `title` = ? WHERE oId = ?");
+        Assert.assertEquals(executions.get(0).getParams(), Arrays.asList("b", "1"));
+    }
+
+    @Test
+    public void multiGetBatches() throws Exception {
+        List<MockDataSource.Execution> executions = new ArrayList<>();
+        Map<String, JSONObject> records = multiGet(ids(JdbcRepository.MULTI_GET_BATCH_SIZE), executions, id -> true);
+        Assert.assertEquals(executions.size(), 1);
+        Assert.assertEquals(executions.get(0).getParams().size(), JdbcRepository.MULTI_GET_BATCH_SIZE);
+        Assert.assertEquals(records.size(), JdbcRepository.MULTI_GET_BATCH_SIZE);
+
+        executions = new ArrayList<>();
+        records = multiGet(ids(JdbcRepository.MULTI_GET_BATCH_SIZE + 1), executions, id -> true);
+        Assert.assertEquals(executions.size(), 2);
+        Assert.assertEquals(executions.get(0).getParams().size(), JdbcRepository.MULTI_GET_BATCH_SIZE);
+        Assert.assertEquals(executions.get(1).getParams(), Collections.singletonList(String.valueOf(JdbcRepository.MULTI_GET_BATCH_SIZE)));
+        Assert.assertEquals(records.size(), JdbcRepository.MULTI_GET_BATCH_SIZE + 1);
+        Assert.assertEquals(records.get("0").optString("articleTitle"), "Title 0");
+    }
+
+    @Test
+    public void multiGetDuplicateAndBlankIds() throws Exception {
+        final List<MockDataSource.Execution> executions = new ArrayList<>();
+        final Map<String, JSONObject> records = multiGet(Arrays.asList("1", "", null, " ", "1", "2"), executions, id -> true);
+        Assert.assertEquals(executions.size(), 1);
+        Assert.assertTrue(executions.get(0).getSql().startsWith("SELECT * FROM `article` WHERE oId IN (?,?)"));
+        Assert.assertEquals(executions.get(0).getParams(), Arrays.asList("1", "2"));
+        Assert.assertEquals(records.keySet(), new HashSet<>(Arrays.asList("1", "2")));
+
+        executions.clear();
+        Assert.assertTrue(multiGet(Arrays.asList("", null), executions, id -> true).isEmpty());
+        Assert.assertTrue(executions.isEmpty());
+    }
+
+    @Test
+    public void multiGetMissingIds() throws Exception {
+        final Map<String, JSONObject> records = multiGet(Arrays.asList("1", "2", "3"), new ArrayList<>(), id -> !"2".equals(id));
+        Assert.assertEquals(records.keySet(), new HashSet<>(Arrays.asList("1", "3")));
+        Assert.assertFalse(records.containsKey("2"));
+    }
+
+    @Test
+    public void multiGetSoftDelete() throws Exception {
+        final List<MockDataSource.Execution> executions = new ArrayList<>();
+        Repositories.setSoftDelete(true);
+        try {
+            multiGet(Arrays.asList("1", "2"), executions, id -> true);
+        } finally {
+            Repositories.setSoftDelete(false);
+        }
+        Assert.assertEquals(executions.get(0).getSql(), "SELECT * FROM `article` WHERE oId IN (?,?) AND `" + JdbcRepositories.softDeleteFieldName + "` = 0");
+
+        executions.clear();
+        multiGet(Arrays.asList("1", "2"), executions, id -> true);
+        Assert.assertFalse(executions.get(0).getSql().contains(JdbcRepositories.softDeleteFieldName));
+    }
+
+    @Test
+    public void seekPage() throws Exception {
+        for (final AbstractJdbcDatabaseSolution database : new AbstractJdbcDatabaseSolution[]{new MySQLDatabase(), new H2Database()}) {
+            final String table = database instanceof MySQLDatabase ? "`article`" : "article";
+            final List<MockDataSource.Execution> executions = get(new JdbcRepository("article", database), new Query().setFilter(new PropertyFilter("articleTitle", FilterOperator.EQUAL, "a")).
+                    addSort("articleCreateDate", SortDirection.DESCENDING).setSeek(100L, "9").setPage(3, 10));
+
+            // Seeking doesn't count and always starts from the first row after the seek row
+            Assert.assertEquals(executions.size(), 1);
+            final MockDataSource.Execution execution = executions.get(0);
+            final String sql = execution.getSql();
+            final List<Object> params = execution.getParams();
+            // The filter may carry the soft delete condition toggled by other tests
+            Assert.assertTrue(sql.matches(Pattern.quote("SELECT  *  FROM " + table + " WHERE ") + "\\(+articleTitle = \\?( AND oDeleted = \\?)?\\)+"
+                    + Pattern.quote(" AND (articleCreateDate, oId) < (?, ?) ORDER BY articleCreateDate DESC, oId DESC LIMIT 0,10")), sql);
+            Assert.assertEquals(params.get(0), "a");
+            Assert.assertEquals(params.subList(params.size() - 2, params.size()), Arrays.asList(100L, "9"));
+
+            // Sorted by the key only
+            final List<MockDataSource.Execution> keyExecutions = get(new JdbcRepository("article", database), new Query().setSeek(null, "9").setPageSize(20));
+            Assert.assertEquals(keyExecutions.size(), 1);
+            final String keySql = keyExecutions.get(0).getSql();
+            final List<Object> keyParams = keyExecutions.get(0).getParams();
+            Assert.assertTrue(keySql.startsWith("SELECT  *  FROM " + table + " WHERE "), keySql);
+            Assert.assertTrue(keySql.endsWith("oId < ? ORDER BY oId DESC LIMIT 0,20"), keySql);
+            Assert.assertEquals(keyParams.get(keyParams.size() - 1), "9");
+        }
+    }
+
+    @Test
+    public void seekWithoutSortValue() {
+        final Query query = new Query().addSort("articleCreateDate", SortDirection.DESCENDING).setSeek(null, "9");
+        Assert.assertThrows(IllegalArgumentException.class, () -> get(new JdbcRepository("article", new MySQLDatabase()), query));
+    }
+
+    /**
+     * Runs after {@link #multiGetSoftDelete()} as toggling soft delete changes the count SQL which keys the cache.
+     */
+    @Test(dependsOnMethods = "multiGetSoftDelete")
+    public void countCacheEviction() throws Exception {
+        final JdbcRepository repository = new JdbcRepository("article", new MySQLDatabase());
+        final Query query = new Query().setFilter(new PropertyFilter("articleTitle", FilterOperator.EQUAL, "countCacheEviction")).setCountCacheSeconds(60);
+        Assert.assertEquals(counts(get(repository, query)), 1);
+        Assert.assertEquals(counts(get(repository, query)), 0);
+
+        final List<MockDataSource.Execution> executions = new ArrayList<>();
+        MockDataSource.EXECUTIONS.set(executions);
+        final JdbcTransaction transaction = new JdbcTransaction();
+        JdbcRepository.TX.set(transaction);
+        try {
+            repository.update("1", new JSONObject().put("articleTitle", "countCacheEviction"));
+        } finally {
+            MockDataSource.EXECUTIONS.remove();
+            transaction.rollback();
+            JdbcRepository.dispose();
+        }
+        Assert.assertEquals(executions.size(), 2); // select the old record and update it
+        Assert.assertEquals(counts(get(repository, query)), 1);
+    }
+
+    /**
+     * Gets records of repository "article" by the specified ids.
+     *
+     * @param ids        the specified ids
+     * @param executions the specified list to record executed statements
+     * @param stored     the specified predicate whether a record exists
+     * @return records, &lt;id, record&gt;
+     * @throws Exception exception
+     */
+    private static Map<String, JSONObject> multiGet(final List<String> ids, final List<MockDataSource.Execution> executions, final Predicate<String> stored) throws Exception {
+        final JdbcRepository repository = new JdbcRepository("article");
+        MockDataSource.EXECUTIONS.set(executions);
+        MockDataSource.ROWS.set(execution -> {
+            final List<Map<String, Object>> ret = new ArrayList<>();
+            for (final Object id : execution.getParams()) {
+                if (stored.test((String) id)) {
+                    final Map<String, Object> row = new LinkedHashMap<>();
+                    row.put(JdbcRepositories.keyName, id);
+                    row.put("articleTitle", "Title " + id);
+                    ret.add(row);
+                }
+            }
+            return ret;
+        });
+        try {
+            return repository.get(ids);
+        } finally {
+            MockDataSource.EXECUTIONS.remove();
+            MockDataSource.ROWS.remove();
+            JdbcRepository.dispose();
+        }
+    }
+
+    /**
+     * Generates ids from "0" to the specified count - 1.
+     *
+     * @param count the specified count
+     * @return ids
+     */
+    private static List<String> ids(final int count) {
+        final List<String> ret = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ret.add(String.valueOf(i));
+        }
+        return ret;
+    }
+
+    /**
+     * Updates record "1" of repository "test" with the specified snapshot, new json object and property names.
+     *
+     * @param oldJsonObject the specified snapshot
+     * @param jsonObject    the specified new json object
+     * @param propertyNames the specified property names
+     * @return executed statements
+     * @throws Exception exception
+     */
+    private static List<MockDataSource.Execution> update(final JSONObject oldJsonObject, final JSONObject jsonObject, final String... propertyNames) throws Exception {
+        final JdbcRepository repository = new JdbcRepository("test");
+        final List<MockDataSource.Execution> ret = new ArrayList<>();
+        MockDataSource.EXECUTIONS.set(ret);
+        final JdbcTransaction transaction = new JdbcTransaction();
+        JdbcRepository.TX.set(transaction);
+        try {
+            repository.update("1", oldJsonObject, jsonObject, propertyNames);
+        } finally {
+            MockDataSource.EXECUTIONS.remove();
+            transaction.rollback();
+            JdbcRepository.dispose();
+        }
+        return ret;
+    }
+
+    /**
+     * Gets records of the specified repository with the specified query.
+     *
+     * @param repository the specified repository
+     * @param query      the specified query
+     * @return executed statements
+     * @throws Exception exception
+     */
+    private static List<MockDataSource.Execution> get(final JdbcRepository repository, final Query query) throws Exception {
+        final List<MockDataSource.Execution> ret = new ArrayList<>();
+        MockDataSource.EXECUTIONS.set(ret);
+        MockDataSource.ROWS.set(execution -> execution.getSql().contains("COUNT(") ? Collections.singletonList(Collections.singletonMap("C", 1L)) : Collections.emptyList());
+        try {
+            repository.get(query);
+        } finally {
+            MockDataSource.EXECUTIONS.remove();
+            MockDataSource.ROWS.remove();
+            JdbcRepository.dispose();
+        }
+        return ret;
+    }
+
+    /**
+     * Counts the count statements in the specified executions.
+     *
+     * @param executions the specified executions
+     * @return count of count statements
+     */
+    private static long counts(final List<MockDataSource.Execution> executions) {
+        return executions.stream().filter(execution -> execution.getSql().startsWith("SELECT COUNT(")).count();
+    }
+
+    /**
+     * Database solution builds paging SQL as MySQLJdbcDatabaseSolution, which is in another module.
+     */
+    private static final class MySQLDatabase extends AbstractJdbcDatabaseSolution {
+
+        @Override
+        public boolean existTable(final String tableName) {
+            return true;
+        }
+
+        @Override
+        public String queryPage(final int start, final int end, final String selectSql, final String filterSql, final String orderBySql, final String tableName) {
+            final String where = filterSql.isBlank() ? "" : " WHERE " + filterSql;
+            return selectSql + " FROM `" + tableName + "`" + where + orderBySql + " LIMIT " + start + "," + (end - start);
+        }
+
+        @Override
+        public String getRandomlySql(final String tableName, final int fetchSize) {
+            return "SELECT * FROM `" + tableName + "` LIMIT " + fetchSize;
+        }
+
+        @Override
+        protected void createTableHead(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+
+        @Override
+        protected void createTableBody(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+
+        @Override
+        protected void createTableEnd(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+    }
+
+    /**
+     * Database solution builds paging SQL as H2JdbcDatabaseSolution, which is in another module.
+     */
+    private static final class H2Database extends AbstractJdbcDatabaseSolution {
+
+        @Override
+        public boolean existTable(final String tableName) {
+            return true;
+        }
+
+        @Override
+        public String queryPage(final int start, final int end, final String selectSql, final String filterSql, final String orderBySql, final String tableName) {
+            final String where = filterSql.isBlank() ? "" : " WHERE " + filterSql;
+            return selectSql + " FROM " + tableName + where + orderBySql + " LIMIT " + start + "," + (end - start);
+        }
+
+        @Override
+        public String getRandomlySql(final String tableName, final int fetchSize) {
+            return "SELECT * FROM " + tableName + " LIMIT " + fetchSize;
+        }
+
+        @Override
+        protected void createTableHead(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+
+        @Override
+        protected void createTableBody(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+
+        @Override
+        protected void createTableEnd(final StringBuilder createTableSqlBuilder, final RepositoryDefinition repositoryDefinition) {
+        }
+    }
+}
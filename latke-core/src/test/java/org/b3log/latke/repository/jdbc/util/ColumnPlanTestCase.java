@@ -0,0 +1,85 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import org.b3log.latke.Latkes;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * {@link ColumnPlan} test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class ColumnPlanTestCase {
+
+    @BeforeTest
+    public void beforeTest() {
+        Latkes.init();
+    }
+
+    @Test
+    public void kinds() throws Exception {
+        final ColumnPlan plan = ColumnPlan.get(MockDataSource.newResultSetMetaData("oId", "articleTitle", "articleIsPublished", "C"), "article", false);
+        Assert.assertEquals(plan.getNames(), new String[]{"oId", "articleTitle", "articleIsPublished", "C"});
+        Assert.assertEquals(plan.getKinds(), new int[]{ColumnPlan.KIND_OBJECT, ColumnPlan.KIND_OBJECT, ColumnPlan.KIND_BOOLEAN, ColumnPlan.KIND_RAW});
+    }
+
+    @Test
+    public void h2() throws Exception {
+        final ColumnPlan plan = ColumnPlan.get(MockDataSource.newResultSetMetaData("OID", "ARTICLETITLE", "ARTICLEISPUBLISHED"), "article", true);
+        Assert.assertEquals(plan.getNames(), new String[]{"oId", "articleTitle", "articleIsPublished"});
+        Assert.assertEquals(plan.getKinds(), new int[]{ColumnPlan.KIND_OBJECT, ColumnPlan.KIND_OBJECT, ColumnPlan.KIND_BOOLEAN});
+
+        // The same labels aren't upper-cased definitions on other databases
+        final ColumnPlan other = ColumnPlan.get(MockDataSource.newResultSetMetaData("OID", "ARTICLETITLE", "ARTICLEISPUBLISHED"), "article", false);
+        Assert.assertEquals(other.getNames(), new String[]{"OID", "ARTICLETITLE", "ARTICLEISPUBLISHED"});
+        Assert.assertEquals(other.getKinds(), new int[]{ColumnPlan.KIND_RAW, ColumnPlan.KIND_RAW, ColumnPlan.KIND_RAW});
+    }
+
+    @Test
+    public void cache() throws Exception {
+        final ColumnPlan plan = ColumnPlan.get(MockDataSource.newResultSetMetaData("oId", "articlePutTop"), "article", false);
+        Assert.assertSame(ColumnPlan.get(MockDataSource.newResultSetMetaData("oId", "articlePutTop"), "article", false), plan);
+        Assert.assertNotSame(ColumnPlan.get(MockDataSource.newResultSetMetaData("articlePutTop", "oId"), "article", false), plan);
+        Assert.assertNotSame(ColumnPlan.get(MockDataSource.newResultSetMetaData("oId", "articlePutTop"), "article", true), plan);
+    }
+
+    @Test
+    public void typedGetters() throws Exception {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("oId", "1");
+        row.put("articleIsPublished", 1); // TINYINT(1) read as a number
+        row.put("articleCommentCount", 3L);
+        row.put("C", 7L);
+        MockDataSource.ROWS.set(execution -> Collections.singletonList(row));
+        final Connection connection = MockDataSource.newConnection();
+        try {
+            final List<JSONObject> records = JdbcUtil.queryListJson("SELECT", Collections.emptyList(), connection, "article", false);
+            Assert.assertEquals(records.size(), 1);
+            final JSONObject record = records.get(0);
+            Assert.assertEquals(record.get("oId"), "1");
+            Assert.assertEquals(record.get("articleIsPublished"), Boolean.TRUE);
+            Assert.assertEquals(record.get("articleCommentCount"), 3L);
+            Assert.assertEquals(record.get("C"), 7L);
+        } finally {
+            MockDataSource.ROWS.remove();
+            connection.close();
+        }
+    }
+}
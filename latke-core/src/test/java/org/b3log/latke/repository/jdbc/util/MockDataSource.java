@@ -0,0 +1,361 @@
+/*
+ * Latke - 一款以 JSON 为主的 Java Web 框架
+ * Copyright (c) 2009-present, b3log.org
+ *
+ * Latke is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *         http://license.coscl.org.cn/MulanPSL2
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT, MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Mock data source, creates connections which record executed statements instead of executing them. Queries return
+ * the rows of {@link #ROWS}. {@link #install()} replaces the primary pool of {@link Connections} with a pool of mock
+ * connections, so repositories can be tested without a database.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 17, 2026
+ */
+public class MockDataSource implements DataSource {
+
+    /**
+     * Whether enabling auto-commit fails in the current thread.
+     */
+    public static final ThreadLocal<Boolean> FAIL_AUTO_COMMIT = new ThreadLocal<>();
+
+    /**
+     * Statements executed in the current thread, recorded if set. A batch records one execution for each row.
+     */
+    public static final ThreadLocal<List<Execution>> EXECUTIONS = new ThreadLocal<>();
+
+    /**
+     * Rows queried in the current thread, &lt;query execution, rows&gt;, a query returns no row if not set. Column
+     * labels of a result set are the keys of its first row.
+     */
+    public static final ThreadLocal<Function<Execution, List<Map<String, Object>>>> ROWS = new ThreadLocal<>();
+
+    /**
+     * Whether the pool has been installed.
+     */
+    private static boolean installed;
+
+    /**
+     * Replaces the primary pool of {@link Connections} with a pool of mock connections, does nothing if installed.
+     *
+     * @throws Exception exception
+     */
+    public static synchronized void install() throws Exception {
+        if (installed) {
+            return;
+        }
+
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(new MockDataSource());
+        hikariConfig.setAutoCommit(false);
+        hikariConfig.setMinimumIdle(0);
+        hikariConfig.setMaximumPoolSize(32);
+        hikariConfig.setPoolName("latke-mock");
+        final Field field = Connections.class.getDeclaredField("hikari");
+        field.setAccessible(true);
+        field.set(null, new HikariDataSource(hikariConfig));
+        installed = true;
+    }
+
+    /**
+     * Creates a mock connection.
+     *
+     * @return mock connection
+     */
+    public static Connection newConnection() {
+        final boolean[] state = {false, true}; // closed, auto-commit
+        return (Connection) Proxy.newProxyInstance(MockDataSource.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    state[0] = true;
+                    return null;
+                case "isClosed":
+                    return state[0];
+                case "isValid":
+                    return !state[0];
+                case "getAutoCommit":
+                    return state[1];
+                case "setAutoCommit":
+                    if ((Boolean) args[0] && Boolean.TRUE.equals(FAIL_AUTO_COMMIT.get())) {
+                        throw new SQLException("Mock auto-commit failure");
+                    }
+                    state[1] = (Boolean) args[0];
+                    return null;
+                case "prepareStatement":
+                    return newPreparedStatement((String) args[0]);
+                case "getTransactionIsolation":
+                    return Connection.TRANSACTION_READ_COMMITTED;
+                case "toString":
+                    return "MockConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Creates a mock prepared statement of the specified SQL.
+     *
+     * @param sql the specified SQL
+     * @return mock prepared statement
+     */
+    private static PreparedStatement newPreparedStatement(final String sql) {
+        final List<Object> params = new ArrayList<>();
+        final int[] batchSize = {0};
+        return newProxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setObject":
+                    final int index = (Integer) args[0];
+                    while (params.size() < index) {
+                        params.add(null);
+                    }
+                    params.set(index - 1, args[1]);
+                    return null;
+                case "clearParameters":
+                    params.clear();
+                    return null;
+                case "addBatch":
+                    record(sql, params);
+                    batchSize[0]++;
+                    return null;
+                case "executeBatch":
+                    final int[] ret = new int[batchSize[0]];
+                    Arrays.fill(ret, 1);
+                    batchSize[0] = 0;
+                    return ret;
+                case "execute":
+                    record(sql, params);
+                    return false;
+                case "executeUpdate":
+                    record(sql, params);
+                    return 1;
+                case "executeQuery":
+                    final Execution query = record(sql, params);
+                    final Function<Execution, List<Map<String, Object>>> rows = ROWS.get();
+                    return newResultSet(null == rows ? Collections.emptyList() : rows.apply(query));
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Creates a mock result set of the specified rows.
+     *
+     * @param rows the specified rows
+     * @return mock result set
+     */
+    private static ResultSet newResultSet(final List<Map<String, Object>> rows) {
+        final List<String> labels = rows.isEmpty() ? Collections.emptyList() : new ArrayList<>(rows.get(0).keySet());
+        final ResultSetMetaData metaData = newResultSetMetaData(labels.toArray(new String[0]));
+        final int[] cursor = {-1};
+        return newProxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMetaData":
+                    return metaData;
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "getObject":
+                    return rows.get(cursor[0]).get(labels.get((Integer) args[0] - 1));
+                case "getBoolean":
+                    final Object value = rows.get(cursor[0]).get(labels.get((Integer) args[0] - 1));
+                    return value instanceof Boolean ? value : null != value && 0 != ((Number) value).intValue();
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Creates a mock result set meta data of the specified column labels.
+     *
+     * @param labels the specified column labels
+     * @return mock result set meta data
+     */
+    public static ResultSetMetaData newResultSetMetaData(final String... labels) {
+        return newProxy(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return labels.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return labels[(Integer) args[0] - 1];
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Records an execution of the specified SQL and params if recording.
+     *
+     * @param sql    the specified SQL
+     * @param params the specified params
+     * @return execution
+     */
+    private static Execution record(final String sql, final List<Object> params) {
+        final Execution ret = new Execution(sql, new ArrayList<>(params));
+        final List<Execution> executions = EXECUTIONS.get();
+        if (null != executions) {
+            executions.add(ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Creates a proxy of the specified interface with the specified handler.
+     *
+     * @param type    the specified interface
+     * @param handler the specified handler
+     * @param <T>     the type of the proxy
+     * @return proxy
+     */
+    private static <T> T newProxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MockDataSource.class.getClassLoader(), new Class[]{type}, handler));
+    }
+
+    /**
+     * Gets the default return value of the specified method invoked on the specified proxy.
+     *
+     * @param proxy  the specified proxy
+     * @param method the specified method
+     * @param args   the specified args
+     * @return {@code false}, {@code 0} or {@code null} by the return type, identity for {@code hashCode} and {@code equals}
+     */
+    private static Object defaultValue(final Object proxy, final Method method, final Object[] args) {
+        switch (method.getName()) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "Mock@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                final Class<?> returnType = method.getReturnType();
+                if (boolean.class == returnType) {
+                    return false;
+                }
+                if (int.class == returnType) {
+                    return 0;
+                }
+                if (long.class == returnType) {
+                    return 0L;
+                }
+                return null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() {
+        return newConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) {
+        return newConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        throw new SQLException("Not a wrapper");
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return false;
+    }
+
+    /**
+     * An execution of a statement.
+     */
+    public static final class Execution {
+
+        /**
+         * SQL.
+         */
+        private final String sql;
+
+        /**
+         * Params.
+         */
+        private final List<Object> params;
+
+        /**
+         * Constructs an execution with the specified SQL and params.
+         *
+         * @param sql    the specified SQL
+         * @param params the specified params
+         */
+        private Execution(final String sql, final List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        /**
+         * Gets the SQL.
+         *
+         * @return SQL
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Gets the params.
+         *
+         * @return params
+         */
+        public List<Object> getParams() {
+            return params;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + params;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpVersion;
+import org.b3log.latke.Keys;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.http.MockRequest;
 import org.b3log.latke.http.Request;
@@ -25,7 +26,7 @@ import org.testng.annotations.Test;
  * {@link StaticResources} test case.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.0.0.0, Nov 3, 2019
+ * @version 2.1.0.0, Oct 17, 2026
  */
 public class StaticResourcesTestCase {
 
@@ -59,4 +60,68 @@ public class StaticResourcesTestCase {
         request = new MockRequest(req);
         Assert.assertFalse(StaticResources.isStatic(request));
     }
+
+    /**
+     * Tests method {@link StaticResources#isStatic(Request)} keeps the result in the request attributes.
+     */
+    @Test
+    public void requestAttributes() {
+        final MockRequest request = new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/css/test.css"));
+        Assert.assertTrue(StaticResources.isStatic(request));
+        Assert.assertEquals(request.getAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED), true);
+        Assert.assertEquals(request.getAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE), true);
+
+        final MockRequest dynamic = new MockRequest(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/articles/1"));
+        Assert.assertFalse(StaticResources.isStatic(dynamic));
+        Assert.assertEquals(dynamic.getAttribute(Keys.HttpRequest.REQUEST_STATIC_RESOURCE_CHECKED), true);
+        Assert.assertEquals(dynamic.getAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE), false);
+        // Checked already, not classified again
+        dynamic.setAttribute(Keys.HttpRequest.IS_REQUEST_STATIC_RESOURCE, true);
+        Assert.assertTrue(StaticResources.isStatic(dynamic));
+    }
+
+    /**
+     * Tests method {@link StaticResources#isStatic(String)}.
+     */
+    @Test
+    public void isStaticURI() {
+        // Exact paths
+        Assert.assertTrue(StaticResources.isStatic("/favicon.ico"));
+        Assert.assertFalse(StaticResources.isStatic("/favicon.ico/"));
+        Assert.assertFalse(StaticResources.isStatic("/favicon.icon"));
+
+        // Nested directories
+        Assert.assertTrue(StaticResources.isStatic("/css/a.css"));
+        Assert.assertTrue(StaticResources.isStatic("/skins/classic/css/deep/a.css"));
+        Assert.assertTrue(StaticResources.isStatic("/plugins/list/static/js/app.js"));
+        Assert.assertFalse(StaticResources.isStatic("/skinsx/a.css"));
+        Assert.assertFalse(StaticResources.isStatic("/css.css"));
+        Assert.assertFalse(StaticResources.isStatic("/js/a.jsx"));
+        Assert.assertFalse(StaticResources.isStatic("/articles/css/a.css"));
+
+        // Trailing "/"
+        Assert.assertFalse(StaticResources.isStatic("/css/"));
+        Assert.assertFalse(StaticResources.isStatic("/js/a.js/"));
+        Assert.assertFalse(StaticResources.isStatic("/"));
+
+        // Residual patterns
+        Assert.assertTrue(StaticResources.isStatic("/upload/a.txt"));
+        Assert.assertFalse(StaticResources.isStatic("/upload/dir/a.txt"));
+        Assert.assertTrue(StaticResources.isStatic("/themes/dark/assets/fonts/a.woff2"));
+        Assert.assertFalse(StaticResources.isStatic("/themes/dark/a.woff2"));
+    }
+
+    /**
+     * Tests method {@link StaticResources#isStatic(String, String)} with context path changes.
+     */
+    @Test
+    public void contextPath() {
+        Assert.assertTrue(StaticResources.isStatic("/blog/css/a.css", "/blog"));
+        Assert.assertTrue(StaticResources.isStatic("/blog/favicon.ico", "/blog"));
+        Assert.assertTrue(StaticResources.isStatic("/blog/upload/a.txt", "/blog"));
+        Assert.assertFalse(StaticResources.isStatic("/css/a.css", "/blog"));
+
+        Assert.assertTrue(StaticResources.isStatic("/css/a.css", ""));
+        Assert.assertFalse(StaticResources.isStatic("/blog/css/a.css", ""));
+    }
 }